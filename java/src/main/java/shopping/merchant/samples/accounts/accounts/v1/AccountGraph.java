@@ -0,0 +1,351 @@
+// Copyright 2026 Google LLC
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     https://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package shopping.merchant.samples.accounts.accounts.v1;
+
+import com.google.shopping.merchant.accounts.v1.Account;
+import com.google.shopping.merchant.accounts.v1.AccountRelationship;
+import com.google.shopping.merchant.accounts.v1.AccountRelationshipsServiceClient;
+import com.google.shopping.merchant.accounts.v1.AccountService;
+import com.google.shopping.merchant.accounts.v1.AccountServicesServiceClient;
+import com.google.shopping.merchant.accounts.v1.AccountsServiceClient;
+import com.google.shopping.merchant.accounts.v1.ListAccountRelationshipsRequest;
+import com.google.shopping.merchant.accounts.v1.ListAccountServicesRequest;
+import com.google.shopping.merchant.accounts.v1.ListSubAccountsRequest;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+
+/**
+ * In-memory snapshot of an advanced account, its sub-accounts, and the relationships and services
+ * of every sub-account.
+ *
+ * <p>The graph is loaded with one list call for the sub-accounts, followed by one relationships
+ * and one services list call per sub-account, all running concurrently on the given executor.
+ * Afterwards, "children of", "providers of", name and alias lookups are answered from memory.
+ *
+ * <p>Account IDs are numeric, so nodes are indexed by a primitive {@code long} hash index instead
+ * of boxed map keys. Reads are lock-free: each refresh builds a new immutable snapshot and swaps
+ * it in, so readers always see a consistent graph.
+ */
+public class AccountGraph {
+
+  private static final long[] NO_IDS = new long[0];
+
+  /** A single account and the edges that start from it. */
+  public static class Node {
+    private final long accountId;
+    private final String accountName;
+    // IDs of the accounts that provide a service to this account.
+    private final long[] providerIds;
+    // Aliases of this account, keyed by provider ID.
+    private final Map<Long, String> aliases;
+    private final List<AccountService> services;
+
+    Node(
+        long accountId,
+        String accountName,
+        long[] providerIds,
+        Map<Long, String> aliases,
+        List<AccountService> services) {
+      this.accountId = accountId;
+      this.accountName = accountName;
+      this.providerIds = providerIds;
+      this.aliases = aliases;
+      this.services = services;
+    }
+
+    public long getAccountId() {
+      return accountId;
+    }
+
+    public String getAccountName() {
+      return accountName;
+    }
+
+    public List<AccountService> getServices() {
+      return services;
+    }
+
+    public Map<Long, String> getAliases() {
+      return aliases;
+    }
+  }
+
+  /** Immutable view of the graph. Rebuilt on every refresh. */
+  private static class Snapshot {
+    private final Node[] nodes;
+    private final LongIndex nodeIndex;
+    private final LongIndex childrenIndex;
+    private final long[][] children;
+    private final Map<String, Long> idsByName = new HashMap<>();
+    private final Map<String, Long> idsByAlias = new HashMap<>();
+
+    Snapshot(Node[] nodes) {
+      this.nodes = nodes;
+      this.nodeIndex = new LongIndex(nodes.length);
+
+      // Groups the accounts by provider to answer "children of" lookups.
+      Map<Long, List<Long>> childLists = new HashMap<>();
+      for (int i = 0; i < nodes.length; i++) {
+        Node node = nodes[i];
+        nodeIndex.put(node.accountId, i);
+        idsByName.putIfAbsent(node.accountName, node.accountId);
+        for (long providerId : node.providerIds) {
+          childLists.computeIfAbsent(providerId, id -> new ArrayList<>()).add(node.accountId);
+        }
+        for (Map.Entry<Long, String> alias : node.aliases.entrySet()) {
+          idsByAlias.put(aliasKey(alias.getKey(), alias.getValue()), node.accountId);
+        }
+      }
+      this.childrenIndex = new LongIndex(childLists.size());
+      this.children = new long[childLists.size()][];
+      int slot = 0;
+      for (Map.Entry<Long, List<Long>> entry : childLists.entrySet()) {
+        long[] ids = new long[entry.getValue().size()];
+        for (int i = 0; i < ids.length; i++) {
+          ids[i] = entry.getValue().get(i);
+        }
+        Arrays.sort(ids);
+        childrenIndex.put(entry.getKey(), slot);
+        children[slot++] = ids;
+      }
+    }
+  }
+
+  private final long rootAccountId;
+  private final AccountsServiceClient accountsServiceClient;
+  private final AccountRelationshipsServiceClient accountRelationshipsServiceClient;
+  private final AccountServicesServiceClient accountServicesServiceClient;
+  private final ExecutorService executor;
+  private volatile Snapshot snapshot = new Snapshot(new Node[0]);
+
+  public AccountGraph(
+      long rootAccountId,
+      AccountsServiceClient accountsServiceClient,
+      AccountRelationshipsServiceClient accountRelationshipsServiceClient,
+      AccountServicesServiceClient accountServicesServiceClient,
+      ExecutorService executor) {
+    this.rootAccountId = rootAccountId;
+    this.accountsServiceClient = accountsServiceClient;
+    this.accountRelationshipsServiceClient = accountRelationshipsServiceClient;
+    this.accountServicesServiceClient = accountServicesServiceClient;
+    this.executor = executor;
+  }
+
+  /** Lists the sub-accounts of the root account and loads every one of them. */
+  public synchronized void load() {
+    List<Account> accounts = listSubAccounts();
+    List<CompletableFuture<Node>> futures = new ArrayList<>(accounts.size());
+    for (Account account : accounts) {
+      futures.add(loadNodeAsync(account.getAccountId(), account.getAccountName()));
+    }
+    snapshot = new Snapshot(join(futures).toArray(new Node[0]));
+  }
+
+  /**
+   * Lists the sub-accounts of the root account again, but only loads the relationships and
+   * services of accounts that are not in the graph yet. Accounts that are no longer sub-accounts
+   * are dropped.
+   */
+  public synchronized void refreshSubAccounts() {
+    Snapshot current = snapshot;
+    List<Account> accounts = listSubAccounts();
+    List<CompletableFuture<Node>> futures = new ArrayList<>(accounts.size());
+    for (Account account : accounts) {
+      int slot = current.nodeIndex.get(account.getAccountId());
+      if (slot >= 0) {
+        futures.add(CompletableFuture.completedFuture(current.nodes[slot]));
+      } else {
+        futures.add(loadNodeAsync(account.getAccountId(), account.getAccountName()));
+      }
+    }
+    snapshot = new Snapshot(join(futures).toArray(new Node[0]));
+  }
+
+  /** Reloads the relationships and services of a single account, e.g. after changing them. */
+  public synchronized void refreshAccount(long accountId) {
+    Snapshot current = snapshot;
+    int slot = current.nodeIndex.get(accountId);
+    if (slot < 0) {
+      throw new IllegalArgumentException("Account " + accountId + " is not in the graph");
+    }
+    Node[] nodes = current.nodes.clone();
+    nodes[slot] = loadNodeAsync(accountId, nodes[slot].accountName).join();
+    snapshot = new Snapshot(nodes);
+  }
+
+  public int size() {
+    return snapshot.nodes.length;
+  }
+
+  /** Returns the account, or {@code null} if it is not in the graph. */
+  public Node getAccount(long accountId) {
+    Snapshot current = snapshot;
+    int slot = current.nodeIndex.get(accountId);
+    return slot < 0 ? null : current.nodes[slot];
+  }
+
+  /** Returns the sorted IDs of the accounts that the given account provides a service to. */
+  public long[] childrenOf(long providerId) {
+    Snapshot current = snapshot;
+    int slot = current.childrenIndex.get(providerId);
+    return slot < 0 ? NO_IDS : current.children[slot].clone();
+  }
+
+  /** Returns the IDs of the accounts that provide a service to the given account. */
+  public long[] providersOf(long accountId) {
+    Node node = getAccount(accountId);
+    return node == null ? NO_IDS : node.providerIds.clone();
+  }
+
+  /**
+   * Returns the ID of an account with the given display name, or {@code null}. Display names are
+   * not unique, so if several accounts share a name, one of them is returned.
+   */
+  public Long findByName(String accountName) {
+    return snapshot.idsByName.get(accountName);
+  }
+
+  /** Returns the ID of the account with the given alias for the provider, or {@code null}. */
+  public Long findByAlias(long providerId, String alias) {
+    return snapshot.idsByAlias.get(aliasKey(providerId, alias));
+  }
+
+  private List<Account> listSubAccounts() {
+    ListSubAccountsRequest request =
+        ListSubAccountsRequest.newBuilder().setProvider(toName(rootAccountId)).build();
+    List<Account> accounts = new ArrayList<>();
+    for (Account account : accountsServiceClient.listSubAccounts(request).iterateAll()) {
+      accounts.add(account);
+    }
+    return accounts;
+  }
+
+  private CompletableFuture<Node> loadNodeAsync(long accountId, String accountName) {
+    String parent = toName(accountId);
+    CompletableFuture<List<AccountRelationship>> relationships =
+        CompletableFuture.supplyAsync(
+            () -> {
+              List<AccountRelationship> result = new ArrayList<>();
+              for (AccountRelationship relationship :
+                  accountRelationshipsServiceClient
+                      .listAccountRelationships(
+                          ListAccountRelationshipsRequest.newBuilder().setParent(parent).build())
+                      .iterateAll()) {
+                result.add(relationship);
+              }
+              return result;
+            },
+            executor);
+    CompletableFuture<List<AccountService>> services =
+        CompletableFuture.supplyAsync(
+            () -> {
+              List<AccountService> result = new ArrayList<>();
+              for (AccountService service :
+                  accountServicesServiceClient
+                      .listAccountServices(
+                          ListAccountServicesRequest.newBuilder().setParent(parent).build())
+                      .iterateAll()) {
+                result.add(service);
+              }
+              return result;
+            },
+            executor);
+    return relationships.thenCombine(
+        services,
+        (relationshipList, serviceList) -> {
+          long[] providerIds = new long[relationshipList.size()];
+          Map<Long, String> aliases = new HashMap<>();
+          for (int i = 0; i < providerIds.length; i++) {
+            AccountRelationship relationship = relationshipList.get(i);
+            // The provider has the format: accounts/{account}
+            providerIds[i] = parseAccountId(relationship.getProvider());
+            if (!relationship.getAccountIdAlias().isEmpty()) {
+              aliases.put(providerIds[i], relationship.getAccountIdAlias());
+            }
+          }
+          return new Node(accountId, accountName, providerIds, aliases, serviceList);
+        });
+  }
+
+  private static <T> List<T> join(List<CompletableFuture<T>> futures) {
+    List<T> results = new ArrayList<>(futures.size());
+    for (CompletableFuture<T> future : futures) {
+      results.add(future.join());
+    }
+    return results;
+  }
+
+  private static String toName(long accountId) {
+    return "accounts/" + accountId;
+  }
+
+  static long parseAccountId(String name) {
+    return Long.parseLong(name.substring(name.lastIndexOf('/') + 1));
+  }
+
+  private static String aliasKey(long providerId, String alias) {
+    return providerId + "~" + alias;
+  }
+
+  /**
+   * Open addressing hash index from {@code long} keys to non-negative {@code int} values. Avoids
+   * boxing the account IDs and keeps the keys in one contiguous array.
+   */
+  static class LongIndex {
+    private final long[] keys;
+    private final int[] values;
+    private final int mask;
+
+    LongIndex(int expectedSize) {
+      // Keeps the load factor at or below 0.5.
+      int capacity = Integer.highestOneBit(Math.max(2, expectedSize) * 2 - 1) << 1;
+      this.keys = new long[capacity];
+      this.values = new int[capacity];
+      this.mask = capacity - 1;
+      Arrays.fill(values, -1);
+    }
+
+    void put(long key, int value) {
+      int slot = mix(key) & mask;
+      while (values[slot] >= 0 && keys[slot] != key) {
+        slot = (slot + 1) & mask;
+      }
+      keys[slot] = key;
+      values[slot] = value;
+    }
+
+    /** Returns the value for the key, or -1 if there is none. */
+    int get(long key) {
+      int slot = mix(key) & mask;
+      while (values[slot] >= 0) {
+        if (keys[slot] == key) {
+          return values[slot];
+        }
+        slot = (slot + 1) & mask;
+      }
+      return -1;
+    }
+
+    private static int mix(long key) {
+      long h = key * 0x9E3779B97F4A7C15L;
+      return (int) (h ^ (h >>> 32));
+    }
+  }
+}
@@ -0,0 +1,126 @@
+// Copyright 2026 Google LLC
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     https://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package shopping.merchant.samples.accounts.accounts.v1;
+// [START merchantapi_account_graph]
+import com.google.api.gax.core.FixedCredentialsProvider;
+import com.google.auth.oauth2.GoogleCredentials;
+import com.google.shopping.merchant.accounts.v1.AccountRelationshipsServiceClient;
+import com.google.shopping.merchant.accounts.v1.AccountRelationshipsServiceSettings;
+import com.google.shopping.merchant.accounts.v1.AccountService;
+import com.google.shopping.merchant.accounts.v1.AccountServicesServiceClient;
+import com.google.shopping.merchant.accounts.v1.AccountServicesServiceSettings;
+import com.google.shopping.merchant.accounts.v1.AccountsServiceClient;
+import com.google.shopping.merchant.accounts.v1.AccountsServiceSettings;
+import java.util.Arrays;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import shopping.merchant.samples.utils.Authenticator;
+import shopping.merchant.samples.utils.Config;
+
+/**
+ * This class demonstrates how to load the sub-accounts of an advanced account, together with their
+ * relationships and services, into an in-memory {@link AccountGraph}, and answer questions about
+ * the account tree without further API calls.
+ */
+public class AccountGraphSample {
+
+  // Maximum number of list requests in flight at the same time while loading the graph.
+  private static final int MAX_CONCURRENT_REQUESTS = 20;
+
+  public static void loadAccountGraph(Config config, String accountName, String alias)
+      throws Exception {
+
+    // Obtains OAuth token based on the user's configuration.
+    GoogleCredentials credential = new Authenticator().authenticate();
+    FixedCredentialsProvider credentialsProvider = FixedCredentialsProvider.create(credential);
+
+    long rootAccountId = config.getAccountId().longValue();
+    ExecutorService executor = Executors.newFixedThreadPool(MAX_CONCURRENT_REQUESTS);
+
+    // Calls the API and catches and prints any network failures/errors.
+    try (AccountsServiceClient accountsServiceClient =
+            AccountsServiceClient.create(
+                AccountsServiceSettings.newBuilder()
+                    .setCredentialsProvider(credentialsProvider)
+                    .build());
+        AccountRelationshipsServiceClient accountRelationshipsServiceClient =
+            AccountRelationshipsServiceClient.create(
+                AccountRelationshipsServiceSettings.newBuilder()
+                    .setCredentialsProvider(credentialsProvider)
+                    .build());
+        AccountServicesServiceClient accountServicesServiceClient =
+            AccountServicesServiceClient.create(
+                AccountServicesServiceSettings.newBuilder()
+                    .setCredentialsProvider(credentialsProvider)
+                    .build())) {
+
+      AccountGraph graph =
+          new AccountGraph(
+              rootAccountId,
+              accountsServiceClient,
+              accountRelationshipsServiceClient,
+              accountServicesServiceClient,
+              executor);
+
+      System.out.println("Loading account graph");
+      long start = System.nanoTime();
+      graph.load();
+      System.out.printf(
+          "Loaded %d sub-accounts in %d ms%n",
+          graph.size(), (System.nanoTime() - start) / 1_000_000);
+
+      // All the lookups below are answered from memory.
+      long[] children = graph.childrenOf(rootAccountId);
+      System.out.printf(
+          "Account %d provides services to %d accounts%n", rootAccountId, children.length);
+
+      Long byName = graph.findByName(accountName);
+      System.out.printf("Account named \"%s\": %s%n", accountName, byName);
+      if (byName != null) {
+        System.out.printf("Providers: %s%n", Arrays.toString(graph.providersOf(byName)));
+        for (AccountService service : graph.getAccount(byName).getServices()) {
+          System.out.printf(
+              "  %s from %s (%s)%n",
+              service.getServiceTypeCase(),
+              service.getProvider(),
+              service.getHandshake().getApprovalState());
+        }
+      }
+
+      Long byAlias = graph.findByAlias(rootAccountId, alias);
+      System.out.printf("Account with alias \"%s\": %s%n", alias, byAlias);
+
+      // Picks up sub-accounts created or removed since the initial load. Only the new accounts
+      // are fetched.
+      graph.refreshSubAccounts();
+      System.out.printf("Graph has %d sub-accounts after refresh%n", graph.size());
+    } catch (Exception e) {
+      System.out.println(e);
+    } finally {
+      executor.shutdown();
+    }
+  }
+
+  public static void main(String[] args) throws Exception {
+    Config config = Config.load();
+
+    // Update these with the display name and alias of a sub-account to look up.
+    String accountName = "Demo Business";
+    String alias = "alias";
+
+    loadAccountGraph(config, accountName, alias);
+  }
+}
+// [END merchantapi_account_graph]
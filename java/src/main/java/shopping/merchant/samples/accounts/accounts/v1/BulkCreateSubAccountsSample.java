@@ -0,0 +1,587 @@
+// Copyright 2026 Google LLC
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     https://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package shopping.merchant.samples.accounts.accounts.v1;
+// [START merchantapi_bulk_create_sub_accounts]
+import com.google.api.gax.core.FixedCredentialsProvider;
+import com.google.api.gax.rpc.NotFoundException;
+import com.google.auth.oauth2.GoogleCredentials;
+import com.google.protobuf.FieldMask;
+import com.google.shopping.merchant.accounts.v1.AcceptTermsOfServiceRequest;
+import com.google.shopping.merchant.accounts.v1.Account;
+import com.google.shopping.merchant.accounts.v1.AccountAggregation;
+import com.google.shopping.merchant.accounts.v1.AccountsServiceClient;
+import com.google.shopping.merchant.accounts.v1.AccountsServiceSettings;
+import com.google.shopping.merchant.accounts.v1.BusinessInfo;
+import com.google.shopping.merchant.accounts.v1.BusinessInfoServiceClient;
+import com.google.shopping.merchant.accounts.v1.BusinessInfoServiceSettings;
+import com.google.shopping.merchant.accounts.v1.CreateAndConfigureAccountRequest;
+import com.google.shopping.merchant.accounts.v1.CreateAndConfigureAccountRequest.AddAccountService;
+import com.google.shopping.merchant.accounts.v1.DeliveryTime;
+import com.google.shopping.merchant.accounts.v1.GetShippingSettingsRequest;
+import com.google.shopping.merchant.accounts.v1.Homepage;
+import com.google.shopping.merchant.accounts.v1.HomepageServiceClient;
+import com.google.shopping.merchant.accounts.v1.HomepageServiceSettings;
+import com.google.shopping.merchant.accounts.v1.ListSubAccountsRequest;
+import com.google.shopping.merchant.accounts.v1.RetrieveLatestTermsOfServiceRequest;
+import com.google.shopping.merchant.accounts.v1.Service;
+import com.google.shopping.merchant.accounts.v1.Service.ShipmentType;
+import com.google.shopping.merchant.accounts.v1.ShippingSettings;
+import com.google.shopping.merchant.accounts.v1.ShippingSettingsServiceClient;
+import com.google.shopping.merchant.accounts.v1.ShippingSettingsServiceSettings;
+import com.google.shopping.merchant.accounts.v1.TermsOfService;
+import com.google.shopping.merchant.accounts.v1.TermsOfServiceKind;
+import com.google.shopping.merchant.accounts.v1.TermsOfServiceServiceClient;
+import com.google.shopping.merchant.accounts.v1.TermsOfServiceServiceSettings;
+import com.google.shopping.merchant.accounts.v1.UpdateBusinessInfoRequest;
+import com.google.shopping.merchant.accounts.v1.UpdateHomepageRequest;
+import com.google.type.PostalAddress;
+import com.google.type.TimeZone;
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import shopping.merchant.samples.accounts.shippingsettings.v1.ShippingSettingsCache;
+import shopping.merchant.samples.utils.Authenticator;
+import shopping.merchant.samples.utils.Config;
+
+/**
+ * This class demonstrates how to onboard many sellers at once by creating sub-accounts under an
+ * advanced account and then configuring each new sub-account.
+ *
+ * <p>Seller specs are read from a tab-separated file with one seller per line and the columns
+ * {@code sellerId, accountName, languageCode, timeZone, homepageUri, regionCode, postalCode,
+ * addressLine}. Lines starting with {@code #} are ignored.
+ *
+ * <p>For each seller the sub-account is created first. Once it exists, the business info,
+ * homepage, shipping settings and terms of service acceptance only depend on the account name, so
+ * they run in parallel. All calls share one pool of worker threads, which bounds the number of
+ * concurrent requests.
+ *
+ * <p>Every completed step is appended to a checkpoint file. When the sample is re-run after a
+ * crash, completed steps are skipped. The intent to create an account is checkpointed before the
+ * create call, with the sub-accounts that already have the seller's account name. Only sellers with
+ * an unfinished create are matched by account name against the existing sub-accounts, leaving out
+ * those recorded with the intent and those used by other sellers, so no account is created twice
+ * and no unrelated account is configured. A seller still matching several sub-accounts fails and
+ * is reported.
+ */
+public class BulkCreateSubAccountsSample {
+
+  // Maximum number of requests in flight at the same time.
+  private static final int MAX_CONCURRENT_REQUESTS = 10;
+
+  private static final String STEP_CREATE_STARTED = "CREATE_STARTED";
+  private static final String STEP_CREATED = "CREATED";
+  private static final String STEP_BUSINESS_INFO = "BUSINESS_INFO";
+  private static final String STEP_HOMEPAGE = "HOMEPAGE";
+  private static final String STEP_SHIPPING_SETTINGS = "SHIPPING_SETTINGS";
+  private static final String STEP_TERMS_OF_SERVICE = "TERMS_OF_SERVICE";
+
+  private static String getParent(String accountId) {
+    return String.format("accounts/%s", accountId);
+  }
+
+  /** A single line of the seller spec file. */
+  static class SellerSpec {
+    final String sellerId;
+    final String accountName;
+    final String languageCode;
+    final String timeZone;
+    final String homepageUri;
+    final String regionCode;
+    final String postalCode;
+    final String addressLine;
+
+    SellerSpec(String[] columns) {
+      if (columns.length < 8) {
+        throw new IllegalArgumentException(
+            "Expected 8 tab-separated columns but found " + columns.length);
+      }
+      this.sellerId = columns[0].trim();
+      this.accountName = columns[1].trim();
+      this.languageCode = columns[2].trim();
+      this.timeZone = columns[3].trim();
+      this.homepageUri = columns[4].trim();
+      this.regionCode = columns[5].trim();
+      this.postalCode = columns[6].trim();
+      this.addressLine = columns[7].trim();
+    }
+  }
+
+  static List<SellerSpec> readSellerSpecs(File specFile) throws IOException {
+    List<SellerSpec> specs = new ArrayList<>();
+    try (BufferedReader reader = Files.newBufferedReader(specFile.toPath())) {
+      String line;
+      while ((line = reader.readLine()) != null) {
+        if (line.trim().isEmpty() || line.startsWith("#")) {
+          continue;
+        }
+        specs.add(new SellerSpec(line.split("\t", -1)));
+      }
+    }
+    return specs;
+  }
+
+  /**
+   * Append-only record of completed steps. Each line has the form {@code
+   * sellerId<TAB>step<TAB>accountName}, and is flushed as soon as the step completes. For the
+   * {@code CREATE_STARTED} step, the last column lists the sub-accounts that had the seller's
+   * account name before the create, separated by commas.
+   */
+  static class Checkpoint implements AutoCloseable {
+    // sellerId -> account name of the created sub-account.
+    private final Map<String, String> accounts = new ConcurrentHashMap<>();
+    // The account names of all the created sub-accounts.
+    private final Set<String> createdAccounts = ConcurrentHashMap.newKeySet();
+    // sellerId -> sub-accounts that had the seller's account name before its create was sent.
+    private final Map<String, Set<String>> accountsBeforeCreate = new ConcurrentHashMap<>();
+    // sellerId + "/" + step for every completed step.
+    private final Set<String> completedSteps = ConcurrentHashMap.newKeySet();
+    private final Writer writer;
+
+    Checkpoint(File file) throws IOException {
+      if (file.exists()) {
+        for (String line : Files.readAllLines(file.toPath(), StandardCharsets.UTF_8)) {
+          String[] columns = line.split("\t", -1);
+          // Ignores a partially written last line from a crashed run.
+          if (columns.length != 3) {
+            continue;
+          }
+          completedSteps.add(columns[0] + "/" + columns[1]);
+          if (STEP_CREATED.equals(columns[1])) {
+            accounts.put(columns[0], columns[2]);
+            createdAccounts.add(columns[2]);
+          } else if (STEP_CREATE_STARTED.equals(columns[1])) {
+            accountsBeforeCreate.put(columns[0], splitAccounts(columns[2]));
+          }
+        }
+      }
+      this.writer =
+          new OutputStreamWriter(new FileOutputStream(file, true), StandardCharsets.UTF_8);
+    }
+
+    String getAccount(String sellerId) {
+      return accounts.get(sellerId);
+    }
+
+    boolean isCreated(String accountName) {
+      return createdAccounts.contains(accountName);
+    }
+
+    Set<String> getAccountsBeforeCreate(String sellerId) {
+      return accountsBeforeCreate.getOrDefault(sellerId, Collections.emptySet());
+    }
+
+    private static Set<String> splitAccounts(String column) {
+      Set<String> accountNames = new HashSet<>();
+      for (String accountName : column.split(",")) {
+        if (!accountName.isEmpty()) {
+          accountNames.add(accountName);
+        }
+      }
+      return accountNames;
+    }
+
+    boolean isDone(String sellerId, String step) {
+      return completedSteps.contains(sellerId + "/" + step);
+    }
+
+    synchronized void markDone(String sellerId, String step, String accountName)
+        throws IOException {
+      writer.write(sellerId + "\t" + step + "\t" + accountName + "\n");
+      writer.flush();
+      completedSteps.add(sellerId + "/" + step);
+      if (STEP_CREATED.equals(step)) {
+        accounts.put(sellerId, accountName);
+        createdAccounts.add(accountName);
+      } else if (STEP_CREATE_STARTED.equals(step)) {
+        accountsBeforeCreate.put(sellerId, splitAccounts(accountName));
+      }
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+      writer.close();
+    }
+  }
+
+  /** Holds the clients shared by all the seller pipelines. */
+  static class Clients implements AutoCloseable {
+    final AccountsServiceClient accounts;
+    final BusinessInfoServiceClient businessInfos;
+    final HomepageServiceClient homepages;
+    final ShippingSettingsServiceClient shippingSettings;
+    final TermsOfServiceServiceClient termsOfServices;
+
+    Clients(GoogleCredentials credential) throws IOException {
+      FixedCredentialsProvider credentialsProvider = FixedCredentialsProvider.create(credential);
+      this.accounts =
+          AccountsServiceClient.create(
+              AccountsServiceSettings.newBuilder()
+                  .setCredentialsProvider(credentialsProvider)
+                  .build());
+      this.businessInfos =
+          BusinessInfoServiceClient.create(
+              BusinessInfoServiceSettings.newBuilder()
+                  .setCredentialsProvider(credentialsProvider)
+                  .build());
+      this.homepages =
+          HomepageServiceClient.create(
+              HomepageServiceSettings.newBuilder()
+                  .setCredentialsProvider(credentialsProvider)
+                  .build());
+      this.shippingSettings =
+          ShippingSettingsServiceClient.create(
+              ShippingSettingsServiceSettings.newBuilder()
+                  .setCredentialsProvider(credentialsProvider)
+                  .build());
+      this.termsOfServices =
+          TermsOfServiceServiceClient.create(
+              TermsOfServiceServiceSettings.newBuilder()
+                  .setCredentialsProvider(credentialsProvider)
+                  .build());
+    }
+
+    @Override
+    public void close() {
+      accounts.close();
+      businessInfos.close();
+      homepages.close();
+      shippingSettings.close();
+      termsOfServices.close();
+    }
+  }
+
+  /** Runs the create step followed by the follow-up steps for every seller. */
+  static class Pipeline {
+    private final String parent;
+    private final Clients clients;
+    private final Checkpoint checkpoint;
+    private final ExecutorService executor;
+    private final ShippingSettings shippingTemplate;
+    // Sub-accounts that already exist under the advanced account, keyed by display name. Several
+    // sub-accounts can share a display name.
+    private final Map<String, List<String>> existingAccounts;
+    // The latest terms of service only depend on the region, so they are fetched once per region.
+    private final Map<String, TermsOfService> termsOfServiceByRegion = new ConcurrentHashMap<>();
+    private final AtomicInteger failures = new AtomicInteger();
+
+    Pipeline(
+        String parent,
+        Clients clients,
+        Checkpoint checkpoint,
+        ExecutorService executor,
+        ShippingSettings shippingTemplate,
+        Map<String, List<String>> existingAccounts) {
+      this.parent = parent;
+      this.clients = clients;
+      this.checkpoint = checkpoint;
+      this.executor = executor;
+      this.shippingTemplate = shippingTemplate;
+      this.existingAccounts = existingAccounts;
+    }
+
+    CompletableFuture<Void> provision(SellerSpec spec) {
+      CompletableFuture<String> created =
+          CompletableFuture.supplyAsync(() -> createAccount(spec), executor);
+      return created
+          .thenCompose(account -> configureAccount(spec, account))
+          .handle(
+              (unused, throwable) -> {
+                if (throwable != null) {
+                  failures.incrementAndGet();
+                  System.out.printf("Seller %s failed: %s%n", spec.sellerId, throwable.getCause());
+                } else {
+                  System.out.printf("Seller %s is fully provisioned%n", spec.sellerId);
+                }
+                return null;
+              });
+    }
+
+    // The follow-up steps only depend on the created account, not on each other.
+    private CompletableFuture<Void> configureAccount(SellerSpec spec, String account) {
+      return CompletableFuture.allOf(
+          step(spec, account, STEP_BUSINESS_INFO, () -> updateBusinessInfo(spec, account)),
+          step(spec, account, STEP_HOMEPAGE, () -> updateHomepage(spec, account)),
+          step(spec, account, STEP_SHIPPING_SETTINGS, () -> insertShippingSettings(account)),
+          step(spec, account, STEP_TERMS_OF_SERVICE, () -> acceptTermsOfService(spec, account)));
+    }
+
+    int getFailures() {
+      return failures.get();
+    }
+
+    private String createAccount(SellerSpec spec) {
+      String account = checkpoint.getAccount(spec.sellerId);
+      if (account == null && checkpoint.isDone(spec.sellerId, STEP_CREATE_STARTED)) {
+        // A previous run sent the create, but may have crashed before checkpointing the account.
+        account = findUncheckpointedAccount(spec);
+      }
+      if (account == null) {
+        // Recorded first, with the sub-accounts that already have the name, so that a resumed run
+        // only looks for an account this create may have made.
+        if (!checkpoint.isDone(spec.sellerId, STEP_CREATE_STARTED)) {
+          markDone(
+              spec,
+              STEP_CREATE_STARTED,
+              String.join(
+                  ",",
+                  existingAccounts.getOrDefault(spec.accountName, Collections.emptyList())));
+        }
+        CreateAndConfigureAccountRequest request =
+            CreateAndConfigureAccountRequest.newBuilder()
+                .setAccount(
+                    Account.newBuilder()
+                        .setAccountName(spec.accountName)
+                        .setAdultContent(false)
+                        .setTimeZone(TimeZone.newBuilder().setId(spec.timeZone).build())
+                        .setLanguageCode(spec.languageCode)
+                        .build())
+                .addService(
+                    AddAccountService.newBuilder()
+                        .setProvider(parent)
+                        .setAccountAggregation(AccountAggregation.getDefaultInstance())
+                        .build())
+                .build();
+        account = clients.accounts.createAndConfigureAccount(request).getName();
+        System.out.printf("Created %s for seller %s%n", account, spec.sellerId);
+      }
+      if (!checkpoint.isDone(spec.sellerId, STEP_CREATED)) {
+        markDone(spec, STEP_CREATED, account);
+      }
+      return account;
+    }
+
+    // Returns the sub-account with the seller's name that was created after the seller's create
+    // was recorded and that no other seller uses, or null if there is none. Fails if there are
+    // several, since only one of them can belong to this seller.
+    private String findUncheckpointedAccount(SellerSpec spec) {
+      Set<String> accountsBeforeCreate = checkpoint.getAccountsBeforeCreate(spec.sellerId);
+      // Synchronized, so that two sellers with the same name cannot both claim the same account.
+      synchronized (existingAccounts) {
+        List<String> candidates = new ArrayList<>();
+        for (String account :
+            existingAccounts.getOrDefault(spec.accountName, Collections.emptyList())) {
+          if (!accountsBeforeCreate.contains(account) && !checkpoint.isCreated(account)) {
+            candidates.add(account);
+          }
+        }
+        if (candidates.size() > 1) {
+          throw new IllegalStateException(
+              String.format(
+                  "Seller %s matches %d existing sub-accounts named \"%s\": %s. Add the right one"
+                      + " to the checkpoint as a %s line to resume this seller.",
+                  spec.sellerId, candidates.size(), spec.accountName, candidates, STEP_CREATED));
+        }
+        if (candidates.isEmpty()) {
+          return null;
+        }
+        String account = candidates.get(0);
+        markDone(spec, STEP_CREATED, account);
+        System.out.printf("Resuming seller %s with existing %s%n", spec.sellerId, account);
+        return account;
+      }
+    }
+
+    private CompletableFuture<Void> step(
+        SellerSpec spec, String account, String step, Runnable action) {
+      if (checkpoint.isDone(spec.sellerId, step)) {
+        return CompletableFuture.completedFuture(null);
+      }
+      return CompletableFuture.runAsync(
+          () -> {
+            action.run();
+            markDone(spec, step, account);
+          },
+          executor);
+    }
+
+    private void markDone(SellerSpec spec, String step, String account) {
+      try {
+        checkpoint.markDone(spec.sellerId, step, account);
+      } catch (IOException e) {
+        throw new RuntimeException("Could not write checkpoint for " + spec.sellerId, e);
+      }
+    }
+
+    private void updateBusinessInfo(SellerSpec spec, String account) {
+      BusinessInfo businessInfo =
+          BusinessInfo.newBuilder()
+              .setName(account + "/businessInfo")
+              .setAddress(
+                  PostalAddress.newBuilder()
+                      .setRegionCode(spec.regionCode)
+                      .setPostalCode(spec.postalCode)
+                      .addAddressLines(spec.addressLine)
+                      .build())
+              .build();
+      clients.businessInfos.updateBusinessInfo(
+          UpdateBusinessInfoRequest.newBuilder()
+              .setBusinessInfo(businessInfo)
+              .setUpdateMask(FieldMask.newBuilder().addPaths("address").build())
+              .build());
+    }
+
+    private void updateHomepage(SellerSpec spec, String account) {
+      Homepage homepage =
+          Homepage.newBuilder().setName(account + "/homepage").setUri(spec.homepageUri).build();
+      clients.homepages.updateHomepage(
+          UpdateHomepageRequest.newBuilder()
+              .setHomepage(homepage)
+              .setUpdateMask(FieldMask.newBuilder().addPaths("uri").build())
+              .build());
+    }
+
+    private void insertShippingSettings(String account) {
+      // Shipping settings are only stored when the request carries the current etag, so the etag
+      // is read first. A brand new account has no shipping settings yet, and so no etag.
+      String etag;
+      try {
+        etag =
+            clients
+                .shippingSettings
+                .getShippingSettings(
+                    GetShippingSettingsRequest.newBuilder()
+                        .setName(account + "/shippingSettings")
+                        .build())
+                .getEtag();
+      } catch (NotFoundException e) {
+        etag = "";
+      }
+      ShippingSettingsCache.insert(clients.shippingSettings, account, etag, shippingTemplate);
+    }
+
+    private void acceptTermsOfService(SellerSpec spec, String account) {
+      TermsOfService termsOfService =
+          termsOfServiceByRegion.computeIfAbsent(
+              spec.regionCode,
+              regionCode ->
+                  clients.termsOfServices.retrieveLatestTermsOfService(
+                      RetrieveLatestTermsOfServiceRequest.newBuilder()
+                          .setRegionCode(regionCode)
+                          .setKind(TermsOfServiceKind.MERCHANT_CENTER)
+                          .build()));
+      // The name has the format: termsOfService/{version}
+      clients.termsOfServices.acceptTermsOfService(
+          AcceptTermsOfServiceRequest.newBuilder()
+              .setName(termsOfService.getName())
+              .setAccount(account)
+              .setRegionCode(spec.regionCode)
+              .build());
+    }
+  }
+
+  private static ShippingSettings createShippingTemplate() {
+    return ShippingSettings.newBuilder()
+        .addServices(
+            Service.newBuilder()
+                .setServiceName("Standard shipping")
+                .setActive(true)
+                .addDeliveryCountries("US")
+                .setCurrencyCode("USD")
+                .setDeliveryTime(
+                    DeliveryTime.newBuilder()
+                        .setMinTransitDays(1)
+                        .setMaxTransitDays(5)
+                        .setMinHandlingDays(0)
+                        .setMaxHandlingDays(1)
+                        .build())
+                .setShipmentType(ShipmentType.DELIVERY)
+                .build())
+        .build();
+  }
+
+  public static void bulkCreateSubAccounts(Config config, File specFile, File checkpointFile)
+      throws Exception {
+
+    // Obtains OAuth token based on the user's configuration.
+    GoogleCredentials credential = new Authenticator().authenticate();
+
+    // Creates parent/provider to identify the advanced account into which to insert the
+    // sub-accounts.
+    String parent = getParent(config.getAccountId().toString());
+
+    List<SellerSpec> specs = readSellerSpecs(specFile);
+    System.out.printf("Read %d seller specs from %s%n", specs.size(), specFile);
+
+    ExecutorService executor = Executors.newFixedThreadPool(MAX_CONCURRENT_REQUESTS);
+
+    // Calls the API and catches and prints any network failures/errors.
+    try (Clients clients = new Clients(credential);
+        Checkpoint checkpoint = new Checkpoint(checkpointFile)) {
+
+      // Lists the existing sub-accounts once, so that accounts created by a crashed run that were
+      // not checkpointed are reused instead of created again.
+      Map<String, List<String>> existingAccounts = new HashMap<>();
+      for (Account account :
+          clients
+              .accounts
+              .listSubAccounts(ListSubAccountsRequest.newBuilder().setProvider(parent).build())
+              .iterateAll()) {
+        existingAccounts
+            .computeIfAbsent(account.getAccountName(), name -> new ArrayList<>())
+            .add(account.getName());
+      }
+
+      Pipeline pipeline =
+          new Pipeline(
+              parent, clients, checkpoint, executor, createShippingTemplate(), existingAccounts);
+
+      List<CompletableFuture<Void>> futures = new ArrayList<>(specs.size());
+      for (SellerSpec spec : specs) {
+        futures.add(pipeline.provision(spec));
+      }
+      CompletableFuture.allOf(futures.toArray(new CompletableFuture<?>[0])).join();
+
+      System.out.printf(
+          "Provisioned %d sellers, %d failed. Re-run to retry the failed steps.%n",
+          specs.size() - pipeline.getFailures(), pipeline.getFailures());
+    } catch (Exception e) {
+      System.out.println(e);
+    } finally {
+      executor.shutdown();
+      executor.awaitTermination(1, TimeUnit.MINUTES);
+    }
+  }
+
+  public static void main(String[] args) throws Exception {
+    Config config = Config.load();
+
+    // The tab-separated file with one seller per line.
+    File specFile = new File(config.getPath(), "sellers.tsv");
+    // The file where completed steps are recorded. Keep it to resume an interrupted run.
+    File checkpointFile = new File(config.getPath(), "sellers-checkpoint.tsv");
+
+    bulkCreateSubAccounts(config, specFile, checkpointFile);
+  }
+}
+// [END merchantapi_bulk_create_sub_accounts]
@@ -0,0 +1,145 @@
+// Copyright 2026 Google LLC
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     https://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package shopping.merchant.samples.accounts.accounts.v1;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Keeps a set of account-level settings consistent across many accounts.
+ *
+ * <p>Each kind of setting is handled by a {@link Syncer} together with the desired value. For
+ * every account and every syncer, the engine fetches the current value, compares it locally with
+ * the desired value, and only writes when they differ. All fetches and writes run on the given
+ * executor, so its size bounds the number of requests in flight.
+ */
+public class SettingsSyncEngine {
+
+  /** Reads, compares and writes one kind of setting for a single account. */
+  public interface Syncer<T> {
+
+    /** Short name used in the summary, e.g. "shipping settings". */
+    String getName();
+
+    /** Returns the current value for the account, or {@code null} if it has none. */
+    T fetch(String account);
+
+    /** Returns whether the current value already matches the desired value. */
+    boolean isInSync(T current, T desired);
+
+    /**
+     * Writes the desired value to the account.
+     *
+     * @param current the value returned by {@link #fetch}, or {@code null} if there was none.
+     */
+    void write(String account, T current, T desired);
+  }
+
+  /** Counts the outcome of each syncer across all accounts. */
+  public static class Summary {
+    private final String name;
+    private final AtomicInteger inSync = new AtomicInteger();
+    private final AtomicInteger written = new AtomicInteger();
+    private final AtomicInteger failed = new AtomicInteger();
+
+    Summary(String name) {
+      this.name = name;
+    }
+
+    public String getName() {
+      return name;
+    }
+
+    public int getInSync() {
+      return inSync.get();
+    }
+
+    public int getWritten() {
+      return written.get();
+    }
+
+    public int getFailed() {
+      return failed.get();
+    }
+
+    @Override
+    public String toString() {
+      return String.format(
+          "%s: %d already in sync, %d written, %d failed",
+          name, inSync.get(), written.get(), failed.get());
+    }
+  }
+
+  /** Binds a syncer to its desired value, so both share the same type parameter. */
+  private static class Target<T> {
+    private final Syncer<T> syncer;
+    private final T desired;
+    private final Summary summary;
+
+    Target(Syncer<T> syncer, T desired) {
+      this.syncer = syncer;
+      this.desired = desired;
+      this.summary = new Summary(syncer.getName());
+    }
+
+    void sync(String account) {
+      try {
+        T current = syncer.fetch(account);
+        if (current != null && syncer.isInSync(current, desired)) {
+          summary.inSync.incrementAndGet();
+          return;
+        }
+        syncer.write(account, current, desired);
+        summary.written.incrementAndGet();
+      } catch (RuntimeException e) {
+        summary.failed.incrementAndGet();
+        System.out.printf("Failed to sync %s for %s: %s%n", syncer.getName(), account, e);
+      }
+    }
+  }
+
+  private final ExecutorService executor;
+  private final List<Target<?>> targets = new ArrayList<>();
+
+  public SettingsSyncEngine(ExecutorService executor) {
+    this.executor = executor;
+  }
+
+  /** Adds a kind of setting to keep in sync with the desired value. */
+  public <T> SettingsSyncEngine addTarget(Syncer<T> syncer, T desired) {
+    targets.add(new Target<>(syncer, desired));
+    return this;
+  }
+
+  /** Syncs every target on every account, and returns one summary per target. */
+  public List<Summary> sync(List<String> accounts) {
+    List<CompletableFuture<Void>> futures = new ArrayList<>(accounts.size() * targets.size());
+    for (String account : accounts) {
+      for (Target<?> target : targets) {
+        futures.add(CompletableFuture.runAsync(() -> target.sync(account), executor));
+      }
+    }
+    CompletableFuture.allOf(futures.toArray(new CompletableFuture<?>[0])).join();
+
+    List<Summary> summaries = new ArrayList<>(targets.size());
+    for (Target<?> target : targets) {
+      summaries.add(target.summary);
+    }
+    return summaries;
+  }
+}
@@ -0,0 +1,429 @@
+// Copyright 2026 Google LLC
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     https://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package shopping.merchant.samples.accounts.accounts.v1;
+// [START merchantapi_sync_sub_account_settings]
+import com.google.api.gax.core.FixedCredentialsProvider;
+import com.google.api.gax.rpc.NotFoundException;
+import com.google.auth.oauth2.GoogleCredentials;
+import com.google.protobuf.FieldMask;
+import com.google.shopping.merchant.accounts.v1.Account;
+import com.google.shopping.merchant.accounts.v1.AccountsServiceClient;
+import com.google.shopping.merchant.accounts.v1.AccountsServiceSettings;
+import com.google.shopping.merchant.accounts.v1.CheckoutSettings;
+import com.google.shopping.merchant.accounts.v1.CheckoutSettingsServiceClient;
+import com.google.shopping.merchant.accounts.v1.CheckoutSettingsServiceSettings;
+import com.google.shopping.merchant.accounts.v1.CreateCheckoutSettingsRequest;
+import com.google.shopping.merchant.accounts.v1.CreateOnlineReturnPolicyRequest;
+import com.google.shopping.merchant.accounts.v1.DeleteOnlineReturnPolicyRequest;
+import com.google.shopping.merchant.accounts.v1.DeliveryTime;
+import com.google.shopping.merchant.accounts.v1.EmailPreferences;
+import com.google.shopping.merchant.accounts.v1.EmailPreferences.OptInState;
+import com.google.shopping.merchant.accounts.v1.EmailPreferencesServiceClient;
+import com.google.shopping.merchant.accounts.v1.EmailPreferencesServiceSettings;
+import com.google.shopping.merchant.accounts.v1.GetCheckoutSettingsRequest;
+import com.google.shopping.merchant.accounts.v1.GetEmailPreferencesRequest;
+import com.google.shopping.merchant.accounts.v1.GetShippingSettingsRequest;
+import com.google.shopping.merchant.accounts.v1.ListOnlineReturnPoliciesRequest;
+import com.google.shopping.merchant.accounts.v1.ListSubAccountsRequest;
+import com.google.shopping.merchant.accounts.v1.OnlineReturnPolicy;
+import com.google.shopping.merchant.accounts.v1.OnlineReturnPolicy.ItemCondition;
+import com.google.shopping.merchant.accounts.v1.OnlineReturnPolicy.Policy;
+import com.google.shopping.merchant.accounts.v1.OnlineReturnPolicy.Policy.Type;
+import com.google.shopping.merchant.accounts.v1.OnlineReturnPolicy.ReturnMethod;
+import com.google.shopping.merchant.accounts.v1.OnlineReturnPolicyServiceClient;
+import com.google.shopping.merchant.accounts.v1.OnlineReturnPolicyServiceSettings;
+import com.google.shopping.merchant.accounts.v1.Service;
+import com.google.shopping.merchant.accounts.v1.Service.ShipmentType;
+import com.google.shopping.merchant.accounts.v1.ShippingSettings;
+import com.google.shopping.merchant.accounts.v1.ShippingSettingsServiceClient;
+import com.google.shopping.merchant.accounts.v1.ShippingSettingsServiceSettings;
+import com.google.shopping.merchant.accounts.v1.UpdateCheckoutSettingsRequest;
+import com.google.shopping.merchant.accounts.v1.UpdateEmailPreferencesRequest;
+import com.google.shopping.merchant.accounts.v1.UriSettings;
+import com.google.shopping.type.Destination.DestinationEnum;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import shopping.merchant.samples.accounts.accounts.v1.SettingsSyncEngine.Summary;
+import shopping.merchant.samples.accounts.accounts.v1.SettingsSyncEngine.Syncer;
+import shopping.merchant.samples.accounts.shippingsettings.v1.ShippingSettingsCache;
+import shopping.merchant.samples.utils.Authenticator;
+import shopping.merchant.samples.utils.Config;
+
+/**
+ * This class demonstrates how to keep the shipping settings, a return policy, the checkout
+ * settings and the email preferences of all the sub-accounts of an advanced account consistent
+ * with a template, writing only to the sub-accounts whose settings differ.
+ */
+public class SyncSubAccountSettingsSample {
+
+  // Maximum number of requests in flight at the same time.
+  private static final int MAX_CONCURRENT_REQUESTS = 20;
+
+  /** Syncs the shipping settings, ignoring the name and etag. */
+  static class ShippingSettingsSyncer implements Syncer<ShippingSettings> {
+    private final ShippingSettingsServiceClient client;
+
+    ShippingSettingsSyncer(ShippingSettingsServiceClient client) {
+      this.client = client;
+    }
+
+    @Override
+    public String getName() {
+      return "shipping settings";
+    }
+
+    @Override
+    public ShippingSettings fetch(String account) {
+      try {
+        return client.getShippingSettings(
+            GetShippingSettingsRequest.newBuilder().setName(account + "/shippingSettings").build());
+      } catch (NotFoundException e) {
+        return null;
+      }
+    }
+
+    @Override
+    public boolean isInSync(ShippingSettings current, ShippingSettings desired) {
+      return normalize(current).equals(normalize(desired));
+    }
+
+    @Override
+    public void write(String account, ShippingSettings current, ShippingSettings desired) {
+      ShippingSettingsCache.insert(
+          client, account, current == null ? "" : current.getEtag(), desired);
+    }
+
+    private static ShippingSettings normalize(ShippingSettings shippingSettings) {
+      return shippingSettings.toBuilder().clearName().clearEtag().build();
+    }
+  }
+
+  /**
+   * Syncs the return policy with the same label as the desired one. Return policies can't be
+   * updated in place, so a differing policy is deleted and created again. If the create fails, the
+   * previous policy is restored, and the failure says whether the sub-account is left without one.
+   */
+  static class OnlineReturnPolicySyncer implements Syncer<OnlineReturnPolicy> {
+    private final OnlineReturnPolicyServiceClient client;
+    private final String label;
+
+    OnlineReturnPolicySyncer(OnlineReturnPolicyServiceClient client, String label) {
+      this.client = client;
+      this.label = label;
+    }
+
+    @Override
+    public String getName() {
+      return "return policy";
+    }
+
+    @Override
+    public OnlineReturnPolicy fetch(String account) {
+      for (OnlineReturnPolicy policy :
+          client
+              .listOnlineReturnPolicies(
+                  ListOnlineReturnPoliciesRequest.newBuilder().setParent(account).build())
+              .iterateAll()) {
+        if (policy.getLabel().equals(label)) {
+          return policy;
+        }
+      }
+      return null;
+    }
+
+    @Override
+    public boolean isInSync(OnlineReturnPolicy current, OnlineReturnPolicy desired) {
+      return normalize(current).equals(normalize(desired));
+    }
+
+    @Override
+    public void write(String account, OnlineReturnPolicy current, OnlineReturnPolicy desired) {
+      // Checked before the current policy is deleted, since the create would reject it anyway.
+      checkRequiredFields(desired);
+      if (current == null) {
+        create(account, desired);
+        return;
+      }
+      client.deleteOnlineReturnPolicy(
+          DeleteOnlineReturnPolicyRequest.newBuilder().setName(current.getName()).build());
+      try {
+        create(account, desired);
+      } catch (RuntimeException e) {
+        try {
+          create(account, normalize(current));
+        } catch (RuntimeException restoreError) {
+          e.addSuppressed(restoreError);
+          throw new IllegalStateException(
+              String.format(
+                  "%s now has no return policy labeled \"%s\": the new one was rejected and the"
+                      + " previous one could not be restored",
+                  account, label),
+              e);
+        }
+        throw new IllegalStateException(
+            "The new return policy was rejected, so the previous one was restored", e);
+      }
+    }
+
+    private void create(String account, OnlineReturnPolicy policy) {
+      client.createOnlineReturnPolicy(
+          CreateOnlineReturnPolicyRequest.newBuilder()
+              .setParent(account)
+              .setOnlineReturnPolicy(policy)
+              .build());
+    }
+
+    private static void checkRequiredFields(OnlineReturnPolicy policy) {
+      if (policy.getLabel().isEmpty()
+          || policy.getReturnPolicyUri().isEmpty()
+          || policy.getCountriesCount() == 0) {
+        throw new IllegalArgumentException(
+            "The return policy needs a label, a return policy URI and at least one country");
+      }
+    }
+
+    private static OnlineReturnPolicy normalize(OnlineReturnPolicy policy) {
+      return policy.toBuilder().clearName().clearReturnPolicyId().build();
+    }
+  }
+
+  /** Syncs the checkout URL and the eligible destinations of the checkout settings. */
+  static class CheckoutSettingsSyncer implements Syncer<CheckoutSettings> {
+    // The only valid programId for checkout settings is "checkout"
+    private static final String PROGRAM = "/programs/checkout";
+    private final CheckoutSettingsServiceClient client;
+
+    CheckoutSettingsSyncer(CheckoutSettingsServiceClient client) {
+      this.client = client;
+    }
+
+    @Override
+    public String getName() {
+      return "checkout settings";
+    }
+
+    @Override
+    public CheckoutSettings fetch(String account) {
+      try {
+        return client.getCheckoutSettings(
+            GetCheckoutSettingsRequest.newBuilder()
+                .setName(account + PROGRAM + "/checkoutSettings")
+                .build());
+      } catch (NotFoundException e) {
+        return null;
+      }
+    }
+
+    @Override
+    public boolean isInSync(CheckoutSettings current, CheckoutSettings desired) {
+      // The other fields are output only, so only the fields that are written are compared.
+      return current.getUriSettings().equals(desired.getUriSettings())
+          && current.getEligibleDestinationsList().equals(desired.getEligibleDestinationsList());
+    }
+
+    @Override
+    public void write(String account, CheckoutSettings current, CheckoutSettings desired) {
+      CheckoutSettings checkoutSettings =
+          desired.toBuilder().setName(account + PROGRAM + "/checkoutSettings").build();
+      if (current == null) {
+        client.createCheckoutSettings(
+            CreateCheckoutSettingsRequest.newBuilder()
+                .setParent(account + PROGRAM)
+                .setCheckoutSettings(checkoutSettings)
+                .build());
+      } else {
+        client.updateCheckoutSettings(
+            UpdateCheckoutSettingsRequest.newBuilder()
+                .setCheckoutSettings(checkoutSettings)
+                .setUpdateMask(
+                    FieldMask.newBuilder()
+                        .addPaths("uri_settings")
+                        .addPaths("eligible_destinations")
+                        .build())
+                .build());
+      }
+    }
+  }
+
+  /**
+   * Syncs the news and tips opt-in of the email preferences of one user. This service only permits
+   * updating the email preferences of the authenticated user, so the user must have access to each
+   * sub-account.
+   */
+  static class EmailPreferencesSyncer implements Syncer<EmailPreferences> {
+    private final EmailPreferencesServiceClient client;
+    private final String email;
+
+    EmailPreferencesSyncer(EmailPreferencesServiceClient client, String email) {
+      this.client = client;
+      this.email = email;
+    }
+
+    @Override
+    public String getName() {
+      return "email preferences";
+    }
+
+    @Override
+    public EmailPreferences fetch(String account) {
+      return client.getEmailPreferences(
+          GetEmailPreferencesRequest.newBuilder().setName(emailPreferencesName(account)).build());
+    }
+
+    @Override
+    public boolean isInSync(EmailPreferences current, EmailPreferences desired) {
+      return current.getNewsAndTips() == desired.getNewsAndTips();
+    }
+
+    @Override
+    public void write(String account, EmailPreferences current, EmailPreferences desired) {
+      client.updateEmailPreferences(
+          UpdateEmailPreferencesRequest.newBuilder()
+              .setEmailPreferences(desired.toBuilder().setName(emailPreferencesName(account)))
+              .setUpdateMask(FieldMask.newBuilder().addPaths("news_and_tips").build())
+              .build());
+    }
+
+    private String emailPreferencesName(String account) {
+      // The name has the format: accounts/{account}/users/{email}/emailPreferences
+      return account + "/users/" + email + "/emailPreferences";
+    }
+  }
+
+  private static ShippingSettings createShippingTemplate() {
+    return ShippingSettings.newBuilder()
+        .addServices(
+            Service.newBuilder()
+                .setServiceName("Canadian Postal Service")
+                .setActive(true)
+                .addDeliveryCountries("CA")
+                .setCurrencyCode("CAD")
+                .setDeliveryTime(
+                    DeliveryTime.newBuilder()
+                        .setMinTransitDays(0)
+                        .setMaxTransitDays(3)
+                        .setMinHandlingDays(0)
+                        .setMaxHandlingDays(3)
+                        .build())
+                .setShipmentType(ShipmentType.DELIVERY)
+                .build())
+        .build();
+  }
+
+  private static OnlineReturnPolicy createReturnPolicyTemplate() {
+    return OnlineReturnPolicy.newBuilder()
+        .setLabel("US Return Policy")
+        .setReturnPolicyUri("https://www.google.com/returnpolicy-sample")
+        .addCountries("US")
+        .setPolicy(Policy.newBuilder().setType(Type.LIFETIME_RETURNS).build())
+        .addItemConditions(ItemCondition.NEW)
+        .addReturnMethods(ReturnMethod.IN_STORE)
+        .setProcessRefundDays(10)
+        .build();
+  }
+
+  public static void syncSubAccountSettings(Config config, String email) throws Exception {
+
+    // Obtains OAuth token based on the user's configuration.
+    GoogleCredentials credential = new Authenticator().authenticate();
+    FixedCredentialsProvider credentialsProvider = FixedCredentialsProvider.create(credential);
+
+    // Creates parent/provider to identify the advanced account whose sub-accounts are synced.
+    String parent = "accounts/" + config.getAccountId().toString();
+
+    ExecutorService executor = Executors.newFixedThreadPool(MAX_CONCURRENT_REQUESTS);
+
+    // Calls the API and catches and prints any network failures/errors.
+    try (AccountsServiceClient accountsServiceClient =
+            AccountsServiceClient.create(
+                AccountsServiceSettings.newBuilder()
+                    .setCredentialsProvider(credentialsProvider)
+                    .build());
+        ShippingSettingsServiceClient shippingSettingsServiceClient =
+            ShippingSettingsServiceClient.create(
+                ShippingSettingsServiceSettings.newBuilder()
+                    .setCredentialsProvider(credentialsProvider)
+                    .build());
+        OnlineReturnPolicyServiceClient onlineReturnPolicyServiceClient =
+            OnlineReturnPolicyServiceClient.create(
+                OnlineReturnPolicyServiceSettings.newBuilder()
+                    .setCredentialsProvider(credentialsProvider)
+                    .build());
+        CheckoutSettingsServiceClient checkoutSettingsServiceClient =
+            CheckoutSettingsServiceClient.create(
+                CheckoutSettingsServiceSettings.newBuilder()
+                    .setCredentialsProvider(credentialsProvider)
+                    .build());
+        EmailPreferencesServiceClient emailPreferencesServiceClient =
+            EmailPreferencesServiceClient.create(
+                EmailPreferencesServiceSettings.newBuilder()
+                    .setCredentialsProvider(credentialsProvider)
+                    .build())) {
+
+      System.out.println("Listing sub-accounts");
+      List<String> accounts = new ArrayList<>();
+      for (Account account :
+          accountsServiceClient
+              .listSubAccounts(ListSubAccountsRequest.newBuilder().setProvider(parent).build())
+              .iterateAll()) {
+        accounts.add(account.getName());
+      }
+
+      OnlineReturnPolicy returnPolicy = createReturnPolicyTemplate();
+      SettingsSyncEngine engine =
+          new SettingsSyncEngine(executor)
+              .addTarget(
+                  new ShippingSettingsSyncer(shippingSettingsServiceClient),
+                  createShippingTemplate())
+              .addTarget(
+                  new OnlineReturnPolicySyncer(
+                      onlineReturnPolicyServiceClient, returnPolicy.getLabel()),
+                  returnPolicy)
+              .addTarget(
+                  new CheckoutSettingsSyncer(checkoutSettingsServiceClient),
+                  CheckoutSettings.newBuilder()
+                      // Replace this with your checkout URL.
+                      .setUriSettings(
+                          UriSettings.newBuilder()
+                              .setCheckoutUriTemplate("https://myshopify.com/cart/1234:1"))
+                      .addEligibleDestinations(DestinationEnum.SHOPPING_ADS)
+                      .build())
+              .addTarget(
+                  new EmailPreferencesSyncer(emailPreferencesServiceClient, email),
+                  EmailPreferences.newBuilder().setNewsAndTips(OptInState.OPTED_IN).build());
+
+      System.out.printf("Syncing settings of %d sub-accounts%n", accounts.size());
+      for (Summary summary : engine.sync(accounts)) {
+        System.out.println(summary);
+      }
+    } catch (Exception e) {
+      System.out.println(e);
+    } finally {
+      executor.shutdown();
+    }
+  }
+
+  public static void main(String[] args) throws Exception {
+    Config config = Config.load();
+    // The email address of the user whose email preferences are synced. This must be the
+    // authenticated user, so you can also use "me" instead of an email address.
+    String email = "testUser@gmail.com";
+
+    syncSubAccountSettings(config, email);
+  }
+}
+// [END merchantapi_sync_sub_account_settings]
@@ -0,0 +1,260 @@
+// Copyright 2026 Google LLC
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     https://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package shopping.merchant.samples.accounts.regions.v1;
+
+import com.google.shopping.merchant.accounts.v1.Region;
+import com.google.shopping.merchant.accounts.v1.Region.PostalCodeArea;
+import com.google.shopping.merchant.accounts.v1.Region.PostalCodeArea.PostalCodeRange;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.function.IntConsumer;
+
+/**
+ * Resolves postal codes to the IDs of the regions that contain them.
+ *
+ * <p>The postal code ranges of all regions of a country are compiled into sorted, disjoint
+ * segments stored in primitive arrays. Each postal code is encoded as a {@code long} that
+ * preserves the lexicographic order of postal codes, so a lookup is a binary search over a {@code
+ * long[]} and does not allocate.
+ *
+ * <p>Postal codes are compared case-insensitively, ignoring characters other than letters and
+ * digits (e.g. the space in "K1A 0B1"). Only the first {@link #MAX_LENGTH} letters and digits are
+ * significant. Regions defined by geotarget areas instead of postal codes are ignored.
+ */
+public class PostalCodeRegionResolver {
+
+  /** Returned by {@link #resolve} if no region contains the postal code. */
+  public static final int NO_REGION = -1;
+
+  // 37^12 still fits in a long: one value for padding, 10 digits and 26 letters.
+  static final int MAX_LENGTH = 12;
+  private static final int RADIX = 37;
+  private static final int MAX_DIGIT = RADIX - 1;
+  // POWERS[n] is RADIX^n, and HIGH_PADDING[n] is n digits of MAX_DIGIT.
+  private static final long[] POWERS = new long[MAX_LENGTH + 1];
+  private static final long[] HIGH_PADDING = new long[MAX_LENGTH + 1];
+
+  static {
+    POWERS[0] = 1;
+    for (int i = 1; i <= MAX_LENGTH; i++) {
+      POWERS[i] = POWERS[i - 1] * RADIX;
+      HIGH_PADDING[i] = HIGH_PADDING[i - 1] * RADIX + MAX_DIGIT;
+    }
+  }
+
+  // Keys are bucketed by their first three characters.
+  private static final long BUCKET_WIDTH = POWERS[MAX_LENGTH - 3];
+  private static final int BUCKET_COUNT = (int) POWERS[3];
+
+  /** Sorted, disjoint segments of the postal codes of one country. */
+  private static class CountryIndex {
+    // Segment i covers the keys in [starts[i], starts[i + 1]).
+    private final long[] starts;
+    // The regions of segment i are regions[offsets[i]] to regions[offsets[i + 1] - 1].
+    private final int[] offsets;
+    private final int[] regions;
+    // buckets[b] is the first segment starting at or after the first key of bucket b. This narrows
+    // the binary search down to the few segments that share the first characters of the key.
+    private final int[] buckets;
+
+    CountryIndex(long[] starts, int[] offsets, int[] regions) {
+      this.starts = starts;
+      this.offsets = offsets;
+      this.regions = regions;
+      this.buckets = new int[BUCKET_COUNT + 1];
+      int segment = 0;
+      for (int bucket = 0; bucket <= BUCKET_COUNT; bucket++) {
+        long bucketStart = bucket * BUCKET_WIDTH;
+        while (segment < starts.length && starts[segment] < bucketStart) {
+          segment++;
+        }
+        buckets[bucket] = segment;
+      }
+    }
+
+    /** Returns the segment containing the key, or -1. */
+    int findSegment(long key) {
+      int bucket = (int) (key / BUCKET_WIDTH);
+      // The segment containing the first key of the bucket may start in an earlier bucket.
+      int from = Math.max(0, buckets[bucket] - 1);
+      int to = buckets[bucket + 1];
+      int index = Arrays.binarySearch(starts, from, to, key);
+      // Between two starts, the segment is the one starting before the insertion point.
+      int segment = index >= 0 ? index : -index - 2;
+      // The last start only closes the last segment.
+      return segment < 0 || segment >= starts.length - 1 ? -1 : segment;
+    }
+  }
+
+  private final String[] regionIds;
+  private final Map<String, CountryIndex> countries;
+
+  private PostalCodeRegionResolver(String[] regionIds, Map<String, CountryIndex> countries) {
+    this.regionIds = regionIds;
+    this.countries = countries;
+  }
+
+  /** Compiles the postal code areas of the regions into a resolver. */
+  public static PostalCodeRegionResolver build(Iterable<Region> regions) {
+    List<String> regionIds = new ArrayList<>();
+    // Country -> list of {begin, end, region} triples, with end inclusive.
+    Map<String, List<long[]>> rangesByCountry = new HashMap<>();
+    for (Region region : regions) {
+      if (!region.hasPostalCodeArea()) {
+        continue;
+      }
+      PostalCodeArea area = region.getPostalCodeArea();
+      int regionIndex = regionIds.size();
+      // The region name has the format: accounts/{account}/regions/{region}
+      regionIds.add(region.getName().substring(region.getName().lastIndexOf('/') + 1));
+      List<long[]> ranges =
+          rangesByCountry.computeIfAbsent(area.getRegionCode(), code -> new ArrayList<>());
+      for (PostalCodeRange range : area.getPostalCodesList()) {
+        String begin = range.getBegin();
+        String end = range.getEnd().isEmpty() ? begin : range.getEnd();
+        ranges.add(
+            new long[] {encode(begin, false), encode(end, end.endsWith("*")), regionIndex});
+      }
+    }
+
+    Map<String, CountryIndex> countries = new HashMap<>();
+    for (Map.Entry<String, List<long[]>> entry : rangesByCountry.entrySet()) {
+      countries.put(entry.getKey(), compile(entry.getValue()));
+    }
+    return new PostalCodeRegionResolver(regionIds.toArray(new String[0]), countries);
+  }
+
+  /**
+   * Splits possibly overlapping ranges into disjoint segments with a sweep over the sorted range
+   * boundaries, recording which regions are active in each segment.
+   */
+  private static CountryIndex compile(List<long[]> ranges) {
+    // Boundary key -> regions entering (positive) or leaving (negative, offset by one) there.
+    TreeMap<Long, List<Integer>> events = new TreeMap<>();
+    for (long[] range : ranges) {
+      int region = (int) range[2];
+      events.computeIfAbsent(range[0], key -> new ArrayList<>()).add(region + 1);
+      events.computeIfAbsent(range[1] + 1, key -> new ArrayList<>()).add(-(region + 1));
+    }
+
+    long[] starts = new long[events.size()];
+    int[] offsets = new int[events.size()];
+    List<Integer> regionList = new ArrayList<>();
+    // Region -> number of active ranges of that region, sorted by region.
+    TreeMap<Integer, Integer> active = new TreeMap<>();
+    int segment = 0;
+    for (Map.Entry<Long, List<Integer>> event : events.entrySet()) {
+      for (int change : event.getValue()) {
+        int region = Math.abs(change) - 1;
+        active.merge(region, change > 0 ? 1 : -1, Integer::sum);
+        if (active.get(region) == 0) {
+          active.remove(region);
+        }
+      }
+      starts[segment] = event.getKey();
+      offsets[segment] = regionList.size();
+      regionList.addAll(active.keySet());
+      segment++;
+    }
+    // The regions of the last segment are always empty, since every range has been closed.
+    int[] regions = new int[regionList.size()];
+    for (int i = 0; i < regions.length; i++) {
+      regions[i] = regionList.get(i);
+    }
+    int[] allOffsets = Arrays.copyOf(offsets, offsets.length + 1);
+    allOffsets[offsets.length] = regions.length;
+    return new CountryIndex(starts, allOffsets, regions);
+  }
+
+  /**
+   * Returns the index of the first region containing the postal code, or {@link #NO_REGION}. Use
+   * {@link #getRegionId} to get the region ID. Does not allocate.
+   *
+   * @param regionCode the CLDR territory code of the country, e.g. "US".
+   */
+  public int resolve(String regionCode, CharSequence postalCode) {
+    CountryIndex country = countries.get(regionCode);
+    if (country == null) {
+      return NO_REGION;
+    }
+    int segment = country.findSegment(encode(postalCode, false));
+    if (segment < 0 || country.offsets[segment] == country.offsets[segment + 1]) {
+      return NO_REGION;
+    }
+    return country.regions[country.offsets[segment]];
+  }
+
+  /** Calls the consumer with the index of every region containing the postal code. */
+  public void resolveAll(String regionCode, CharSequence postalCode, IntConsumer consumer) {
+    CountryIndex country = countries.get(regionCode);
+    if (country == null) {
+      return;
+    }
+    int segment = country.findSegment(encode(postalCode, false));
+    if (segment < 0) {
+      return;
+    }
+    for (int i = country.offsets[segment]; i < country.offsets[segment + 1]; i++) {
+      consumer.accept(country.regions[i]);
+    }
+  }
+
+  /** Returns the region ID for an index returned by {@link #resolve}. */
+  public String getRegionId(int regionIndex) {
+    return regionIds[regionIndex];
+  }
+
+  public int getRegionCount() {
+    return regionIds.length;
+  }
+
+  /**
+   * Encodes a postal code, or a {@code prefix*} pattern, as a base-37 number padded to {@link
+   * #MAX_LENGTH} digits, so that comparing keys is the same as comparing postal codes
+   * lexicographically. With {@code fillHigh}, the padding uses the highest digit, which turns a
+   * prefix into the upper bound of all the postal codes starting with it.
+   */
+  static long encode(CharSequence postalCode, boolean fillHigh) {
+    long key = 0;
+    int length = 0;
+    for (int i = 0; i < postalCode.length() && length < MAX_LENGTH; i++) {
+      int digit = digit(postalCode.charAt(i));
+      if (digit > 0) {
+        key = key * RADIX + digit;
+        length++;
+      }
+    }
+    int padding = MAX_LENGTH - length;
+    return key * POWERS[padding] + (fillHigh ? HIGH_PADDING[padding] : 0);
+  }
+
+  // Returns 1-10 for digits, 11-36 for letters and 0 for everything else.
+  private static int digit(char c) {
+    if (c >= '0' && c <= '9') {
+      return c - '0' + 1;
+    }
+    if (c >= 'A' && c <= 'Z') {
+      return c - 'A' + 11;
+    }
+    if (c >= 'a' && c <= 'z') {
+      return c - 'a' + 11;
+    }
+    return 0;
+  }
+}
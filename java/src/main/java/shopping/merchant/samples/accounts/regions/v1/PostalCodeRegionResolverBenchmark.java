@@ -0,0 +1,88 @@
+// Copyright 2026 Google LLC
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     https://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package shopping.merchant.samples.accounts.regions.v1;
+
+import com.google.shopping.merchant.accounts.v1.Region;
+import com.google.shopping.merchant.accounts.v1.Region.PostalCodeArea;
+import com.google.shopping.merchant.accounts.v1.Region.PostalCodeArea.PostalCodeRange;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Measures the lookup throughput of {@link PostalCodeRegionResolver} on synthetic US regions. It
+ * does not call the API, so it can be run without credentials:
+ *
+ * <pre>
+ * mvn exec:java -Dexec.mainClass="shopping.merchant.samples.accounts.regions.v1.PostalCodeRegionResolverBenchmark"
+ * </pre>
+ */
+public class PostalCodeRegionResolverBenchmark {
+
+  private static final int REGIONS = 1_000;
+  private static final int RANGES_PER_REGION = 20;
+  // A power of two, so the benchmark loop can pick codes with a mask.
+  private static final int DISTINCT_CODES = 1 << 16;
+  private static final int LOOKUPS = 50_000_000;
+  private static final int ROUNDS = 8;
+
+  public static void main(String[] args) {
+    Random random = new Random(42);
+
+    List<Region> regions = new ArrayList<>(REGIONS);
+    for (int i = 0; i < REGIONS; i++) {
+      PostalCodeArea.Builder area = PostalCodeArea.newBuilder().setRegionCode("US");
+      for (int j = 0; j < RANGES_PER_REGION; j++) {
+        int begin = random.nextInt(99_000);
+        area.addPostalCodes(
+            PostalCodeRange.newBuilder()
+                .setBegin(String.format("%05d", begin))
+                .setEnd(String.format("%05d", begin + random.nextInt(500))));
+      }
+      regions.add(
+          Region.newBuilder()
+              .setName("accounts/123/regions/region" + i)
+              .setPostalCodeArea(area)
+              .build());
+    }
+
+    long start = System.nanoTime();
+    PostalCodeRegionResolver resolver = PostalCodeRegionResolver.build(regions);
+    System.out.printf(
+        "Compiled %d regions with %d ranges in %d ms%n",
+        REGIONS, REGIONS * RANGES_PER_REGION, (System.nanoTime() - start) / 1_000_000);
+
+    String[] postalCodes = new String[DISTINCT_CODES];
+    for (int i = 0; i < postalCodes.length; i++) {
+      postalCodes[i] = String.format("%05d", random.nextInt(100_000));
+    }
+
+    // The first rounds also warm up the JIT compiler.
+    for (int round = 1; round <= ROUNDS; round++) {
+      long matches = 0;
+      start = System.nanoTime();
+      for (int i = 0; i < LOOKUPS; i++) {
+        if (resolver.resolve("US", postalCodes[i & (DISTINCT_CODES - 1)])
+            != PostalCodeRegionResolver.NO_REGION) {
+          matches++;
+        }
+      }
+      long elapsedNanos = System.nanoTime() - start;
+      System.out.printf(
+          "Round %d: %.1f million lookups per second (%d matched)%n",
+          round, LOOKUPS * 1_000.0 / elapsedNanos, matches);
+    }
+  }
+}
@@ -0,0 +1,89 @@
+// Copyright 2026 Google LLC
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     https://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package shopping.merchant.samples.accounts.regions.v1;
+// [START merchantapi_resolve_postal_code_regions]
+import com.google.api.gax.core.FixedCredentialsProvider;
+import com.google.auth.oauth2.GoogleCredentials;
+import com.google.shopping.merchant.accounts.v1.ListRegionsRequest;
+import com.google.shopping.merchant.accounts.v1.RegionsServiceClient;
+import com.google.shopping.merchant.accounts.v1.RegionsServiceSettings;
+import shopping.merchant.samples.utils.Authenticator;
+import shopping.merchant.samples.utils.Config;
+
+/**
+ * This class demonstrates how to load all the regions of a Merchant Center account once, and then
+ * resolve postal codes to region IDs locally, e.g. when building regional inventory.
+ */
+public class ResolvePostalCodeRegionsSample {
+
+  private static String getParent(String accountId) {
+    return String.format("accounts/%s", accountId);
+  }
+
+  public static void resolvePostalCodeRegions(
+      Config config, String regionCode, String[] postalCodes) throws Exception {
+
+    // Obtains OAuth token based on the user's configuration.
+    GoogleCredentials credential = new Authenticator().authenticate();
+
+    // Creates service settings using the credentials retrieved above.
+    RegionsServiceSettings regionsServiceSettings =
+        RegionsServiceSettings.newBuilder()
+            .setCredentialsProvider(FixedCredentialsProvider.create(credential))
+            .build();
+
+    // Creates parent to identify the account from which to list all regions.
+    String parent = getParent(config.getAccountId().toString());
+
+    // Calls the API and catches and prints any network failures/errors.
+    try (RegionsServiceClient regionsServiceClient =
+        RegionsServiceClient.create(regionsServiceSettings)) {
+
+      // The parent has the format: accounts/{account}
+      ListRegionsRequest request = ListRegionsRequest.newBuilder().setParent(parent).build();
+
+      System.out.println("Sending list regions request:");
+      // `iterateAll()` automatically uses the `nextPageToken` to fetch all pages of regions.
+      PostalCodeRegionResolver resolver =
+          PostalCodeRegionResolver.build(regionsServiceClient.listRegions(request).iterateAll());
+      System.out.printf("Compiled %d postal code regions%n", resolver.getRegionCount());
+
+      // From here on, no more API calls are needed.
+      for (String postalCode : postalCodes) {
+        int region = resolver.resolve(regionCode, postalCode);
+        System.out.printf(
+            "%s %s -> %s%n",
+            regionCode,
+            postalCode,
+            region == PostalCodeRegionResolver.NO_REGION
+                ? "no region"
+                : resolver.getRegionId(region));
+      }
+    } catch (Exception e) {
+      System.out.println(e);
+    }
+  }
+
+  public static void main(String[] args) throws Exception {
+    Config config = Config.load();
+
+    // The country of the postal codes, and the postal codes to resolve.
+    String regionCode = "US";
+    String[] postalCodes = {"10001", "10282", "94108"};
+
+    resolvePostalCodeRegions(config, regionCode, postalCodes);
+  }
+}
+// [END merchantapi_resolve_postal_code_regions]
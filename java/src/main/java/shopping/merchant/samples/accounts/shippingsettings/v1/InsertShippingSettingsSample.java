@@ -65,6 +65,8 @@ public class InsertShippingSettingsSample {
                       // NOTE THAT ON THE INITIAL INSERT, YOUR SHIPPING SETTINGS WILL
                       // NOT BE STORED, YOU HAVE TO CALL INSERT AGAIN WITH YOUR
                       // RETRIEVED ETAG.
+                      // See UpdateShippingSettingsWithCacheSample for how to keep track of the
+                      // Etag across many updates and accounts.
                       // .setEtag("")
                       .setEtag("PPa=")
                       .addServices(
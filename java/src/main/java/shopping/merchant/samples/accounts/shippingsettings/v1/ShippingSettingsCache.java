@@ -0,0 +1,137 @@
+// Copyright 2026 Google LLC
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     https://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package shopping.merchant.samples.accounts.shippingsettings.v1;
+
+import com.google.api.gax.rpc.AbortedException;
+import com.google.api.gax.rpc.FailedPreconditionException;
+import com.google.api.gax.rpc.NotFoundException;
+import com.google.shopping.merchant.accounts.v1.GetShippingSettingsRequest;
+import com.google.shopping.merchant.accounts.v1.InsertShippingSettingsRequest;
+import com.google.shopping.merchant.accounts.v1.ShippingSettings;
+import com.google.shopping.merchant.accounts.v1.ShippingSettingsServiceClient;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.UnaryOperator;
+
+/**
+ * Caches the {@link ShippingSettings} of many accounts together with their etag, and applies
+ * changes with conditional writes.
+ *
+ * <p>Shipping settings are replaced as a whole on every insert, and with many rate groups they are
+ * large messages. The cache compares the changed settings with the cached ones locally and skips
+ * the insert when nothing changed. Inserts always carry the etag of the cached settings, so a
+ * concurrent modification by someone else is rejected by the server. In that case the cache
+ * fetches the latest settings and applies the change again, up to {@link #MAX_ATTEMPTS} times.
+ */
+public class ShippingSettingsCache {
+
+  private static final int MAX_ATTEMPTS = 3;
+
+  private final ShippingSettingsServiceClient client;
+  // Account name (accounts/{account}) -> last known shipping settings, including the etag.
+  private final Map<String, ShippingSettings> cache = new ConcurrentHashMap<>();
+
+  public ShippingSettingsCache(ShippingSettingsServiceClient client) {
+    this.client = client;
+  }
+
+  /** Returns the cached shipping settings of the account, fetching them on first use. */
+  public ShippingSettings get(String account) {
+    return cache.computeIfAbsent(account, this::fetch);
+  }
+
+  /** Drops the cached settings of the account, so the next call fetches them again. */
+  public void invalidate(String account) {
+    cache.remove(account);
+  }
+
+  /**
+   * Applies the change to the shipping settings of the account, and returns the resulting
+   * settings.
+   *
+   * <p>The change function receives the current settings and must return the desired settings
+   * without side effects, since it is called again if the write conflicts with a concurrent
+   * modification. If the desired settings equal the current ones, no request is sent.
+   */
+  public ShippingSettings update(String account, UnaryOperator<ShippingSettings> change) {
+    for (int attempt = 1; ; attempt++) {
+      ShippingSettings current = get(account);
+      ShippingSettings desired = change.apply(current);
+      if (normalize(desired).equals(normalize(current))) {
+        return current;
+      }
+      try {
+        ShippingSettings response = insert(client, account, current.getEtag(), desired);
+        if (response.getEtag().isEmpty()) {
+          // Without the new etag, the next update has to start from fresh settings.
+          invalidate(account);
+        } else {
+          cache.put(account, response);
+        }
+        return response;
+      } catch (AbortedException | FailedPreconditionException e) {
+        // The etag no longer matches: someone else changed the settings since they were cached.
+        invalidate(account);
+        if (attempt >= MAX_ATTEMPTS) {
+          throw e;
+        }
+        System.out.printf(
+            "Shipping settings of %s changed concurrently, retrying (attempt %d)%n",
+            account, attempt + 1);
+      }
+    }
+  }
+
+  private ShippingSettings fetch(String account) {
+    try {
+      // The name has the format: accounts/{account}/shippingSettings
+      return client.getShippingSettings(
+          GetShippingSettingsRequest.newBuilder().setName(account + "/shippingSettings").build());
+    } catch (NotFoundException e) {
+      // The account has no shipping settings yet, so there is no etag either.
+      return ShippingSettings.getDefaultInstance();
+    }
+  }
+
+  /**
+   * Inserts the shipping settings of the account, conditional on the given etag, and returns the
+   * stored settings. An empty etag means that the account has no shipping settings yet: an insert
+   * with an empty etag does not store the settings, but returns the etag to use for the actual
+   * insert, so two requests are sent.
+   */
+  public static ShippingSettings insert(
+      ShippingSettingsServiceClient client, String account, String etag, ShippingSettings desired) {
+    if (etag.isEmpty()) {
+      etag =
+          client
+              .insertShippingSettings(
+                  InsertShippingSettingsRequest.newBuilder()
+                      .setParent(account)
+                      .setShippingSetting(desired.toBuilder().setEtag(""))
+                      .build())
+              .getEtag();
+    }
+    return client.insertShippingSettings(
+        InsertShippingSettingsRequest.newBuilder()
+            .setParent(account)
+            .setShippingSetting(desired.toBuilder().setEtag(etag))
+            .build());
+  }
+
+  // The name and etag are not part of the settings themselves.
+  private static ShippingSettings normalize(ShippingSettings shippingSettings) {
+    return shippingSettings.toBuilder().clearName().clearEtag().build();
+  }
+}
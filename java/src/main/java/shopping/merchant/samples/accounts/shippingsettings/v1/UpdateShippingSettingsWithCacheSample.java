@@ -0,0 +1,115 @@
+// Copyright 2026 Google LLC
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     https://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package shopping.merchant.samples.accounts.shippingsettings.v1;
+// [START merchantapi_update_shippingsettings_with_cache]
+import com.google.api.gax.core.FixedCredentialsProvider;
+import com.google.auth.oauth2.GoogleCredentials;
+import com.google.shopping.merchant.accounts.v1.DeliveryTime;
+import com.google.shopping.merchant.accounts.v1.Service;
+import com.google.shopping.merchant.accounts.v1.Service.ShipmentType;
+import com.google.shopping.merchant.accounts.v1.ShippingSettings;
+import com.google.shopping.merchant.accounts.v1.ShippingSettingsServiceClient;
+import com.google.shopping.merchant.accounts.v1.ShippingSettingsServiceSettings;
+import java.util.function.UnaryOperator;
+import shopping.merchant.samples.utils.Authenticator;
+import shopping.merchant.samples.utils.Config;
+
+/**
+ * This class demonstrates how to update the ShippingSettings of a Merchant Center account through a
+ * {@link ShippingSettingsCache}, which uses the etag of the cached settings instead of a hard-coded
+ * one and skips writes that would not change anything.
+ */
+public class UpdateShippingSettingsWithCacheSample {
+
+  private static String getParent(String accountId) {
+    return String.format("accounts/%s", accountId);
+  }
+
+  // Returns a change that adds the service, or replaces the service with the same name.
+  private static UnaryOperator<ShippingSettings> putService(Service service) {
+    return current -> {
+      ShippingSettings.Builder builder = current.toBuilder().clearServices();
+      boolean replaced = false;
+      for (Service existing : current.getServicesList()) {
+        if (existing.getServiceName().equals(service.getServiceName())) {
+          builder.addServices(service);
+          replaced = true;
+        } else {
+          builder.addServices(existing);
+        }
+      }
+      if (!replaced) {
+        builder.addServices(service);
+      }
+      return builder.build();
+    };
+  }
+
+  public static void updateShippingSettingsWithCache(Config config) throws Exception {
+
+    // Obtains OAuth token based on the user's configuration.
+    GoogleCredentials credential = new Authenticator().authenticate();
+
+    // Creates service settings using the credentials retrieved above.
+    ShippingSettingsServiceSettings shippingSettingsServiceSettings =
+        ShippingSettingsServiceSettings.newBuilder()
+            .setCredentialsProvider(FixedCredentialsProvider.create(credential))
+            .build();
+
+    // Creates parent to identify the account whose shipping settings are updated.
+    String parent = getParent(config.getAccountId().toString());
+
+    // Calls the API and catches and prints any network failures/errors.
+    try (ShippingSettingsServiceClient shippingSettingsServiceClient =
+        ShippingSettingsServiceClient.create(shippingSettingsServiceSettings)) {
+
+      ShippingSettingsCache cache = new ShippingSettingsCache(shippingSettingsServiceClient);
+
+      Service service =
+          Service.newBuilder()
+              .setServiceName("Canadian Postal Service")
+              .setActive(true)
+              .addDeliveryCountries("CA")
+              .setCurrencyCode("CAD")
+              .setDeliveryTime(
+                  DeliveryTime.newBuilder()
+                      .setMinTransitDays(0)
+                      .setMaxTransitDays(3)
+                      .setMinHandlingDays(0)
+                      .setMaxHandlingDays(3)
+                      .build())
+              .setShipmentType(ShipmentType.DELIVERY)
+              .build();
+
+      System.out.println("Applying shipping service change");
+      ShippingSettings response = cache.update(parent, putService(service));
+      System.out.printf("ShippingSettings now have etag %s%n", response.getEtag());
+
+      // The second identical change is detected locally, so no request is sent.
+      System.out.println("Applying the same change again");
+      ShippingSettings unchanged = cache.update(parent, putService(service));
+      System.out.printf("ShippingSettings still have etag %s%n", unchanged.getEtag());
+    } catch (Exception e) {
+      System.out.println(e);
+    }
+  }
+
+  public static void main(String[] args) throws Exception {
+    Config config = Config.load();
+
+    updateShippingSettingsWithCache(config);
+  }
+}
+// [END merchantapi_update_shippingsettings_with_cache]
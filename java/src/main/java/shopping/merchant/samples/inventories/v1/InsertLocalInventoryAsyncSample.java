@@ -16,12 +16,9 @@ package shopping.merchant.samples.inventories.v1;
 
 // [START merchantapi_insert_local_inventory_async]
 import com.google.api.core.ApiFuture;
-import com.google.api.core.ApiFutureCallback;
-import com.google.api.core.ApiFutures;
 import com.google.api.gax.core.FixedCredentialsProvider;
 import com.google.api.gax.grpc.InstantiatingGrpcChannelProvider;
 import com.google.auth.oauth2.GoogleCredentials;
-import com.google.common.util.concurrent.MoreExecutors;
 import com.google.shopping.merchant.inventories.v1.InsertLocalInventoryRequest;
 import com.google.shopping.merchant.inventories.v1.LocalInventory;
 import com.google.shopping.merchant.inventories.v1.LocalInventoryAttributes;
@@ -34,12 +31,17 @@ import com.google.shopping.merchant.products.v1.ProductsServiceClient;
 import com.google.shopping.merchant.products.v1.ProductsServiceClient.ListProductsPagedResponse;
 import com.google.shopping.merchant.products.v1.ProductsServiceSettings;
 import com.google.shopping.type.Price;
+import java.io.File;
 import java.io.IOException;
+import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.ExecutionException;
 import java.util.stream.Collectors;
 import shopping.merchant.samples.utils.Authenticator;
+import shopping.merchant.samples.utils.BoundedAsyncWriter;
 import shopping.merchant.samples.utils.Config;
+import shopping.merchant.samples.utils.DeadLetterQueue;
 
 /**
  * This class demonstrates how to insert Local inventory asynchronously for multiple products. Note,
@@ -49,6 +51,11 @@ import shopping.merchant.samples.utils.Config;
  */
 public class InsertLocalInventoryAsyncSample {
 
+  // The file of the failed requests, in the configuration directory.
+  static final String DEAD_LETTER_FILE = "local-inventory-dead-letters.pb";
+  // Maximum number of insert requests in flight at the same time.
+  static final int MAX_IN_FLIGHT = 100;
+
   /* Gets the names of all the local products for a given merchant center account. */
   public static List<String> getLocalProductNames(GoogleCredentials credential, String accountId)
       throws IOException {
@@ -89,7 +96,8 @@ public class InsertLocalInventoryAsyncSample {
   }
 
   public static void insertLocalInventoryAsync(
-      GoogleCredentials credential, String accountId, String storeCode) throws Exception {
+      GoogleCredentials credential, String accountId, String storeCode, Path deadLetterFile)
+      throws Exception {
 
     // Creates a channel provider. This provider manages a pool of gRPC channels
     // to enhance throughput for bulk operations. Each individual channel in the pool
@@ -144,34 +152,35 @@ public class InsertLocalInventoryAsyncSample {
               .collect(Collectors.toList());
 
       // Inserts the local inventory for each product.
+      // See InsertLocalInventoryWithRetryPolicySample for how to retry and hedge the requests to
+      // bound their tail latency.
       System.out.println("Sending InsertLocalInventory requests");
-      List<ApiFuture<LocalInventory>> futures =
-          requests.stream()
-              .map(
-                  request ->
-                      localInventoryServiceClient
-                          .insertLocalInventoryCallable()
-                          .futureCall(request))
-              .collect(Collectors.toList());
-
-      // Callback to handle the responses from the API once they are all returned.
-      ApiFuture<List<LocalInventory>> responses = ApiFutures.allAsList(futures);
-      ApiFutures.addCallback(
-          responses,
-          new ApiFutureCallback<List<LocalInventory>>() {
-            @Override
-            public void onSuccess(List<LocalInventory> results) {
-              System.out.println("Inserted LocalInventory below");
-              System.out.println(results);
-            }
-
-            @Override
-            public void onFailure(Throwable throwable) {
-              System.err.println(
-                  "An error occurred while inserting local inventory: " + throwable.getMessage());
-            }
-          },
-          MoreExecutors.directExecutor());
+      // Requests that fail are added to a dead letter file with the status of their failure, and
+      // the other requests are not affected. Run ReplayLocalInventoryDeadLettersSample to send the
+      // failed requests again.
+      try (DeadLetterQueue<InsertLocalInventoryRequest> deadLetters =
+          new DeadLetterQueue<>(deadLetterFile)) {
+        BoundedAsyncWriter<InsertLocalInventoryRequest, LocalInventory> writer =
+            new BoundedAsyncWriter<>(
+                localInventoryServiceClient.insertLocalInventoryCallable()::futureCall,
+                MAX_IN_FLIGHT,
+                deadLetters);
+        List<ApiFuture<LocalInventory>> futures = new ArrayList<>(requests.size());
+        for (InsertLocalInventoryRequest request : requests) {
+          futures.add(writer.submit(request));
+        }
+        writer.awaitCompletion();
+
+        System.out.println("Inserted LocalInventory below");
+        for (ApiFuture<LocalInventory> future : futures) {
+          try {
+            System.out.println(future.get());
+          } catch (ExecutionException e) {
+            // Already in the dead letter file.
+          }
+        }
+        System.out.println(writer);
+      }
     } catch (Exception e) {
       System.err.println(e.getMessage());
     }
@@ -179,12 +188,14 @@ public class InsertLocalInventoryAsyncSample {
 
   public static void main(String[] args) throws Exception {
     GoogleCredentials credential = new Authenticator().authenticate();
-    String accountId = Config.load().getAccountId().toString();
+    Config config = Config.load();
+    String accountId = config.getAccountId().toString();
     // The code uniquely identifying each store.
     // This can be found in the Google Business Profile UI, by going to Business Profile Settings ->
     // Advanced Settings. The store must have passed verification for this code sample to work.
     String storeCode = "yourstorecode";
-    insertLocalInventoryAsync(credential, accountId, storeCode);
+    Path deadLetterFile = new File(config.getPath(), DEAD_LETTER_FILE).toPath();
+    insertLocalInventoryAsync(credential, accountId, storeCode, deadLetterFile);
   }
 }
 // [END merchantapi_insert_local_inventory_async]
\ No newline at end of file
@@ -0,0 +1,148 @@
+// Copyright 2026 Google LLC
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     https://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package shopping.merchant.samples.inventories.v1;
+
+// [START merchantapi_insert_local_inventory_with_retry_policy]
+import com.google.api.core.ApiFuture;
+import com.google.api.gax.grpc.InstantiatingGrpcChannelProvider;
+import com.google.common.util.concurrent.MoreExecutors;
+import com.google.shopping.merchant.inventories.v1.InsertLocalInventoryRequest;
+import com.google.shopping.merchant.inventories.v1.LocalInventory;
+import com.google.shopping.merchant.inventories.v1.LocalInventoryAttributes;
+import com.google.shopping.merchant.inventories.v1.LocalInventoryAttributes.Availability;
+import com.google.shopping.merchant.inventories.v1.LocalInventoryServiceClient;
+import com.google.shopping.merchant.inventories.v1.LocalInventoryServiceSettings;
+import com.google.shopping.type.Price;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import shopping.merchant.samples.utils.Config;
+import shopping.merchant.samples.utils.CredentialCache;
+import shopping.merchant.samples.utils.PolicyCallable;
+import shopping.merchant.samples.utils.RetryPolicy;
+
+/**
+ * This class demonstrates how to insert the local inventory of many products with bounded tail
+ * latency, retrying transient errors with backoff and hedging the slowest requests, within a retry
+ * budget. Like {@link InsertLocalInventoryAsyncSample}, it needs local products in the account.
+ */
+public class InsertLocalInventoryWithRetryPolicySample {
+
+  // Maximum number of inserts in flight at the same time. Retries and hedges are within budget.
+  private static final int MAX_IN_FLIGHT = 100;
+  // Timeout of each attempt, hedge or retry of an insert.
+  private static final long ATTEMPT_TIMEOUT_MILLIS = 5_000;
+
+  public static void insertLocalInventoryWithRetryPolicy(String accountId, String storeCode)
+      throws Exception {
+
+    InstantiatingGrpcChannelProvider channelProvider =
+        InstantiatingGrpcChannelProvider.newBuilder().setPoolSize(4).build();
+
+    // Creates service settings using the shared, proactively refreshed credentials.
+    LocalInventoryServiceSettings.Builder localInventoryServiceSettingsBuilder =
+        LocalInventoryServiceSettings.newBuilder()
+            .setCredentialsProvider(CredentialCache.getCredentialsProvider())
+            .setTransportChannelProvider(channelProvider);
+    // The policy below retries and hedges the inserts, so the client sends each attempt once, with
+    // its own timeout, instead of retrying inside every attempt.
+    localInventoryServiceSettingsBuilder
+        .insertLocalInventorySettings()
+        .setRetrySettings(RetryPolicy.singleAttempt(ATTEMPT_TIMEOUT_MILLIS));
+    LocalInventoryServiceSettings localInventoryServiceSettings =
+        localInventoryServiceSettingsBuilder.build();
+
+    // Inserting the same local inventory twice replaces it with the same values, so the inserts are
+    // idempotent and can be hedged.
+    RetryPolicy policy =
+        RetryPolicy.newBuilder()
+            .setMaxAttempts(3)
+            .setInitialBackoffMillis(200)
+            .setMaxBackoffMillis(5_000)
+            .setRetryBudgetRatio(0.1)
+            .setHedgeDelayMillis(1_000)
+            .build();
+    // Runs the backoff and hedge timers only; the calls themselves are asynchronous.
+    ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor();
+
+    // Calls the API and catches and prints any network failures/errors.
+    try (LocalInventoryServiceClient localInventoryServiceClient =
+        LocalInventoryServiceClient.create(localInventoryServiceSettings)) {
+
+      List<String> localProductNames =
+          InsertLocalInventoryAsyncSample.getLocalProductNames(
+              CredentialCache.getCredentials(), accountId);
+      if (localProductNames.isEmpty()) {
+        throw new Exception("No local products found for this account.");
+      }
+
+      PolicyCallable<InsertLocalInventoryRequest, LocalInventory> insertLocalInventory =
+          new PolicyCallable<>(
+              localInventoryServiceClient.insertLocalInventoryCallable(), policy, scheduler);
+
+      // In this example, we are simply using the same price for all products.
+      Price price = Price.newBuilder().setAmountMicros(33_450_000).setCurrencyCode("USD").build();
+      Semaphore inFlight = new Semaphore(MAX_IN_FLIGHT);
+      List<ApiFuture<LocalInventory>> futures = new ArrayList<>(localProductNames.size());
+      long start = System.currentTimeMillis();
+      for (String name : localProductNames) {
+        InsertLocalInventoryRequest request =
+            InsertLocalInventoryRequest.newBuilder()
+                .setParent(name)
+                .setLocalInventory(
+                    LocalInventory.newBuilder()
+                        .setLocalInventoryAttributes(
+                            LocalInventoryAttributes.newBuilder()
+                                .setAvailability(Availability.OUT_OF_STOCK)
+                                .setPrice(price)
+                                .build())
+                        .setStoreCode(storeCode)
+                        .build())
+                .build();
+        inFlight.acquire();
+        ApiFuture<LocalInventory> future = insertLocalInventory.futureCall(request);
+        future.addListener(inFlight::release, MoreExecutors.directExecutor());
+        futures.add(future);
+      }
+
+      // Each request succeeds or fails on its own, so one failure does not hide the others.
+      for (ApiFuture<LocalInventory> future : futures) {
+        try {
+          future.get();
+        } catch (ExecutionException e) {
+          System.out.println("Insert failed: " + e.getCause());
+        }
+      }
+      System.out.printf(
+          "Inserted the local inventory of %d products in %d ms: %s%n",
+          localProductNames.size(), System.currentTimeMillis() - start, insertLocalInventory);
+    } catch (Exception e) {
+      System.out.println(e);
+    } finally {
+      scheduler.shutdown();
+    }
+  }
+
+  public static void main(String[] args) throws Exception {
+    String accountId = Config.load().getAccountId().toString();
+    // The code uniquely identifying each store.
+    String storeCode = "yourstorecode";
+    insertLocalInventoryWithRetryPolicy(accountId, storeCode);
+  }
+}
+// [END merchantapi_insert_local_inventory_with_retry_policy]
@@ -0,0 +1,78 @@
+// Copyright 2026 Google LLC
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     https://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package shopping.merchant.samples.inventories.v1;
+
+// [START merchantapi_replay_local_inventory_dead_letters]
+import com.google.api.gax.core.FixedCredentialsProvider;
+import com.google.api.gax.grpc.InstantiatingGrpcChannelProvider;
+import com.google.auth.oauth2.GoogleCredentials;
+import com.google.shopping.merchant.inventories.v1.InsertLocalInventoryRequest;
+import com.google.shopping.merchant.inventories.v1.LocalInventory;
+import com.google.shopping.merchant.inventories.v1.LocalInventoryServiceClient;
+import com.google.shopping.merchant.inventories.v1.LocalInventoryServiceSettings;
+import java.io.File;
+import java.nio.file.Path;
+import shopping.merchant.samples.utils.Authenticator;
+import shopping.merchant.samples.utils.BoundedAsyncWriter;
+import shopping.merchant.samples.utils.Config;
+import shopping.merchant.samples.utils.DeadLetterQueue;
+
+/**
+ * This class demonstrates how to send again the local inventory inserts that failed in {@link
+ * InsertLocalInventoryAsyncSample}, from its dead letter file. The requests that fail again stay in
+ * the file, so the sample can be run until the file is gone.
+ */
+public class ReplayLocalInventoryDeadLettersSample {
+
+  public static void replayLocalInventoryDeadLetters(Path deadLetterFile) throws Exception {
+    // Obtains OAuth token based on the user's configuration.
+    GoogleCredentials credential = new Authenticator().authenticate();
+
+    // Creates service settings using the credentials retrieved above.
+    LocalInventoryServiceSettings localInventoryServiceSettings =
+        LocalInventoryServiceSettings.newBuilder()
+            .setCredentialsProvider(FixedCredentialsProvider.create(credential))
+            .setTransportChannelProvider(
+                InstantiatingGrpcChannelProvider.newBuilder().setPoolSize(4).build())
+            .build();
+
+    // Calls the API and catches and prints any network failures/errors.
+    try (LocalInventoryServiceClient localInventoryServiceClient =
+        LocalInventoryServiceClient.create(localInventoryServiceSettings)) {
+
+      // Uses the same limit of requests in flight as the original inserts.
+      BoundedAsyncWriter<InsertLocalInventoryRequest, LocalInventory> writer =
+          DeadLetterQueue.replay(
+              deadLetterFile,
+              InsertLocalInventoryRequest.parser(),
+              localInventoryServiceClient.insertLocalInventoryCallable()::futureCall,
+              InsertLocalInventoryAsyncSample.MAX_IN_FLIGHT);
+      System.out.printf(
+          "Replayed %d requests: %d succeeded, %d failed again%n",
+          writer.getSubmitted(), writer.getSucceeded(), writer.getFailed());
+    } catch (Exception e) {
+      System.out.println(e);
+    }
+  }
+
+  public static void main(String[] args) throws Exception {
+    Config config = Config.load();
+    Path deadLetterFile =
+        new File(config.getPath(), InsertLocalInventoryAsyncSample.DEAD_LETTER_FILE).toPath();
+
+    replayLocalInventoryDeadLetters(deadLetterFile);
+  }
+}
+// [END merchantapi_replay_local_inventory_dead_letters]
@@ -0,0 +1,377 @@
+// Copyright 2026 Google LLC
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     https://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package shopping.merchant.samples.issueresolution.v1;
+
+import com.google.shopping.merchant.issueresolution.v1.AggregateProductStatus;
+import com.google.shopping.merchant.issueresolution.v1.AggregateProductStatus.Stats;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+import java.nio.IntBuffer;
+import java.nio.LongBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A time series of {@link AggregateProductStatus} statistics, stored in append-only files in a
+ * local directory.
+ *
+ * <p>Every snapshot appends one record per account, country and reporting context. The records are
+ * stored column by column: one file with the timestamps, one with the series IDs and one per
+ * counter, each holding fixed-width values. A record takes 28 bytes, so years of hourly snapshots
+ * for thousands of series stay small. Queries memory-map the columns and scan them sequentially,
+ * without parsing or allocating per record.
+ *
+ * <p>The series (account, country and reporting context) are numbered in the order they first
+ * appear, and their keys are stored in a separate tab-separated file.
+ */
+public class AggregateStatusHistory implements AutoCloseable {
+
+  // The counters of the stats, in the order of the counter columns.
+  private static final String[] COUNTERS = {"active", "pending", "disapproved", "expiring"};
+  private static final int ACTIVE = 0;
+  private static final int PENDING = 1;
+  private static final int DISAPPROVED = 2;
+  private static final int EXPIRING = 3;
+
+  /** The account, country and reporting context that identify a series. */
+  public static final class Series {
+    private final String account;
+    private final String country;
+    private final String reportingContext;
+
+    Series(String account, String country, String reportingContext) {
+      this.account = account;
+      this.country = country;
+      this.reportingContext = reportingContext;
+    }
+
+    public String getAccount() {
+      return account;
+    }
+
+    public String getCountry() {
+      return country;
+    }
+
+    public String getReportingContext() {
+      return reportingContext;
+    }
+
+    String toLine() {
+      return account + "\t" + country + "\t" + reportingContext;
+    }
+
+    @Override
+    public String toString() {
+      return account + " " + country + " " + reportingContext;
+    }
+  }
+
+  /** The statistics of a series before and after a point in time. */
+  public static final class Change {
+    private final Series series;
+    // Null if the series has no record before the point in time.
+    private final long[] before;
+    private final long[] after;
+
+    Change(Series series, long[] before, long[] after) {
+      this.series = series;
+      this.before = before;
+      this.after = after;
+    }
+
+    public Series getSeries() {
+      return series;
+    }
+
+    /** Returns true if the series has no record before the point in time. */
+    public boolean isNew() {
+      return before == null;
+    }
+
+    public long getActiveDelta() {
+      return delta(ACTIVE);
+    }
+
+    public long getPendingDelta() {
+      return delta(PENDING);
+    }
+
+    public long getDisapprovedDelta() {
+      return delta(DISAPPROVED);
+    }
+
+    public long getExpiringDelta() {
+      return delta(EXPIRING);
+    }
+
+    private long delta(int counter) {
+      return after[counter] - (before == null ? 0 : before[counter]);
+    }
+
+    @Override
+    public String toString() {
+      StringBuilder builder = new StringBuilder(series.toString()).append(':');
+      for (int counter = 0; counter < COUNTERS.length; counter++) {
+        builder.append(' ').append(COUNTERS[counter]).append(' ');
+        if (before != null) {
+          builder.append(before[counter]).append(" -> ");
+        }
+        builder.append(after[counter]);
+      }
+      return builder.toString();
+    }
+  }
+
+  private final FileChannel times;
+  private final FileChannel seriesIds;
+  private final FileChannel[] counters = new FileChannel[COUNTERS.length];
+  private final Writer seriesWriter;
+  private final List<Series> series = new ArrayList<>();
+  private final Map<String, Integer> seriesIdsByKey = new HashMap<>();
+  private int recordCount;
+
+  private AggregateStatusHistory(Path directory) throws IOException {
+    // Read first, so that a malformed series file fails before any column is opened.
+    Path seriesFile = directory.resolve("series.tsv");
+    if (Files.exists(seriesFile)) {
+      readSeries(seriesFile);
+    }
+
+    times = openColumn(directory, "time");
+    seriesIds = openColumn(directory, "series");
+    for (int counter = 0; counter < COUNTERS.length; counter++) {
+      counters[counter] = openColumn(directory, COUNTERS[counter]);
+    }
+
+    // A crash during an append may leave the columns with different lengths. Only the records
+    // complete in every column are kept.
+    long count = Math.min(times.size() / Long.BYTES, seriesIds.size() / Integer.BYTES);
+    for (FileChannel column : counters) {
+      count = Math.min(count, column.size() / Integer.BYTES);
+    }
+    recordCount = (int) count;
+    times.truncate((long) recordCount * Long.BYTES);
+    seriesIds.truncate((long) recordCount * Integer.BYTES);
+    for (FileChannel column : counters) {
+      column.truncate((long) recordCount * Integer.BYTES);
+    }
+
+    seriesWriter =
+        new BufferedWriter(
+            Files.newBufferedWriter(
+                seriesFile,
+                StandardCharsets.UTF_8,
+                StandardOpenOption.CREATE,
+                StandardOpenOption.APPEND));
+  }
+
+  // Loads the series, numbered by line. A crash during an append may leave a partial last line; it
+  // is cut off like the partial records, so that the next series starts on its own line and every
+  // series keeps its ID. Any other malformed line would shift the IDs of the series after it, so
+  // it fails the open.
+  private void readSeries(Path seriesFile) throws IOException {
+    byte[] bytes = Files.readAllBytes(seriesFile);
+    int length = bytes.length;
+    while (length > 0 && bytes[length - 1] != '\n') {
+      length--;
+    }
+    if (length < bytes.length) {
+      try (FileChannel channel = FileChannel.open(seriesFile, StandardOpenOption.WRITE)) {
+        channel.truncate(length);
+      }
+    }
+    if (length == 0) {
+      return;
+    }
+    String[] lines = new String(bytes, 0, length - 1, StandardCharsets.UTF_8).split("\n", -1);
+    for (int i = 0; i < lines.length; i++) {
+      String[] columns = lines[i].split("\t", -1);
+      if (columns.length != 3) {
+        throw new IOException(
+            String.format("Malformed series on line %d of %s: %s", i + 1, seriesFile, lines[i]));
+      }
+      addSeries(new Series(columns[0], columns[1], columns[2]));
+    }
+  }
+
+  /** Opens the history stored in the directory, creating it if needed. */
+  public static AggregateStatusHistory open(Path directory) throws IOException {
+    Files.createDirectories(directory);
+    return new AggregateStatusHistory(directory);
+  }
+
+  private static FileChannel openColumn(Path directory, String name) throws IOException {
+    return FileChannel.open(
+        directory.resolve(name + ".col"),
+        StandardOpenOption.CREATE,
+        StandardOpenOption.READ,
+        StandardOpenOption.WRITE);
+  }
+
+  /**
+   * Appends the statuses of an account, taken at the given time. Snapshots must be appended in
+   * chronological order.
+   *
+   * @param account the account name, in the format {@code accounts/{account}}.
+   */
+  public synchronized void append(
+      String account, long timeMillis, List<AggregateProductStatus> statuses) throws IOException {
+    int count = statuses.size();
+    if (count == 0) {
+      return;
+    }
+    ByteBuffer timeBuffer = ByteBuffer.allocate(count * Long.BYTES);
+    ByteBuffer seriesBuffer = ByteBuffer.allocate(count * Integer.BYTES);
+    ByteBuffer[] counterBuffers = new ByteBuffer[COUNTERS.length];
+    for (int counter = 0; counter < COUNTERS.length; counter++) {
+      counterBuffers[counter] = ByteBuffer.allocate(count * Integer.BYTES);
+    }
+
+    for (AggregateProductStatus status : statuses) {
+      Series key = new Series(account, status.getCountry(), status.getReportingContext().name());
+      Integer id = seriesIdsByKey.get(key.toLine());
+      if (id == null) {
+        id = addSeries(key);
+        seriesWriter.write(key.toLine());
+        seriesWriter.write('\n');
+      }
+      Stats stats = status.getStats();
+      timeBuffer.putLong(timeMillis);
+      seriesBuffer.putInt(id);
+      counterBuffers[ACTIVE].putInt(toInt(stats.getActiveCount()));
+      counterBuffers[PENDING].putInt(toInt(stats.getPendingCount()));
+      counterBuffers[DISAPPROVED].putInt(toInt(stats.getDisapprovedCount()));
+      counterBuffers[EXPIRING].putInt(toInt(stats.getExpiringCount()));
+    }
+    // The series must be known before any record refers to them.
+    seriesWriter.flush();
+
+    write(times, timeBuffer, (long) recordCount * Long.BYTES);
+    write(seriesIds, seriesBuffer, (long) recordCount * Integer.BYTES);
+    for (int counter = 0; counter < COUNTERS.length; counter++) {
+      write(counters[counter], counterBuffers[counter], (long) recordCount * Integer.BYTES);
+    }
+    recordCount += count;
+  }
+
+  /**
+   * Returns the series whose latest statistics differ from their statistics at the given time,
+   * including the series that first appeared after it.
+   */
+  public List<Change> changesSince(long sinceMillis) throws IOException {
+    int count;
+    List<Series> knownSeries;
+    synchronized (this) {
+      count = recordCount;
+      knownSeries = new ArrayList<>(series);
+    }
+    List<Change> changes = new ArrayList<>();
+    if (count == 0) {
+      return changes;
+    }
+
+    LongBuffer timeColumn =
+        times.map(MapMode.READ_ONLY, 0, (long) count * Long.BYTES).asLongBuffer();
+    IntBuffer seriesColumn =
+        seriesIds.map(MapMode.READ_ONLY, 0, (long) count * Integer.BYTES).asIntBuffer();
+    IntBuffer[] counterColumns = new IntBuffer[COUNTERS.length];
+    for (int counter = 0; counter < COUNTERS.length; counter++) {
+      counterColumns[counter] =
+          counters[counter].map(MapMode.READ_ONLY, 0, (long) count * Integer.BYTES).asIntBuffer();
+    }
+
+    // For each series, the last record at or before the time, and the last record overall.
+    int[] before = new int[knownSeries.size()];
+    int[] latest = new int[knownSeries.size()];
+    Arrays.fill(before, -1);
+    Arrays.fill(latest, -1);
+    for (int record = 0; record < count; record++) {
+      int id = seriesColumn.get(record);
+      if (timeColumn.get(record) <= sinceMillis) {
+        before[id] = record;
+      }
+      latest[id] = record;
+    }
+
+    for (int id = 0; id < knownSeries.size(); id++) {
+      // Skips the series without new records since the time.
+      if (latest[id] < 0 || latest[id] == before[id]) {
+        continue;
+      }
+      long[] afterStats = readStats(counterColumns, latest[id]);
+      long[] beforeStats = before[id] < 0 ? null : readStats(counterColumns, before[id]);
+      if (beforeStats == null || !Arrays.equals(beforeStats, afterStats)) {
+        changes.add(new Change(knownSeries.get(id), beforeStats, afterStats));
+      }
+    }
+    return changes;
+  }
+
+  public synchronized int getRecordCount() {
+    return recordCount;
+  }
+
+  @Override
+  public synchronized void close() throws IOException {
+    seriesWriter.close();
+    times.close();
+    seriesIds.close();
+    for (FileChannel column : counters) {
+      column.close();
+    }
+  }
+
+  private int addSeries(Series key) {
+    int id = series.size();
+    series.add(key);
+    seriesIdsByKey.put(key.toLine(), id);
+    return id;
+  }
+
+  private static long[] readStats(IntBuffer[] counterColumns, int record) {
+    long[] stats = new long[COUNTERS.length];
+    for (int counter = 0; counter < COUNTERS.length; counter++) {
+      stats[counter] = counterColumns[counter].get(record);
+    }
+    return stats;
+  }
+
+  private static void write(FileChannel column, ByteBuffer buffer, long position)
+      throws IOException {
+    // Called through Buffer, so that a build on a newer JDK still runs on Java 8.
+    ((Buffer) buffer).flip();
+    while (buffer.hasRemaining()) {
+      position += column.write(buffer, position);
+    }
+  }
+
+  // Product counts fit in an int, which keeps the columns compact.
+  private static int toInt(long value) {
+    return (int) Math.min(value, Integer.MAX_VALUE);
+  }
+}
@@ -0,0 +1,149 @@
+// Copyright 2026 Google LLC
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     https://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package shopping.merchant.samples.issueresolution.v1;
+
+// [START merchantapi_batch_render_product_issues]
+import com.google.api.gax.core.FixedCredentialsProvider;
+import com.google.auth.oauth2.GoogleCredentials;
+import com.google.shopping.merchant.issueresolution.v1.IssueResolutionServiceClient;
+import com.google.shopping.merchant.issueresolution.v1.IssueResolutionServiceSettings;
+import com.google.shopping.merchant.issueresolution.v1.ProductName;
+import com.google.shopping.merchant.issueresolution.v1.RenderedIssue;
+import com.google.shopping.merchant.issueresolution.v1.UserInputActionRenderingOption;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import shopping.merchant.samples.utils.Authenticator;
+import shopping.merchant.samples.utils.Config;
+
+/**
+ * This class demonstrates how to render the issues of many products in several languages, using a
+ * {@link ProductIssuesCache} to send the requests concurrently and to avoid rendering the same
+ * product twice. All the rendered issues are then written to an HTML report with a {@link
+ * BufferedRenderer}.
+ */
+public class BatchRenderProductIssuesSample {
+
+  // Maximum number of renderProductIssues requests in flight at the same time.
+  private static final int MAX_CONCURRENT_REQUESTS = 20;
+  // The HTML report with all the rendered issues.
+  private static final String REPORT_FILE = "product_issues.html";
+
+  private static void batchRenderProductIssues(
+      Config config,
+      List<String> productIds,
+      List<String> languageCodes,
+      String timeZone,
+      UserInputActionRenderingOption userInputActionOption)
+      throws IOException {
+
+    // Obtains OAuth token based on the user's configuration.
+    GoogleCredentials credential = new Authenticator().authenticate();
+
+    IssueResolutionServiceSettings settings =
+        IssueResolutionServiceSettings.newBuilder()
+            .setCredentialsProvider(FixedCredentialsProvider.create(credential))
+            .build();
+
+    String accountId = config.getAccountId().toString();
+    ExecutorService executor = Executors.newFixedThreadPool(MAX_CONCURRENT_REQUESTS);
+
+    // A single client is shared by all the requests.
+    try (IssueResolutionServiceClient client = IssueResolutionServiceClient.create(settings)) {
+
+      ProductIssuesCache cache = new ProductIssuesCache(client, executor, 10, TimeUnit.MINUTES);
+
+      // Starts all the requests before waiting for any of them.
+      Map<String, CompletableFuture<List<RenderedIssue>>> results = new LinkedHashMap<>();
+      for (String productId : productIds) {
+        String name =
+            ProductName.newBuilder().setAccount(accountId).setProduct(productId).build().toString();
+        for (String languageCode : languageCodes) {
+          results.put(
+              productId + " (" + languageCode + ")",
+              cache.render(name, languageCode, timeZone, userInputActionOption));
+        }
+      }
+
+      System.out.println("Rendered issues per product and language:");
+      List<RenderedIssue> allIssues = new ArrayList<>();
+      for (Map.Entry<String, CompletableFuture<List<RenderedIssue>>> result : results.entrySet()) {
+        try {
+          List<RenderedIssue> issues = result.getValue().join();
+          System.out.println("  " + result.getKey() + ": " + issues.size() + " issues");
+          allIssues.addAll(issues);
+        } catch (Exception e) {
+          System.out.println("  " + result.getKey() + ": failed with " + e.getCause());
+        }
+      }
+
+      // Renders the issues on the same executor and writes them through a single buffered writer.
+      try (Writer writer =
+          Files.newBufferedWriter(Paths.get(REPORT_FILE), StandardCharsets.UTF_8)) {
+        new BufferedRenderer(BufferedRenderer.Format.HTML)
+            .renderAllParallel(allIssues, writer, executor);
+      }
+      System.out.printf("Wrote %d issues to %s%n", allIssues.size(), REPORT_FILE);
+
+      // Rendering the same products again is answered from the cache.
+      List<CompletableFuture<List<RenderedIssue>>> again = new ArrayList<>();
+      for (String productId : productIds) {
+        String name =
+            ProductName.newBuilder().setAccount(accountId).setProduct(productId).build().toString();
+        again.add(cache.render(name, languageCodes.get(0), timeZone, userInputActionOption));
+      }
+      CompletableFuture.allOf(again.toArray(new CompletableFuture<?>[0]))
+          .exceptionally(throwable -> null)
+          .join();
+
+      System.out.printf(
+          "Sent %d renderProductIssues requests, %d answered from the cache%n",
+          cache.getCalls(), cache.getHits());
+    } catch (Exception e) {
+      System.out.println("An error has occured: ");
+      System.out.println(e);
+    } finally {
+      executor.shutdown();
+    }
+  }
+
+  public static void main(String[] args) throws Exception {
+    Config config = Config.load();
+    String timeZone = "Europe/Zurich";
+    // The issues of every product are rendered in each of these languages.
+    List<String> languageCodes = Arrays.asList("en_GB", "de_CH", "fr_CH");
+    // The simple option: request all complex actions to be handled as redirects to
+    // the Merchant Center. e.g. send the merchant to MC to request an appeal.
+    UserInputActionRenderingOption inputActionOption =
+        UserInputActionRenderingOption.REDIRECT_TO_MERCHANT_CENTER;
+    // IDs assigned to products by Google. In the format: `contentLanguage~feedLabel~offerId`
+    List<String> productIds =
+        Arrays.asList("en~label~sku123", "en~label~sku124"); // Replace with your product IDs
+
+    batchRenderProductIssues(config, productIds, languageCodes, timeZone, inputActionOption);
+  }
+}
+// [END merchantapi_batch_render_product_issues]
@@ -0,0 +1,418 @@
+// Copyright 2026 Google LLC
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     https://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package shopping.merchant.samples.issueresolution.v1;
+// [START merchantapi_batch_trigger_action]
+import com.google.api.gax.core.FixedCredentialsProvider;
+import com.google.auth.oauth2.GoogleCredentials;
+import com.google.shopping.merchant.accounts.v1.Account;
+import com.google.shopping.merchant.accounts.v1.AccountsServiceClient;
+import com.google.shopping.merchant.accounts.v1.AccountsServiceSettings;
+import com.google.shopping.merchant.accounts.v1.ListSubAccountsRequest;
+import com.google.shopping.merchant.issueresolution.v1.Action;
+import com.google.shopping.merchant.issueresolution.v1.ActionFlow;
+import com.google.shopping.merchant.issueresolution.v1.ActionInput;
+import com.google.shopping.merchant.issueresolution.v1.InputField;
+import com.google.shopping.merchant.issueresolution.v1.InputField.ChoiceInput.ChoiceInputOption;
+import com.google.shopping.merchant.issueresolution.v1.InputValue;
+import com.google.shopping.merchant.issueresolution.v1.InputValue.CheckboxInputValue;
+import com.google.shopping.merchant.issueresolution.v1.InputValue.ChoiceInputValue;
+import com.google.shopping.merchant.issueresolution.v1.InputValue.TextInputValue;
+import com.google.shopping.merchant.issueresolution.v1.IssueResolutionServiceClient;
+import com.google.shopping.merchant.issueresolution.v1.IssueResolutionServiceSettings;
+import com.google.shopping.merchant.issueresolution.v1.RenderAccountIssuesRequest;
+import com.google.shopping.merchant.issueresolution.v1.RenderIssuesRequestPayload;
+import com.google.shopping.merchant.issueresolution.v1.RenderedIssue;
+import com.google.shopping.merchant.issueresolution.v1.TriggerActionPayload;
+import com.google.shopping.merchant.issueresolution.v1.TriggerActionRequest;
+import com.google.shopping.merchant.issueresolution.v1.UserInputActionRenderingOption;
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import shopping.merchant.samples.utils.Authenticator;
+import shopping.merchant.samples.utils.Config;
+
+/**
+ * This class demonstrates how to trigger built-in actions on account-level issues for all the
+ * sub-accounts of an advanced account, without user interaction.
+ *
+ * <p>Instead of asking the user, as in {@link TriggerActionForAccountIssueSample}, the action
+ * flows to trigger and their input values are read from a rules file. The issues of all
+ * sub-accounts are rendered concurrently, a `triggerAction` request is built for every available
+ * action flow that matches a rule, and the requests are sent with a bounded number of requests in
+ * flight. The outcome for every account and flow is written to a report file.
+ *
+ * <p>NOTE: the access to `triggerAction` is currently limited. To obtain access follow steps in the
+ * development guide.
+ */
+public class BatchTriggerActionSample {
+
+  // Maximum number of requests in flight at the same time.
+  private static final int MAX_CONCURRENT_REQUESTS = 10;
+  // Matches any issue title or action label in the rules file.
+  private static final String ANY = "*";
+
+  /**
+   * A line of the rules file, with the tab-separated columns: issue title (or {@code *}), action
+   * button label (or {@code *}), action flow ID and the input values, as {@code fieldId=value}
+   * pairs separated by {@code ;}. Checkbox values are {@code true} or {@code false}, choice values
+   * are the IDs of the options and text values are used as they are.
+   */
+  static class Rule {
+    final String issueTitle;
+    final String actionLabel;
+    final String flowId;
+    final Map<String, String> inputs = new HashMap<>();
+
+    Rule(String[] columns) {
+      if (columns.length < 3) {
+        throw new IllegalArgumentException(
+            "Expected at least 3 tab-separated columns but found " + columns.length);
+      }
+      this.issueTitle = columns[0].trim();
+      this.actionLabel = columns[1].trim();
+      this.flowId = columns[2].trim();
+      if (columns.length > 3 && !columns[3].trim().isEmpty()) {
+        for (String input : columns[3].split(";")) {
+          int separator = input.indexOf('=');
+          if (separator < 0) {
+            throw new IllegalArgumentException("Expected fieldId=value but found " + input);
+          }
+          inputs.put(input.substring(0, separator).trim(), input.substring(separator + 1));
+        }
+      }
+    }
+
+    boolean matches(RenderedIssue issue, Action action, ActionFlow flow) {
+      return (ANY.equals(issueTitle) || issueTitle.equals(issue.getTitle()))
+          && (ANY.equals(actionLabel) || actionLabel.equals(action.getButtonLabel()))
+          && flowId.equals(flow.getId());
+    }
+  }
+
+  /** The outcome of one action flow for one account. */
+  static class Result {
+    final String account;
+    final String issueTitle;
+    final String flowId;
+    final String status;
+    final String message;
+
+    Result(String account, String issueTitle, String flowId, String status, String message) {
+      this.account = account;
+      this.issueTitle = issueTitle;
+      this.flowId = flowId;
+      this.status = status;
+      this.message = message;
+    }
+  }
+
+  static List<Rule> readRules(File rulesFile) throws IOException {
+    List<Rule> rules = new ArrayList<>();
+    try (BufferedReader reader =
+        Files.newBufferedReader(rulesFile.toPath(), StandardCharsets.UTF_8)) {
+      String line;
+      while ((line = reader.readLine()) != null) {
+        if (line.trim().isEmpty() || line.startsWith("#")) {
+          continue;
+        }
+        rules.add(new Rule(line.split("\t", -1)));
+      }
+    }
+    return rules;
+  }
+
+  /**
+   * Builds the input values of the flow from the rule, or throws if a required value is missing or
+   * a value is not valid for its field.
+   */
+  static List<InputValue> buildInputValues(ActionFlow flow, Rule rule) {
+    List<InputValue> inputValues = new ArrayList<>();
+    for (InputField field : flow.getInputsList()) {
+      String value = rule.inputs.get(field.getId());
+      if (value == null) {
+        if (field.getRequired()) {
+          throw new IllegalArgumentException("Missing value for required field " + field.getId());
+        }
+        continue;
+      }
+      InputValue.Builder inputValue = InputValue.newBuilder().setInputFieldId(field.getId());
+      if (field.hasCheckboxInput()) {
+        boolean checked = Boolean.parseBoolean(value.trim());
+        if (!checked && field.getRequired()) {
+          throw new IllegalArgumentException("Required checkbox " + field.getId() + " unchecked");
+        }
+        inputValue.setCheckboxInputValue(CheckboxInputValue.newBuilder().setValue(checked));
+      } else if (field.hasChoiceInput()) {
+        boolean validOption = false;
+        for (ChoiceInputOption option : field.getChoiceInput().getOptionsList()) {
+          validOption |= option.getId().equals(value.trim());
+        }
+        if (!validOption) {
+          throw new IllegalArgumentException("Unknown option " + value + " for " + field.getId());
+        }
+        inputValue.setChoiceInputValue(
+            ChoiceInputValue.newBuilder().setChoiceInputOptionId(value.trim()));
+      } else if (field.hasTextInput()) {
+        inputValue.setTextInputValue(TextInputValue.newBuilder().setValue(value));
+      }
+      inputValues.add(inputValue.build());
+    }
+    return inputValues;
+  }
+
+  private static List<String> listSubAccounts(GoogleCredentials credential, String parent)
+      throws IOException {
+    AccountsServiceSettings accountsServiceSettings =
+        AccountsServiceSettings.newBuilder()
+            .setCredentialsProvider(FixedCredentialsProvider.create(credential))
+            .build();
+    List<String> accounts = new ArrayList<>();
+    try (AccountsServiceClient accountsServiceClient =
+        AccountsServiceClient.create(accountsServiceSettings)) {
+      ListSubAccountsRequest request =
+          ListSubAccountsRequest.newBuilder().setProvider(parent).build();
+      for (Account account : accountsServiceClient.listSubAccounts(request).iterateAll()) {
+        accounts.add(account.getName());
+      }
+    }
+    return accounts;
+  }
+
+  /**
+   * Renders the issues of the account and triggers every available action flow that matches a
+   * rule. Each request is a separate task on the executor, so no task waits for another one.
+   */
+  private static CompletableFuture<List<Result>> processAccount(
+      IssueResolutionServiceClient client,
+      ExecutorService executor,
+      String account,
+      List<Rule> rules,
+      String languageCode,
+      String timeZone,
+      boolean dryRun) {
+    RenderAccountIssuesRequest renderRequest =
+        RenderAccountIssuesRequest.newBuilder()
+            .setName(account)
+            .setLanguageCode(languageCode)
+            .setTimeZone(timeZone)
+            .setPayload(
+                RenderIssuesRequestPayload.newBuilder()
+                    .setUserInputActionOption(
+                        UserInputActionRenderingOption.BUILT_IN_USER_INPUT_ACTIONS)
+                    .build())
+            .build();
+
+    return CompletableFuture.supplyAsync(
+            () -> client.renderAccountIssues(renderRequest).getRenderedIssuesList(), executor)
+        .thenCompose(
+            issues -> {
+              List<CompletableFuture<Result>> results = new ArrayList<>();
+              for (RenderedIssue issue : issues) {
+                for (Action action : issue.getActionsList()) {
+                  if (!action.getIsAvailable() || !action.hasBuiltinUserInputAction()) {
+                    continue;
+                  }
+                  for (ActionFlow flow : action.getBuiltinUserInputAction().getFlowsList()) {
+                    Rule rule = findRule(rules, issue, action, flow);
+                    if (rule != null) {
+                      results.add(
+                          trigger(
+                              client,
+                              executor,
+                              account,
+                              languageCode,
+                              issue,
+                              action,
+                              flow,
+                              rule,
+                              dryRun));
+                    }
+                  }
+                }
+              }
+              return CompletableFuture.allOf(results.toArray(new CompletableFuture<?>[0]))
+                  .thenApply(
+                      done -> {
+                        List<Result> accountResults = new ArrayList<>();
+                        for (CompletableFuture<Result> result : results) {
+                          accountResults.add(result.join());
+                        }
+                        return accountResults;
+                      });
+            })
+        .exceptionally(
+            throwable -> {
+              List<Result> failed = new ArrayList<>();
+              failed.add(new Result(account, "", "", "RENDER_FAILED", messageOf(throwable)));
+              return failed;
+            });
+  }
+
+  // Unwraps the CompletionException added by the CompletableFuture.
+  private static String messageOf(Throwable throwable) {
+    Throwable cause = throwable.getCause() != null ? throwable.getCause() : throwable;
+    return cause.toString();
+  }
+
+  private static Rule findRule(
+      List<Rule> rules, RenderedIssue issue, Action action, ActionFlow flow) {
+    for (Rule rule : rules) {
+      if (rule.matches(issue, action, flow)) {
+        return rule;
+      }
+    }
+    return null;
+  }
+
+  private static CompletableFuture<Result> trigger(
+      IssueResolutionServiceClient client,
+      ExecutorService executor,
+      String account,
+      String languageCode,
+      RenderedIssue issue,
+      Action action,
+      ActionFlow flow,
+      Rule rule,
+      boolean dryRun) {
+    List<InputValue> inputValues;
+    try {
+      inputValues = buildInputValues(flow, rule);
+    } catch (IllegalArgumentException e) {
+      return CompletableFuture.completedFuture(
+          new Result(account, issue.getTitle(), flow.getId(), "SKIPPED", e.getMessage()));
+    }
+
+    TriggerActionRequest request =
+        TriggerActionRequest.newBuilder()
+            .setName(account)
+            .setLanguageCode(languageCode)
+            .setPayload(
+                TriggerActionPayload.newBuilder()
+                    .setActionContext(action.getBuiltinUserInputAction().getActionContext())
+                    .setActionInput(
+                        ActionInput.newBuilder()
+                            .setActionFlowId(flow.getId())
+                            .addAllInputValues(inputValues)
+                            .build())
+                    .build())
+            .build();
+    if (dryRun) {
+      return CompletableFuture.completedFuture(
+          new Result(account, issue.getTitle(), flow.getId(), "DRY_RUN", ""));
+    }
+
+    return CompletableFuture.supplyAsync(
+            () -> {
+              String message = client.triggerAction(request).getMessage();
+              return new Result(account, issue.getTitle(), flow.getId(), "TRIGGERED", message);
+            },
+            executor)
+        .exceptionally(
+            throwable ->
+                new Result(
+                    account, issue.getTitle(), flow.getId(), "FAILED", messageOf(throwable)));
+  }
+
+  public static void batchTriggerAction(
+      Config config,
+      File rulesFile,
+      File reportFile,
+      String languageCode,
+      String timeZone,
+      boolean dryRun)
+      throws Exception {
+
+    List<Rule> rules = readRules(rulesFile);
+    System.out.printf("Read %d rules from %s%n", rules.size(), rulesFile);
+
+    // Obtains OAuth token based on the user's configuration.
+    GoogleCredentials credential = new Authenticator().authenticate();
+
+    // Creates service settings using the credentials retrieved above.
+    IssueResolutionServiceSettings settings =
+        IssueResolutionServiceSettings.newBuilder()
+            .setCredentialsProvider(FixedCredentialsProvider.create(credential))
+            .build();
+
+    ExecutorService executor = Executors.newFixedThreadPool(MAX_CONCURRENT_REQUESTS);
+
+    // Calls the API and catches and prints any network failures/errors.
+    try (IssueResolutionServiceClient client = IssueResolutionServiceClient.create(settings);
+        PrintWriter report =
+            new PrintWriter(Files.newBufferedWriter(reportFile.toPath(), StandardCharsets.UTF_8))) {
+
+      List<String> accounts =
+          listSubAccounts(credential, "accounts/" + config.getAccountId().toString());
+      System.out.printf("Processing %d sub-accounts%n", accounts.size());
+
+      // Starts all the accounts before waiting for any of them.
+      List<CompletableFuture<List<Result>>> futures = new ArrayList<>();
+      for (String account : accounts) {
+        futures.add(
+            processAccount(client, executor, account, rules, languageCode, timeZone, dryRun));
+      }
+
+      Map<String, Integer> countsByStatus = new HashMap<>();
+      report.println("account\tissue\tflow\tstatus\tmessage");
+      for (CompletableFuture<List<Result>> future : futures) {
+        for (Result result : future.join()) {
+          countsByStatus.merge(result.status, 1, Integer::sum);
+          report.println(
+              String.join(
+                  "\t",
+                  result.account,
+                  result.issueTitle,
+                  result.flowId,
+                  result.status,
+                  String.valueOf(result.message).replace('\t', ' ').replace('\n', ' ')));
+        }
+      }
+
+      System.out.println("Results by status: " + countsByStatus);
+      System.out.println("Wrote the full report to " + reportFile);
+    } catch (Exception e) {
+      System.out.println("An error has occured: ");
+      System.out.println(e);
+    } finally {
+      executor.shutdown();
+    }
+  }
+
+  public static void main(String[] args) throws Exception {
+    Config config = Config.load();
+    String timeZone = "Europe/Zurich";
+    // The rules match issue titles and action labels in this language.
+    String languageCode = "en_GB";
+    // Tab-separated rules, e.g. to confirm that the issue has been fixed:
+    // *<TAB>*<TAB>{flowId}<TAB>{checkboxFieldId}=true
+    File rulesFile = new File("trigger_action_rules.tsv");
+    File reportFile = new File("trigger_action_report.tsv");
+    // With a dry run, the requests are built and reported, but not sent.
+    boolean dryRun = true;
+
+    batchTriggerAction(config, rulesFile, reportFile, languageCode, timeZone, dryRun);
+  }
+}
+// [END merchantapi_batch_trigger_action]
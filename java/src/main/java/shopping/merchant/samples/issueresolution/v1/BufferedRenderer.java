@@ -0,0 +1,300 @@
+// Copyright 2026 Google LLC
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     https://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package shopping.merchant.samples.issueresolution.v1;
+
+import com.google.shopping.merchant.issueresolution.v1.Action;
+import com.google.shopping.merchant.issueresolution.v1.ActionFlow;
+import com.google.shopping.merchant.issueresolution.v1.Breakdown;
+import com.google.shopping.merchant.issueresolution.v1.RenderedIssue;
+import com.google.shopping.merchant.issueresolution.v1.Severity;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+
+/**
+ * An alternative to {@link SimpleRenderer} for rendering many issues, e.g. for a whole catalog.
+ *
+ * <p>Instead of printing every line with {@code System.out.println}, issues are appended piece by
+ * piece to a {@link StringBuilder}, without intermediate strings. The buffer is reused and only
+ * written to the {@link Writer} once it holds {@link #FLUSH_THRESHOLD} characters, so the output is
+ * written in a few large chunks. Large lists of issues can also be rendered in parallel, each
+ * thread reusing its own buffer, and written in order as the chunks complete.
+ *
+ * <p>The same content as {@link SimpleRenderer} can be rendered as plain text, as text with ANSI
+ * colors for terminals, or as HTML.
+ */
+public class BufferedRenderer {
+
+  /** The output format. */
+  public enum Format {
+    TEXT,
+    ANSI,
+    HTML
+  }
+
+  // Characters buffered before the buffer is written out.
+  static final int FLUSH_THRESHOLD = 64 * 1024;
+  // Issues rendered by each parallel task.
+  private static final int ISSUES_PER_CHUNK = 256;
+  // Rendered chunks waiting to be written, which bounds the memory used by a large list.
+  private static final int MAX_PENDING_CHUNKS = 16;
+  // The buffer of each rendering thread, kept by pooled threads from one chunk to the next.
+  private static final ThreadLocal<StringBuilder> CHUNK_BUFFER =
+      ThreadLocal.withInitial(() -> new StringBuilder(FLUSH_THRESHOLD));
+
+  private static final String ANSI_RED_BOLD = "\u001B[31m\u001B[1m";
+  private static final String ANSI_ORANGE_BOLD = "\u001B[33m\u001B[1m";
+  private static final String ANSI_BLUE_BOLD = "\u001B[34m\u001B[1m";
+  private static final String ANSI_RESET = "\u001B[0m";
+
+  private final Format format;
+
+  public BufferedRenderer(Format format) {
+    this.format = format;
+  }
+
+  /** Renders the issues and writes them to the writer in large chunks. */
+  public void renderAll(Iterable<RenderedIssue> issues, Writer writer) throws IOException {
+    StringBuilder buffer = new StringBuilder(FLUSH_THRESHOLD + FLUSH_THRESHOLD / 4);
+    for (RenderedIssue issue : issues) {
+      render(issue, buffer);
+      if (buffer.length() >= FLUSH_THRESHOLD) {
+        writer.append(buffer);
+        buffer.setLength(0);
+      }
+    }
+    writer.append(buffer);
+    writer.flush();
+  }
+
+  /**
+   * Renders the issues on the executor, {@link #ISSUES_PER_CHUNK} issues per task, and writes the
+   * rendered chunks to the writer in the original order. At most {@link #MAX_PENDING_CHUNKS} chunks
+   * are rendered ahead of the writer; the oldest one is written before more are submitted.
+   */
+  public void renderAllParallel(List<RenderedIssue> issues, Writer writer, ExecutorService executor)
+      throws IOException {
+    Deque<CompletableFuture<String>> pending = new ArrayDeque<>();
+    for (int start = 0; start < issues.size(); start += ISSUES_PER_CHUNK) {
+      if (pending.size() >= MAX_PENDING_CHUNKS) {
+        writer.write(pending.removeFirst().join());
+      }
+      List<RenderedIssue> chunk =
+          issues.subList(start, Math.min(start + ISSUES_PER_CHUNK, issues.size()));
+      pending.addLast(CompletableFuture.supplyAsync(() -> renderChunk(chunk), executor));
+    }
+    while (!pending.isEmpty()) {
+      writer.write(pending.removeFirst().join());
+    }
+    writer.flush();
+  }
+
+  // Renders the chunk into the buffer of the current thread, and clears it for the next chunk.
+  private String renderChunk(List<RenderedIssue> chunk) {
+    StringBuilder buffer = CHUNK_BUFFER.get();
+    try {
+      for (RenderedIssue issue : chunk) {
+        render(issue, buffer);
+      }
+      return buffer.toString();
+    } finally {
+      buffer.setLength(0);
+    }
+  }
+
+  /** Appends a single issue to the buffer. */
+  public void render(RenderedIssue issue, StringBuilder out) {
+    if (format == Format.HTML) {
+      renderHtml(issue, out);
+    } else {
+      renderText(issue, out);
+    }
+  }
+
+  private void renderText(RenderedIssue issue, StringBuilder out) {
+    // Communicate the severity with a color: ERROR(RED), WARNING(ORANGE), INFO(BLUE)
+    out.append("| ");
+    if (format == Format.ANSI) {
+      out.append(ansiColor(issue.getImpact().getSeverity()))
+          .append(issue.getTitle())
+          .append(ANSI_RESET);
+    } else {
+      out.append(issue.getTitle());
+    }
+    out.append('\n');
+
+    if (!issue.getImpact().getMessageBytes().isEmpty()) {
+      out.append("| ").append(issue.getImpact().getMessage()).append('\n');
+      if (issue.getImpact().getBreakdownsCount() > 0) {
+        out.append("| breakdown:\n");
+        for (Breakdown breakdown : issue.getImpact().getBreakdownsList()) {
+          // Names of all the countries with the same impact, separated by commas.
+          out.append("|     | ");
+          for (int i = 0; i < breakdown.getRegionsCount(); i++) {
+            if (i > 0) {
+              out.append(", ");
+            }
+            out.append(breakdown.getRegions(i).getName());
+          }
+          out.append('\n');
+          for (String detail : breakdown.getDetailsList()) {
+            out.append("|     | - ").append(detail).append('\n');
+          }
+        }
+      }
+    }
+
+    out.append("| \n| details(HTML): \n| ").append(issue.getPrerenderedContent()).append('\n');
+
+    if (issue.hasPrerenderedOutOfCourtDisputeSettlement()) {
+      out.append("| \n| out-of-court dispute settlement(HTML): \n| ")
+          .append(issue.getPrerenderedOutOfCourtDisputeSettlement())
+          .append('\n');
+    }
+
+    if (hasAvailableAction(issue)) {
+      out.append("| \n| available actions: \n");
+      for (Action action : issue.getActionsList()) {
+        out.append("| ").append(action.getButtonLabel());
+        if (action.hasExternalAction() && !action.getExternalAction().getUri().isEmpty()) {
+          out.append(" (redirect: ").append(action.getExternalAction().getUri()).append(')');
+        } else if (action.hasBuiltinSimpleAction()) {
+          out.append(" (simple Built-In functionality)");
+        } else if (action.hasBuiltinUserInputAction()) {
+          out.append(
+              " (complex action, requires a dialog with user input form, offers different flows: ");
+          appendFlowLabels(action, out);
+          out.append(')');
+        }
+        out.append('\n');
+      }
+    }
+    out.append('\n');
+  }
+
+  private void renderHtml(RenderedIssue issue, StringBuilder out) {
+    out.append("<div class=\"issue ")
+        .append(issue.getImpact().getSeverity().name().toLowerCase(Locale.ROOT))
+        .append("\">\n<h3>");
+    appendEscaped(issue.getTitle(), out);
+    out.append("</h3>\n");
+
+    if (!issue.getImpact().getMessageBytes().isEmpty()) {
+      out.append("<p>");
+      appendEscaped(issue.getImpact().getMessage(), out);
+      out.append("</p>\n");
+      for (Breakdown breakdown : issue.getImpact().getBreakdownsList()) {
+        out.append("<p>");
+        for (int i = 0; i < breakdown.getRegionsCount(); i++) {
+          if (i > 0) {
+            out.append(", ");
+          }
+          appendEscaped(breakdown.getRegions(i).getName(), out);
+        }
+        out.append("</p>\n<ul>\n");
+        for (String detail : breakdown.getDetailsList()) {
+          out.append("<li>");
+          appendEscaped(detail, out);
+          out.append("</li>\n");
+        }
+        out.append("</ul>\n");
+      }
+    }
+
+    // The content is already rendered as HTML by the API.
+    out.append(issue.getPrerenderedContent()).append('\n');
+    if (issue.hasPrerenderedOutOfCourtDisputeSettlement()) {
+      out.append(issue.getPrerenderedOutOfCourtDisputeSettlement()).append('\n');
+    }
+
+    if (hasAvailableAction(issue)) {
+      out.append("<ul class=\"actions\">\n");
+      for (Action action : issue.getActionsList()) {
+        out.append("<li>");
+        if (action.hasExternalAction() && !action.getExternalAction().getUri().isEmpty()) {
+          out.append("<a href=\"");
+          appendEscaped(action.getExternalAction().getUri(), out);
+          out.append("\">");
+          appendEscaped(action.getButtonLabel(), out);
+          out.append("</a>");
+        } else {
+          appendEscaped(action.getButtonLabel(), out);
+        }
+        out.append("</li>\n");
+      }
+      out.append("</ul>\n");
+    }
+    out.append("</div>\n");
+  }
+
+  private static boolean hasAvailableAction(RenderedIssue issue) {
+    for (Action action : issue.getActionsList()) {
+      if (action.getIsAvailable()) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  private static void appendFlowLabels(Action action, StringBuilder out) {
+    List<ActionFlow> flows = action.getBuiltinUserInputAction().getFlowsList();
+    for (int i = 0; i < flows.size(); i++) {
+      if (i > 0) {
+        out.append(", ");
+      }
+      out.append('\'').append(flows.get(i).getLabel()).append('\'');
+    }
+  }
+
+  private static String ansiColor(Severity severity) {
+    if (Severity.ERROR.equals(severity)) {
+      return ANSI_RED_BOLD;
+    } else if (Severity.WARNING.equals(severity)) {
+      return ANSI_ORANGE_BOLD;
+    }
+    return ANSI_BLUE_BOLD;
+  }
+
+  // Appends the text with the HTML special characters escaped, one character at a time.
+  private static void appendEscaped(String text, StringBuilder out) {
+    for (int i = 0; i < text.length(); i++) {
+      char c = text.charAt(i);
+      switch (c) {
+        case '<':
+          out.append("&lt;");
+          break;
+        case '>':
+          out.append("&gt;");
+          break;
+        case '&':
+          out.append("&amp;");
+          break;
+        case '"':
+          out.append("&quot;");
+          break;
+        case '\'':
+          out.append("&#39;");
+          break;
+        default:
+          out.append(c);
+      }
+    }
+  }
+}
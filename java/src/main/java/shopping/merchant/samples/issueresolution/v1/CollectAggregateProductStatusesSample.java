@@ -0,0 +1,197 @@
+// Copyright 2026 Google LLC
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     https://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package shopping.merchant.samples.issueresolution.v1;
+// [START merchantapi_collect_aggregate_product_statuses]
+import com.google.api.gax.core.FixedCredentialsProvider;
+import com.google.auth.oauth2.GoogleCredentials;
+import com.google.shopping.merchant.accounts.v1.Account;
+import com.google.shopping.merchant.accounts.v1.AccountsServiceClient;
+import com.google.shopping.merchant.accounts.v1.AccountsServiceSettings;
+import com.google.shopping.merchant.accounts.v1.ListSubAccountsRequest;
+import com.google.shopping.merchant.issueresolution.v1.AggregateProductStatus;
+import com.google.shopping.merchant.issueresolution.v1.AggregateProductStatusesServiceClient;
+import com.google.shopping.merchant.issueresolution.v1.AggregateProductStatusesServiceSettings;
+import com.google.shopping.merchant.issueresolution.v1.ListAggregateProductStatusesRequest;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import shopping.merchant.samples.issueresolution.v1.AggregateStatusHistory.Change;
+import shopping.merchant.samples.utils.Authenticator;
+import shopping.merchant.samples.utils.Config;
+
+/**
+ * This class demonstrates how to periodically collect the aggregate product statuses of all the
+ * sub-accounts of an advanced account into an {@link AggregateStatusHistory}, and how to report
+ * the statuses that changed in the last 24 hours, e.g. to alert on products being disapproved.
+ *
+ * <p>All the statuses of an account are listed with a single request and filtered by country
+ * locally, instead of sending one request per country. The accounts are listed concurrently.
+ */
+public class CollectAggregateProductStatusesSample {
+
+  // Maximum number of listAggregateProductStatuses requests in flight at the same time.
+  private static final int MAX_CONCURRENT_REQUESTS = 10;
+  private static final long SNAPSHOT_INTERVAL_MINUTES = 60;
+  private static final long ONE_DAY_MILLIS = TimeUnit.DAYS.toMillis(1);
+
+  private static List<String> listSubAccounts(GoogleCredentials credential, String parent)
+      throws IOException {
+    AccountsServiceSettings accountsServiceSettings =
+        AccountsServiceSettings.newBuilder()
+            .setCredentialsProvider(FixedCredentialsProvider.create(credential))
+            .build();
+    List<String> accounts = new ArrayList<>();
+    try (AccountsServiceClient accountsServiceClient =
+        AccountsServiceClient.create(accountsServiceSettings)) {
+      ListSubAccountsRequest request =
+          ListSubAccountsRequest.newBuilder().setProvider(parent).build();
+      for (Account account : accountsServiceClient.listSubAccounts(request).iterateAll()) {
+        accounts.add(account.getName());
+      }
+    }
+    return accounts;
+  }
+
+  /** Lists the statuses of all the accounts concurrently, and appends them to the history. */
+  private static void collectSnapshot(
+      AggregateProductStatusesServiceClient client,
+      ExecutorService executor,
+      AggregateStatusHistory history,
+      List<String> accounts,
+      List<String> countries)
+      throws IOException {
+    // All the statuses of a snapshot share the same time.
+    long timeMillis = System.currentTimeMillis();
+
+    List<CompletableFuture<List<AggregateProductStatus>>> futures = new ArrayList<>();
+    for (String account : accounts) {
+      ListAggregateProductStatusesRequest request =
+          ListAggregateProductStatusesRequest.newBuilder().setParent(account).build();
+      futures.add(
+          CompletableFuture.supplyAsync(
+              () -> {
+                List<AggregateProductStatus> statuses = new ArrayList<>();
+                for (AggregateProductStatus status :
+                    client.listAggregateProductStatuses(request).iterateAll()) {
+                  if (countries.contains(status.getCountry())) {
+                    statuses.add(status);
+                  }
+                }
+                return statuses;
+              },
+              executor));
+    }
+
+    int failed = 0;
+    for (int i = 0; i < accounts.size(); i++) {
+      try {
+        history.append(accounts.get(i), timeMillis, futures.get(i).join());
+      } catch (Exception e) {
+        // A failed account is missing from this snapshot, and is compared at the next one.
+        failed++;
+        System.out.println("Failed to collect " + accounts.get(i) + ": " + e.getCause());
+      }
+    }
+    System.out.printf(
+        "Collected %d accounts (%d failed), %d records stored%n",
+        accounts.size() - failed, failed, history.getRecordCount());
+  }
+
+  private static void printChangesSinceYesterday(AggregateStatusHistory history)
+      throws IOException {
+    long start = System.nanoTime();
+    List<Change> changes = history.changesSince(System.currentTimeMillis() - ONE_DAY_MILLIS);
+    long elapsedMicros = TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - start);
+    System.out.printf(
+        "%d series changed in the last 24 hours (%d us):%n", changes.size(), elapsedMicros);
+    for (Change change : changes) {
+      // Flags the series that lost approved products or gained disapproved ones.
+      boolean alert = change.getDisapprovedDelta() > 0 || change.getActiveDelta() < 0;
+      System.out.println((alert ? "  [ALERT] " : "  ") + change);
+    }
+  }
+
+  public static void collectAggregateProductStatuses(
+      Config config, Path historyDirectory, List<String> countries) throws Exception {
+
+    // Obtains OAuth token based on the user's configuration.
+    GoogleCredentials credential = new Authenticator().authenticate();
+
+    // Creates service settings using the credentials retrieved above.
+    AggregateProductStatusesServiceSettings aggregateProductStatusesServiceSettings =
+        AggregateProductStatusesServiceSettings.newBuilder()
+            .setCredentialsProvider(FixedCredentialsProvider.create(credential))
+            .build();
+
+    ExecutorService executor = Executors.newFixedThreadPool(MAX_CONCURRENT_REQUESTS);
+    ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor();
+
+    // Calls the API and catches and prints any network failures/errors.
+    try (AggregateProductStatusesServiceClient aggregateProductStatusesServiceClient =
+            AggregateProductStatusesServiceClient.create(aggregateProductStatusesServiceSettings);
+        AggregateStatusHistory history = AggregateStatusHistory.open(historyDirectory)) {
+
+      List<String> accounts =
+          listSubAccounts(credential, "accounts/" + config.getAccountId().toString());
+      System.out.printf("Collecting statuses of %d sub-accounts%n", accounts.size());
+
+      // Takes a snapshot now and then at a fixed rate, until the process is stopped.
+      scheduler
+          .scheduleAtFixedRate(
+              () -> {
+                try {
+                  collectSnapshot(
+                      aggregateProductStatusesServiceClient,
+                      executor,
+                      history,
+                      accounts,
+                      countries);
+                  printChangesSinceYesterday(history);
+                } catch (Exception e) {
+                  System.out.println("An error has occured: ");
+                  System.out.println(e);
+                }
+              },
+              0,
+              SNAPSHOT_INTERVAL_MINUTES,
+              TimeUnit.MINUTES)
+          .get();
+    } catch (Exception e) {
+      System.out.println("An error has occured: ");
+      System.out.println(e);
+    } finally {
+      scheduler.shutdown();
+      executor.shutdown();
+    }
+  }
+
+  public static void main(String[] args) throws Exception {
+    Config config = Config.load();
+    // The directory storing the collected statistics.
+    Path historyDirectory = Paths.get("aggregate_product_statuses");
+    List<String> countries = Arrays.asList("US", "GB", "DE", "CH");
+
+    collectAggregateProductStatuses(config, historyDirectory, countries);
+  }
+}
+// [END merchantapi_collect_aggregate_product_statuses]
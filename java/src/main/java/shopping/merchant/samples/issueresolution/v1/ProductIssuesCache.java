@@ -0,0 +1,190 @@
+// Copyright 2026 Google LLC
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     https://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package shopping.merchant.samples.issueresolution.v1;
+
+import com.google.shopping.merchant.issueresolution.v1.IssueResolutionServiceClient;
+import com.google.shopping.merchant.issueresolution.v1.RenderIssuesRequestPayload;
+import com.google.shopping.merchant.issueresolution.v1.RenderProductIssuesRequest;
+import com.google.shopping.merchant.issueresolution.v1.RenderedIssue;
+import com.google.shopping.merchant.issueresolution.v1.UserInputActionRenderingOption;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Renders product issues concurrently over one shared {@link IssueResolutionServiceClient}, and
+ * caches the rendered issues for a limited time.
+ *
+ * <p>Results are cached per product, language, time zone and user input action option. The cache
+ * stores the pending call as soon as it starts, so concurrent requests for the same key share a
+ * single {@code renderProductIssues} call instead of sending one each. Failed calls are not
+ * cached. The executor bounds the number of calls in flight.
+ */
+public class ProductIssuesCache {
+
+  /** The parameters that identify a rendering of the issues of a product. */
+  private static final class Key {
+    private final String product;
+    private final String languageCode;
+    private final String timeZone;
+    private final UserInputActionRenderingOption userInputActionOption;
+
+    Key(
+        String product,
+        String languageCode,
+        String timeZone,
+        UserInputActionRenderingOption userInputActionOption) {
+      this.product = product;
+      this.languageCode = languageCode;
+      this.timeZone = timeZone;
+      this.userInputActionOption = userInputActionOption;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      if (this == o) {
+        return true;
+      }
+      if (!(o instanceof Key)) {
+        return false;
+      }
+      Key other = (Key) o;
+      return product.equals(other.product)
+          && languageCode.equals(other.languageCode)
+          && timeZone.equals(other.timeZone)
+          && userInputActionOption == other.userInputActionOption;
+    }
+
+    @Override
+    public int hashCode() {
+      return Objects.hash(product, languageCode, timeZone, userInputActionOption);
+    }
+  }
+
+  /** A pending or completed call, and the time after which it must be rendered again. */
+  private static final class Entry {
+    private final CompletableFuture<List<RenderedIssue>> issues;
+    private final long expiresAtNanos;
+
+    Entry(CompletableFuture<List<RenderedIssue>> issues, long expiresAtNanos) {
+      this.issues = issues;
+      this.expiresAtNanos = expiresAtNanos;
+    }
+  }
+
+  private final IssueResolutionServiceClient client;
+  private final ExecutorService executor;
+  private final long ttlNanos;
+  private final ConcurrentHashMap<Key, Entry> cache = new ConcurrentHashMap<>();
+  private final AtomicLong hits = new AtomicLong();
+  private final AtomicLong calls = new AtomicLong();
+
+  public ProductIssuesCache(
+      IssueResolutionServiceClient client, ExecutorService executor, long ttl, TimeUnit unit) {
+    this.client = client;
+    this.executor = executor;
+    this.ttlNanos = unit.toNanos(ttl);
+  }
+
+  /**
+   * Returns the rendered issues of the product, either from the cache or from a new call.
+   *
+   * @param product the product name, in the format {@code accounts/{account}/products/{product}}.
+   */
+  public CompletableFuture<List<RenderedIssue>> render(
+      String product,
+      String languageCode,
+      String timeZone,
+      UserInputActionRenderingOption userInputActionOption) {
+    Key key = new Key(product, languageCode, timeZone, userInputActionOption);
+    long now = System.nanoTime();
+    CompletableFuture<List<RenderedIssue>> created = new CompletableFuture<>();
+    Entry entry =
+        cache.compute(
+            key,
+            (k, existing) -> {
+              if (existing != null && existing.expiresAtNanos - now > 0) {
+                return existing;
+              }
+              return new Entry(created, now + ttlNanos);
+            });
+    if (entry.issues != created) {
+      hits.incrementAndGet();
+      return entry.issues;
+    }
+    // The call is started outside of compute(), which must not block or modify the map.
+    startCall(key, created);
+    return created;
+  }
+
+  /** Removes the expired entries, e.g. periodically in long running processes. */
+  public void evictExpired() {
+    long now = System.nanoTime();
+    cache.values().removeIf(entry -> entry.expiresAtNanos - now <= 0);
+  }
+
+  /** Returns the number of requests answered from the cache or by joining a pending call. */
+  public long getHits() {
+    return hits.get();
+  }
+
+  /** Returns the number of {@code renderProductIssues} calls sent. */
+  public long getCalls() {
+    return calls.get();
+  }
+
+  private void startCall(Key key, CompletableFuture<List<RenderedIssue>> result) {
+    calls.incrementAndGet();
+    RenderProductIssuesRequest request =
+        RenderProductIssuesRequest.newBuilder()
+            .setName(key.product)
+            .setLanguageCode(key.languageCode)
+            .setTimeZone(key.timeZone)
+            .setPayload(
+                RenderIssuesRequestPayload.newBuilder()
+                    .setUserInputActionOption(key.userInputActionOption)
+                    .build())
+            .build();
+    CompletableFuture<List<RenderedIssue>> call;
+    try {
+      call =
+          CompletableFuture.supplyAsync(
+              () -> client.renderProductIssues(request).getRenderedIssuesList(), executor);
+    } catch (RejectedExecutionException e) {
+      // E.g. the executor was shut down. Otherwise the entry would never complete.
+      fail(key, result, e);
+      return;
+    }
+    call.whenComplete(
+        (issues, throwable) -> {
+          if (throwable != null) {
+            fail(key, result, throwable);
+          } else {
+            result.complete(issues);
+          }
+        });
+  }
+
+  // Failures are dropped from the cache, so the next request tries again.
+  private void fail(Key key, CompletableFuture<List<RenderedIssue>> result, Throwable throwable) {
+    cache.computeIfPresent(key, (k, entry) -> entry.issues == result ? null : entry);
+    result.completeExceptionally(throwable);
+  }
+}
@@ -0,0 +1,115 @@
+// Copyright 2026 Google LLC
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     https://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package shopping.merchant.samples.notifications.v1;
+
+// [START merchantapi_cache_product_statuses]
+import com.google.api.gax.core.FixedCredentialsProvider;
+import com.google.auth.oauth2.GoogleCredentials;
+import com.google.shopping.merchant.notifications.v1.ProductStatusChangeMessage;
+import com.google.shopping.merchant.products.v1.ProductsServiceClient;
+import com.google.shopping.merchant.products.v1.ProductsServiceSettings;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import shopping.merchant.samples.utils.Authenticator;
+import shopping.merchant.samples.utils.Config;
+
+/**
+ * This class demonstrates how to keep a local cache of the status of all products up to date with
+ * {@code PRODUCT_STATUS_CHANGE} notifications, instead of listing all products again to find the
+ * ones that changed.
+ *
+ * <p>The notifications are received with a {@link NotificationReceiver}, so the account needs a
+ * notification subscription whose {@code callBackUri} forwards to it, see {@link
+ * CreateNotificationSubscriptionSample}.
+ */
+public class CacheProductStatusesSample {
+
+  private static final int PORT = 8080;
+  private static final String PATH = "/notifications";
+  // Maximum number of getProduct requests in flight at the same time.
+  private static final int MAX_CONCURRENT_REQUESTS = 10;
+  // How long to wait for more notifications about a product before fetching it.
+  private static final long COALESCE_DELAY_MILLIS = 2000;
+
+  public static void cacheProductStatuses(Config config) throws Exception {
+
+    // Obtains OAuth token based on the user's configuration.
+    GoogleCredentials credential = new Authenticator().authenticate();
+
+    // Creates service settings using the credentials retrieved above.
+    ProductsServiceSettings productsServiceSettings =
+        ProductsServiceSettings.newBuilder()
+            .setCredentialsProvider(FixedCredentialsProvider.create(credential))
+            .build();
+
+    String account = "accounts/" + config.getAccountId().toString();
+    ScheduledExecutorService executor =
+        Executors.newScheduledThreadPool(MAX_CONCURRENT_REQUESTS);
+
+    // Calls the API and catches and prints any network failures/errors.
+    try (ProductsServiceClient productsServiceClient =
+            ProductsServiceClient.create(productsServiceSettings);
+        NotificationReceiver receiver =
+            new NotificationReceiver(PORT, PATH, 100_000, 1_000_000)) {
+
+      ProductStatusCache cache =
+          new ProductStatusCache(
+              productsServiceClient, executor, COALESCE_DELAY_MILLIS, TimeUnit.MILLISECONDS);
+
+      // Starts receiving before seeding, so that no change is missed in between.
+      receiver.start();
+      Thread consumer =
+          new Thread(
+              () -> {
+                try {
+                  while (!Thread.currentThread().isInterrupted()) {
+                    ProductStatusChangeMessage message = receiver.poll(1, TimeUnit.SECONDS);
+                    if (message != null) {
+                      cache.onNotification(message);
+                    }
+                  }
+                } catch (InterruptedException e) {
+                  Thread.currentThread().interrupt();
+                }
+              });
+      consumer.setDaemon(true);
+      consumer.start();
+
+      System.out.println("Seeding the cache with all the products of " + account);
+      cache.seed(account);
+      System.out.printf("Cached the status of %d products%n", cache.size());
+
+      // Reports the work done for the notifications, until the process is stopped.
+      while (true) {
+        TimeUnit.MINUTES.sleep(1);
+        System.out.printf(
+            "%d products cached, %d notifications handled with %d getProduct requests%n",
+            cache.size(), cache.getNotifications(), cache.getFetches());
+      }
+    } catch (Exception e) {
+      System.out.println("An error has occured: ");
+      System.out.println(e);
+    } finally {
+      executor.shutdownNow();
+    }
+  }
+
+  public static void main(String[] args) throws Exception {
+    Config config = Config.load();
+    cacheProductStatuses(config);
+  }
+}
+// [END merchantapi_cache_product_statuses]
@@ -0,0 +1,251 @@
+// Copyright 2026 Google LLC
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     https://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package shopping.merchant.samples.notifications.v1;
+
+import com.google.protobuf.InvalidProtocolBufferException;
+import com.google.protobuf.Struct;
+import com.google.protobuf.Value;
+import com.google.protobuf.util.JsonFormat;
+import com.google.shopping.merchant.notifications.v1.ProductStatusChangeMessage;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * An embedded HTTP server receiving the notifications pushed to the {@code callBackUri} of a
+ * notification subscription.
+ *
+ * <p>The server is the {@code com.sun.net.httpserver} server of the JDK, which accepts connections
+ * and reads requests with non-blocking I/O and runs the handler on a small thread pool. The handler
+ * only parses the notification, drops the ones already received, and puts the new ones in a
+ * bounded queue, so callbacks are acknowledged within microseconds. The notifications are
+ * processed by consumers taking them from the queue with {@link #poll}.
+ *
+ * <p>If the queue is full, the callback is answered with {@code 503 Service Unavailable}, so the
+ * notification is sent again later instead of being lost.
+ */
+public class NotificationReceiver implements AutoCloseable {
+
+  // Notifications are small, so larger requests are rejected.
+  private static final int MAX_BODY_BYTES = 64 * 1024;
+  private static final int HANDLER_THREADS = 4;
+
+  /** The most recently received events, evicting the oldest ones beyond the capacity. */
+  private static final class RecentEvents {
+    private final Map<String, Boolean> events;
+
+    RecentEvents(int capacity) {
+      this.events =
+          new LinkedHashMap<String, Boolean>() {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Boolean> eldest) {
+              return size() > capacity;
+            }
+          };
+    }
+
+    /** Returns false if the event was already received. */
+    synchronized boolean add(String event) {
+      return events.put(event, Boolean.TRUE) == null;
+    }
+
+    synchronized void remove(String event) {
+      events.remove(event);
+    }
+  }
+
+  private final HttpServer server;
+  private final ExecutorService handlerExecutor;
+  private final BlockingQueue<ProductStatusChangeMessage> queue;
+  private final RecentEvents recentEvents;
+  private final JsonFormat.Parser parser = JsonFormat.parser().ignoringUnknownFields();
+
+  private final AtomicLong accepted = new AtomicLong();
+  private final AtomicLong duplicates = new AtomicLong();
+  private final AtomicLong rejected = new AtomicLong();
+  private final AtomicLong malformed = new AtomicLong();
+
+  /**
+   * Creates a receiver listening on the port, at the given path.
+   *
+   * @param port the port to listen on, or 0 to pick a free port.
+   * @param path the path of the callback URI, e.g. {@code /notifications}.
+   * @param queueCapacity the maximum number of notifications waiting to be processed.
+   * @param dedupCapacity the number of recent events remembered to drop duplicates.
+   */
+  public NotificationReceiver(int port, String path, int queueCapacity, int dedupCapacity)
+      throws IOException {
+    this.queue = new ArrayBlockingQueue<>(queueCapacity);
+    this.recentEvents = new RecentEvents(dedupCapacity);
+    this.server = HttpServer.create(new InetSocketAddress(port), 0);
+    this.handlerExecutor = Executors.newFixedThreadPool(HANDLER_THREADS);
+    server.createContext(path, this::handle);
+    server.setExecutor(handlerExecutor);
+  }
+
+  public void start() {
+    server.start();
+  }
+
+  /** Returns the port the receiver listens on. */
+  public int getPort() {
+    return server.getAddress().getPort();
+  }
+
+  /**
+   * Returns the next notification, waiting up to the timeout, or null if there is none.
+   * Notifications are returned at most once, in the order they were received.
+   */
+  public ProductStatusChangeMessage poll(long timeout, TimeUnit unit) throws InterruptedException {
+    return queue.poll(timeout, unit);
+  }
+
+  /** Returns the number of notifications waiting to be processed. */
+  public int getQueueSize() {
+    return queue.size();
+  }
+
+  public long getAccepted() {
+    return accepted.get();
+  }
+
+  public long getDuplicates() {
+    return duplicates.get();
+  }
+
+  public long getRejected() {
+    return rejected.get();
+  }
+
+  public long getMalformed() {
+    return malformed.get();
+  }
+
+  /** Stops accepting notifications. The queued ones can still be polled. */
+  @Override
+  public void close() {
+    server.stop(0);
+    handlerExecutor.shutdown();
+  }
+
+  private void handle(HttpExchange exchange) throws IOException {
+    try {
+      if (!"POST".equals(exchange.getRequestMethod())) {
+        respond(exchange, 405);
+        return;
+      }
+      byte[] body = readBody(exchange.getRequestBody());
+      if (body == null) {
+        malformed.incrementAndGet();
+        respond(exchange, 413);
+        return;
+      }
+
+      ProductStatusChangeMessage message;
+      try {
+        message = parse(body);
+      } catch (IllegalArgumentException | InvalidProtocolBufferException e) {
+        malformed.incrementAndGet();
+        respond(exchange, 400);
+        return;
+      }
+
+      String event = eventKey(message);
+      if (!recentEvents.add(event)) {
+        // Already received, e.g. a retry after a slow acknowledgment.
+        duplicates.incrementAndGet();
+        respond(exchange, 200);
+        return;
+      }
+      if (!queue.offer(message)) {
+        // Forgets the event, so that it is accepted when it is sent again.
+        recentEvents.remove(event);
+        rejected.incrementAndGet();
+        respond(exchange, 503);
+        return;
+      }
+      accepted.incrementAndGet();
+      respond(exchange, 200);
+    } finally {
+      exchange.close();
+    }
+  }
+
+  /**
+   * Parses a notification. The body is either a JSON object whose {@code message} field holds the
+   * base64 encoded JSON of the notification, or the JSON of the notification itself.
+   */
+  ProductStatusChangeMessage parse(byte[] body) throws InvalidProtocolBufferException {
+    String json = new String(body, StandardCharsets.UTF_8);
+    Struct.Builder envelope = Struct.newBuilder();
+    parser.merge(json, envelope);
+    Value encoded = envelope.getFieldsMap().get("message");
+    if (encoded != null && encoded.getKindCase() == Value.KindCase.STRING_VALUE) {
+      byte[] decoded = Base64.getDecoder().decode(encoded.getStringValue());
+      json = new String(decoded, StandardCharsets.UTF_8);
+    }
+    ProductStatusChangeMessage.Builder message = ProductStatusChangeMessage.newBuilder();
+    parser.merge(json, message);
+    return message.build();
+  }
+
+  // The same change of the same product is sent with the same event time.
+  private static String eventKey(ProductStatusChangeMessage message) {
+    return message.getResource()
+        + '@'
+        + message.getEventTime().getSeconds()
+        + '.'
+        + message.getEventTime().getNanos()
+        + '/'
+        + message.getAttribute().getNumber();
+  }
+
+  // Returns null if the body is larger than MAX_BODY_BYTES.
+  private static byte[] readBody(InputStream in) throws IOException {
+    byte[] buffer = new byte[4096];
+    int length = 0;
+    int read;
+    while ((read = in.read(buffer, length, buffer.length - length)) != -1) {
+      length += read;
+      if (length > MAX_BODY_BYTES) {
+        return null;
+      }
+      if (length == buffer.length) {
+        // Room for one byte more than the limit, to tell a body of exactly MAX_BODY_BYTES from a
+        // larger one.
+        buffer = Arrays.copyOf(buffer, Math.min(buffer.length * 2, MAX_BODY_BYTES + 1));
+      }
+    }
+    return Arrays.copyOf(buffer, length);
+  }
+
+  private static void respond(HttpExchange exchange, int status) throws IOException {
+    // No response body, so the connection can be reused right away.
+    exchange.sendResponseHeaders(status, -1);
+  }
+}
@@ -0,0 +1,174 @@
+// Copyright 2026 Google LLC
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     https://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package shopping.merchant.samples.notifications.v1;
+
+import com.google.protobuf.Timestamp;
+import com.google.protobuf.util.JsonFormat;
+import com.google.shopping.merchant.notifications.v1.Attribute;
+import com.google.shopping.merchant.notifications.v1.ProductChange;
+import com.google.shopping.merchant.notifications.v1.ProductStatusChangeMessage;
+import com.google.shopping.merchant.notifications.v1.Resource;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Sends bursts of synthetic notifications to a local {@link NotificationReceiver}, to test how it
+ * behaves under load without a real subscription. A share of the notifications is sent twice, as
+ * happens when the acknowledgment of a callback is lost.
+ *
+ * <p>Run with e.g. {@code mvn exec:java
+ * -Dexec.mainClass="shopping.merchant.samples.notifications.v1.NotificationReceiverLoadGenerator"}.
+ */
+public class NotificationReceiverLoadGenerator {
+
+  private static final int SENDER_THREADS = 32;
+  private static final int NOTIFICATIONS = 100_000;
+  // Every DUPLICATE_EVERY-th notification is sent a second time.
+  private static final int DUPLICATE_EVERY = 10;
+  private static final int QUEUE_CAPACITY = 10_000;
+  private static final int DEDUP_CAPACITY = 1_000_000;
+
+  // The body of a callback, with the notification encoded the same way as real callbacks.
+  private static byte[] notificationBody(int index) throws IOException {
+    ProductStatusChangeMessage message =
+        ProductStatusChangeMessage.newBuilder()
+            .setAccount("accounts/123")
+            .setResourceType(Resource.PRODUCT)
+            .setAttribute(Attribute.STATUS)
+            .setResourceId("en~US~sku" + index)
+            .setResource("accounts/123/products/en~US~sku" + index)
+            .setEventTime(Timestamp.newBuilder().setSeconds(1_700_000_000L + index))
+            .addChanges(
+                ProductChange.newBuilder()
+                    .setOldValue("approved")
+                    .setNewValue("disapproved")
+                    .setRegionCode("US"))
+            .build();
+    String json = JsonFormat.printer().omittingInsignificantWhitespace().print(message);
+    String encoded = Base64.getEncoder().encodeToString(json.getBytes(StandardCharsets.UTF_8));
+    return ("{\"message\":\"" + encoded + "\"}").getBytes(StandardCharsets.UTF_8);
+  }
+
+  // Posts the body, retrying while the receiver is overloaded, and returns the attempts needed.
+  private static int post(URL url, byte[] body) throws IOException, InterruptedException {
+    for (int attempt = 1; ; attempt++) {
+      HttpURLConnection connection = (HttpURLConnection) url.openConnection();
+      connection.setRequestMethod("POST");
+      connection.setDoOutput(true);
+      connection.setRequestProperty("Content-Type", "application/json");
+      connection.setFixedLengthStreamingMode(body.length);
+      try (OutputStream out = connection.getOutputStream()) {
+        out.write(body);
+      }
+      int status = connection.getResponseCode();
+      // Reads the (empty) response fully, so the connection is kept alive and reused.
+      try (InputStream in =
+          status < 400 ? connection.getInputStream() : connection.getErrorStream()) {
+        while (in != null && in.read() != -1) {}
+      }
+      if (status != 503) {
+        return attempt;
+      }
+      Thread.sleep(Math.min(100, attempt * 5));
+    }
+  }
+
+  public static void main(String[] args) throws Exception {
+    List<byte[]> bodies = new ArrayList<>(NOTIFICATIONS);
+    for (int i = 0; i < NOTIFICATIONS; i++) {
+      bodies.add(notificationBody(i));
+    }
+
+    try (NotificationReceiver receiver =
+        new NotificationReceiver(0, "/notifications", QUEUE_CAPACITY, DEDUP_CAPACITY)) {
+      receiver.start();
+      URL url = new URL("http://127.0.0.1:" + receiver.getPort() + "/notifications");
+
+      // A consumer standing in for the downstream processing.
+      AtomicLong consumed = new AtomicLong();
+      Thread consumer =
+          new Thread(
+              () -> {
+                try {
+                  while (!Thread.currentThread().isInterrupted()) {
+                    if (receiver.poll(100, TimeUnit.MILLISECONDS) != null) {
+                      consumed.incrementAndGet();
+                    }
+                  }
+                } catch (InterruptedException e) {
+                  Thread.currentThread().interrupt();
+                }
+              });
+      consumer.start();
+
+      ExecutorService senders = Executors.newFixedThreadPool(SENDER_THREADS);
+      AtomicLong retries = new AtomicLong();
+      long start = System.nanoTime();
+      List<Future<?>> futures = new ArrayList<>();
+      for (int i = 0; i < NOTIFICATIONS; i++) {
+        byte[] body = bodies.get(i);
+        boolean duplicate = i % DUPLICATE_EVERY == 0;
+        futures.add(
+            senders.submit(
+                () -> {
+                  retries.addAndGet(post(url, body) - 1);
+                  if (duplicate) {
+                    retries.addAndGet(post(url, body) - 1);
+                  }
+                  return null;
+                }));
+      }
+      for (Future<?> future : futures) {
+        future.get();
+      }
+      long elapsedNanos = System.nanoTime() - start;
+      senders.shutdown();
+
+      // Waits for the consumer to drain the queue.
+      while (receiver.getQueueSize() > 0) {
+        Thread.sleep(10);
+      }
+      consumer.interrupt();
+      consumer.join();
+
+      long sent = NOTIFICATIONS + NOTIFICATIONS / DUPLICATE_EVERY;
+      System.out.printf(
+          "Sent %d callbacks in %d ms (%.0f callbacks/s)%n",
+          sent,
+          TimeUnit.NANOSECONDS.toMillis(elapsedNanos),
+          sent * 1e9 / elapsedNanos);
+      System.out.printf(
+          "Accepted %d, duplicates %d, rejected while full %d (retried %d), malformed %d%n",
+          receiver.getAccepted(),
+          receiver.getDuplicates(),
+          receiver.getRejected(),
+          retries.get(),
+          receiver.getMalformed());
+      System.out.printf("Consumed %d notifications%n", consumed.get());
+    }
+  }
+}
@@ -0,0 +1,191 @@
+// Copyright 2026 Google LLC
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     https://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package shopping.merchant.samples.notifications.v1;
+
+import com.google.api.gax.rpc.NotFoundException;
+import com.google.shopping.merchant.notifications.v1.ProductStatusChangeMessage;
+import com.google.shopping.merchant.notifications.v1.Resource;
+import com.google.shopping.merchant.products.v1.GetProductRequest;
+import com.google.shopping.merchant.products.v1.ListProductsRequest;
+import com.google.shopping.merchant.products.v1.Product;
+import com.google.shopping.merchant.products.v1.ProductStatus;
+import com.google.shopping.merchant.products.v1.ProductsServiceClient;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A local cache of the {@link ProductStatus} of every product of an account, kept up to date with
+ * {@code PRODUCT_STATUS_CHANGE} notifications.
+ *
+ * <p>The cache is seeded once with {@code listProducts}. After that, each notification only
+ * refreshes the product it is about with {@code getProduct}, so the cost of keeping the cache up
+ * to date depends on the number of changes instead of the size of the catalog.
+ *
+ * <p>Notifications often arrive in bursts for the same product, e.g. one per country. The refresh
+ * of a product waits for a short delay and serves all the notifications received meanwhile.
+ * Notifications received while the product is being fetched cause one more fetch afterwards, since
+ * the running fetch may have read the product before the change. A failed fetch is retried with
+ * exponential backoff, up to {@code MAX_FETCH_ATTEMPTS} times, since the product may get no other
+ * notification that would refresh it.
+ */
+public class ProductStatusCache {
+
+  /** The refresh state of a product with pending notifications. */
+  private enum Refresh {
+    // Waiting for the delay. Further notifications need no additional fetch.
+    SCHEDULED,
+    // Being fetched, without notifications received since the fetch started.
+    RUNNING,
+    // Being fetched, with notifications received since the fetch started.
+    RUNNING_STALE
+  }
+
+  private static final int MAX_FETCH_ATTEMPTS = 5;
+  private static final long INITIAL_BACKOFF_MILLIS = 1_000;
+  private static final long MAX_BACKOFF_MILLIS = 60_000;
+
+  private final ProductsServiceClient client;
+  private final ScheduledExecutorService executor;
+  private final long delayMillis;
+  // Product name (accounts/{account}/products/{product}) -> latest known status.
+  private final Map<String, ProductStatus> statuses = new ConcurrentHashMap<>();
+  private final Map<String, Refresh> refreshes = new ConcurrentHashMap<>();
+  // Product name -> number of consecutive failed fetches.
+  private final Map<String, Integer> failedFetches = new ConcurrentHashMap<>();
+
+  private final AtomicLong notifications = new AtomicLong();
+  private final AtomicLong fetches = new AtomicLong();
+
+  /**
+   * Creates a cache refreshing the products on the executor, whose number of threads bounds the
+   * number of {@code getProduct} requests in flight.
+   *
+   * @param delay how long to wait for more notifications about a product before fetching it.
+   */
+  public ProductStatusCache(
+      ProductsServiceClient client, ScheduledExecutorService executor, long delay, TimeUnit unit) {
+    this.client = client;
+    this.executor = executor;
+    this.delayMillis = unit.toMillis(delay);
+  }
+
+  /**
+   * Loads the status of all the products of the account. Notifications can be handled before and
+   * while the cache is seeded, so none is missed.
+   *
+   * @param account the account name, in the format {@code accounts/{account}}.
+   */
+  public void seed(String account) {
+    ListProductsRequest request =
+        ListProductsRequest.newBuilder().setParent(account).setPageSize(1000).build();
+    for (Product product : client.listProducts(request).iterateAll()) {
+      // A product with a pending refresh will be fetched, and may even have been deleted since it
+      // was listed. A product refreshed meanwhile is more recent than the listed one.
+      if (!refreshes.containsKey(product.getName())) {
+        statuses.putIfAbsent(product.getName(), product.getProductStatus());
+      }
+    }
+  }
+
+  /** Schedules the refresh of the product the notification is about. */
+  public void onNotification(ProductStatusChangeMessage message) {
+    if (message.getResourceType() != Resource.PRODUCT || message.getResource().isEmpty()) {
+      return;
+    }
+    notifications.incrementAndGet();
+    String product = message.getResource();
+    while (true) {
+      if (refreshes.putIfAbsent(product, Refresh.SCHEDULED) == null) {
+        schedule(product);
+        return;
+      }
+      Refresh refresh = refreshes.get(product);
+      // A scheduled fetch has not read the product yet, and a stale one is fetched again anyway.
+      if (refresh == Refresh.SCHEDULED || refresh == Refresh.RUNNING_STALE) {
+        return;
+      }
+      if (refresh == Refresh.RUNNING
+          && refreshes.replace(product, Refresh.RUNNING, Refresh.RUNNING_STALE)) {
+        return;
+      }
+      // The fetch completed meanwhile, so tries again.
+    }
+  }
+
+  /** Returns the latest known status of the product, or null if the product is unknown. */
+  public ProductStatus getStatus(String product) {
+    return statuses.get(product);
+  }
+
+  public int size() {
+    return statuses.size();
+  }
+
+  /** Returns the number of product notifications handled. */
+  public long getNotifications() {
+    return notifications.get();
+  }
+
+  /** Returns the number of {@code getProduct} requests sent. */
+  public long getFetches() {
+    return fetches.get();
+  }
+
+  private void schedule(String product) {
+    schedule(product, delayMillis);
+  }
+
+  private void schedule(String product, long delay) {
+    executor.schedule(() -> fetch(product), delay, TimeUnit.MILLISECONDS);
+  }
+
+  // There is at most one fetch scheduled or running per product.
+  private void fetch(String product) {
+    refreshes.put(product, Refresh.RUNNING);
+    fetches.incrementAndGet();
+    try {
+      Product latest = client.getProduct(GetProductRequest.newBuilder().setName(product).build());
+      statuses.put(product, latest.getProductStatus());
+      failedFetches.remove(product);
+    } catch (NotFoundException e) {
+      // The product has been deleted.
+      statuses.remove(product);
+      failedFetches.remove(product);
+    } catch (RuntimeException e) {
+      int failures = failedFetches.merge(product, 1, Integer::sum);
+      if (failures < MAX_FETCH_ATTEMPTS) {
+        long backoffMillis = Math.min(INITIAL_BACKOFF_MILLIS << (failures - 1), MAX_BACKOFF_MILLIS);
+        System.out.printf(
+            "Failed to refresh %s, retrying in %d ms: %s%n", product, backoffMillis, e);
+        // Also serves the notifications received during the failed fetch.
+        refreshes.put(product, Refresh.SCHEDULED);
+        schedule(product, backoffMillis);
+        return;
+      }
+      failedFetches.remove(product);
+      System.out.printf(
+          "Failed to refresh %s after %d attempts, keeping its last known status: %s%n",
+          product, failures, e);
+    }
+    if (!refreshes.remove(product, Refresh.RUNNING)) {
+      // Notifications were received during the fetch.
+      refreshes.put(product, Refresh.SCHEDULED);
+      schedule(product);
+    }
+  }
+}
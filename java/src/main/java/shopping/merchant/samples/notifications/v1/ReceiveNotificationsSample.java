@@ -0,0 +1,67 @@
+// Copyright 2026 Google LLC
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     https://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package shopping.merchant.samples.notifications.v1;
+
+// [START merchantapi_receive_notifications]
+import com.google.shopping.merchant.notifications.v1.ProductChange;
+import com.google.shopping.merchant.notifications.v1.ProductStatusChangeMessage;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * This class demonstrates how to receive the notifications of a subscription created with {@link
+ * CreateNotificationSubscriptionSample}, using an embedded {@link NotificationReceiver}.
+ *
+ * <p>The {@code callBackUri} of the subscription must be a public HTTPS URL forwarding to the port
+ * and path of the receiver, e.g. through a load balancer or reverse proxy.
+ */
+public class ReceiveNotificationsSample {
+
+  private static final int PORT = 8080;
+  private static final String PATH = "/notifications";
+  // Notifications waiting to be processed. Beyond that, callbacks are rejected and sent again.
+  private static final int QUEUE_CAPACITY = 100_000;
+  // Recent events remembered to drop the notifications received twice.
+  private static final int DEDUP_CAPACITY = 1_000_000;
+
+  public static void receiveNotifications() throws Exception {
+    try (NotificationReceiver receiver =
+        new NotificationReceiver(PORT, PATH, QUEUE_CAPACITY, DEDUP_CAPACITY)) {
+      receiver.start();
+      System.out.printf("Receiving notifications on port %d at %s%n", receiver.getPort(), PATH);
+
+      // Processes the notifications in the order they were received, until the process is stopped.
+      while (true) {
+        ProductStatusChangeMessage message = receiver.poll(1, TimeUnit.SECONDS);
+        if (message == null) {
+          continue;
+        }
+        System.out.printf("%s changed at %s%n", message.getResource(), message.getEventTime());
+        for (ProductChange change : message.getChangesList()) {
+          System.out.printf(
+              "  %s in %s: %s -> %s%n",
+              change.getReportingContext(),
+              change.getRegionCode(),
+              change.getOldValue(),
+              change.getNewValue());
+        }
+      }
+    }
+  }
+
+  public static void main(String[] args) throws Exception {
+    receiveNotifications();
+  }
+}
+// [END merchantapi_receive_notifications]
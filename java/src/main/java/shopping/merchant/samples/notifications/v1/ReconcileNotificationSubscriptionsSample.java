@@ -0,0 +1,121 @@
+// Copyright 2026 Google LLC
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     https://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package shopping.merchant.samples.notifications.v1;
+
+// [START merchantapi_reconcile_notification_subscriptions]
+import com.google.api.gax.core.FixedCredentialsProvider;
+import com.google.auth.oauth2.GoogleCredentials;
+import com.google.shopping.merchant.accounts.v1.Account;
+import com.google.shopping.merchant.accounts.v1.AccountsServiceClient;
+import com.google.shopping.merchant.accounts.v1.AccountsServiceSettings;
+import com.google.shopping.merchant.accounts.v1.ListSubAccountsRequest;
+import com.google.shopping.merchant.notifications.v1.NotificationSubscription;
+import com.google.shopping.merchant.notifications.v1.NotificationSubscription.NotificationEventType;
+import com.google.shopping.merchant.notifications.v1.NotificationsApiServiceClient;
+import com.google.shopping.merchant.notifications.v1.NotificationsApiServiceSettings;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import shopping.merchant.samples.utils.Authenticator;
+import shopping.merchant.samples.utils.Config;
+
+/**
+ * This class demonstrates how to make every sub-account of an advanced account subscribe to
+ * product status changes with the same callback URI, using a {@link SubscriptionReconciler}.
+ *
+ * <p>The sample can be run repeatedly: subscriptions that are already as desired are left
+ * unchanged, e.g. after adding sub-accounts only the new ones get a subscription.
+ */
+public class ReconcileNotificationSubscriptionsSample {
+
+  // Maximum number of requests in flight at the same time.
+  private static final int MAX_CONCURRENT_REQUESTS = 20;
+  // Maximum number of requests per second, for all accounts together.
+  private static final double REQUESTS_PER_SECOND = 20;
+
+  public static void reconcileNotificationSubscriptions(
+      Config config, String callbackUri, boolean dryRun) throws Exception {
+
+    // Obtains OAuth token based on the user's configuration.
+    GoogleCredentials credential = new Authenticator().authenticate();
+
+    // Creates service settings using the credentials retrieved above.
+    AccountsServiceSettings accountsServiceSettings =
+        AccountsServiceSettings.newBuilder()
+            .setCredentialsProvider(FixedCredentialsProvider.create(credential))
+            .build();
+    NotificationsApiServiceSettings notificationsApiServiceSettings =
+        NotificationsApiServiceSettings.newBuilder()
+            .setCredentialsProvider(FixedCredentialsProvider.create(credential))
+            .build();
+
+    ExecutorService executor = Executors.newFixedThreadPool(MAX_CONCURRENT_REQUESTS);
+
+    // Calls the API and catches and prints any network failures/errors.
+    try (AccountsServiceClient accountsServiceClient =
+            AccountsServiceClient.create(accountsServiceSettings);
+        NotificationsApiServiceClient notificationsApiServiceClient =
+            NotificationsApiServiceClient.create(notificationsApiServiceSettings)) {
+
+      // Every sub-account subscribes to the status changes of its own products.
+      Map<String, List<NotificationSubscription>> desiredByParent = new LinkedHashMap<>();
+      ListSubAccountsRequest request =
+          ListSubAccountsRequest.newBuilder()
+              .setProvider("accounts/" + config.getAccountId().toString())
+              .build();
+      for (Account account : accountsServiceClient.listSubAccounts(request).iterateAll()) {
+        desiredByParent.put(
+            account.getName(),
+            Collections.singletonList(
+                NotificationSubscription.newBuilder()
+                    .setTargetAccount(account.getName())
+                    .setCallBackUri(callbackUri)
+                    .setRegisteredEvent(NotificationEventType.PRODUCT_STATUS_CHANGE)
+                    .build()));
+      }
+      System.out.printf("Reconciling the subscriptions of %d accounts%n", desiredByParent.size());
+
+      SubscriptionReconciler reconciler =
+          new SubscriptionReconciler(
+              notificationsApiServiceClient, executor, REQUESTS_PER_SECOND, dryRun);
+      long start = System.currentTimeMillis();
+      SubscriptionReconciler.Summary summary = reconciler.reconcile(desiredByParent);
+
+      System.out.printf(
+          "%s%s in %d s%n",
+          dryRun ? "Dry run: " : "",
+          summary,
+          (System.currentTimeMillis() - start) / 1000);
+    } catch (Exception e) {
+      System.out.println(e);
+    } finally {
+      executor.shutdown();
+    }
+  }
+
+  public static void main(String[] args) throws Exception {
+    Config config = Config.load();
+    // INSERT HERE the URL to be used to push the notification to.
+    String callbackUri = "https://www.samplesite.com";
+    // With a dry run, the changes are reported but not applied.
+    boolean dryRun = true;
+
+    reconcileNotificationSubscriptions(config, callbackUri, dryRun);
+  }
+}
+// [END merchantapi_reconcile_notification_subscriptions]
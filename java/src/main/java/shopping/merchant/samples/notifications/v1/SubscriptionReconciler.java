@@ -0,0 +1,216 @@
+// Copyright 2026 Google LLC
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     https://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package shopping.merchant.samples.notifications.v1;
+
+import com.google.common.util.concurrent.RateLimiter;
+import com.google.protobuf.FieldMask;
+import com.google.shopping.merchant.notifications.v1.CreateNotificationSubscriptionRequest;
+import com.google.shopping.merchant.notifications.v1.DeleteNotificationSubscriptionRequest;
+import com.google.shopping.merchant.notifications.v1.ListNotificationSubscriptionsRequest;
+import com.google.shopping.merchant.notifications.v1.NotificationSubscription;
+import com.google.shopping.merchant.notifications.v1.NotificationsApiServiceClient;
+import com.google.shopping.merchant.notifications.v1.UpdateNotificationSubscriptionRequest;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Makes the notification subscriptions of many accounts match a desired set.
+ *
+ * <p>A subscription is identified by its event type and the accounts it is interested in (a target
+ * account, or all managed accounts). For each account, the existing subscriptions are listed and
+ * compared with the desired ones: missing subscriptions are created, subscriptions with a different
+ * callback URI are updated, and subscriptions that are not desired, including duplicates, are
+ * deleted. Running the reconciler again without changes sends no writes.
+ *
+ * <p>Accounts are processed concurrently on the executor, and every request first takes a permit
+ * from a shared rate limiter so that the whole fleet stays within the quota.
+ */
+public class SubscriptionReconciler {
+
+  /** The number of subscriptions per outcome. */
+  public static final class Summary {
+    private final AtomicInteger unchanged = new AtomicInteger();
+    private final AtomicInteger created = new AtomicInteger();
+    private final AtomicInteger updated = new AtomicInteger();
+    private final AtomicInteger deleted = new AtomicInteger();
+    private final AtomicInteger failed = new AtomicInteger();
+
+    public int getUnchanged() {
+      return unchanged.get();
+    }
+
+    public int getCreated() {
+      return created.get();
+    }
+
+    public int getUpdated() {
+      return updated.get();
+    }
+
+    public int getDeleted() {
+      return deleted.get();
+    }
+
+    public int getFailed() {
+      return failed.get();
+    }
+
+    @Override
+    public String toString() {
+      return String.format(
+          "%d unchanged, %d created, %d updated, %d deleted, %d failed",
+          unchanged.get(), created.get(), updated.get(), deleted.get(), failed.get());
+    }
+  }
+
+  private final NotificationsApiServiceClient client;
+  private final ExecutorService executor;
+  private final RateLimiter rateLimiter;
+  private final boolean dryRun;
+
+  /**
+   * Creates a reconciler sending the requests on the executor.
+   *
+   * @param requestsPerSecond the maximum rate of requests, for all accounts together.
+   * @param dryRun if true, the changes are counted but not applied.
+   */
+  public SubscriptionReconciler(
+      NotificationsApiServiceClient client,
+      ExecutorService executor,
+      double requestsPerSecond,
+      boolean dryRun) {
+    this.client = client;
+    this.executor = executor;
+    this.rateLimiter = RateLimiter.create(requestsPerSecond);
+    this.dryRun = dryRun;
+  }
+
+  /**
+   * Reconciles the subscriptions of every account in the map. Accounts missing from the map are
+   * left unchanged, and accounts mapped to an empty list lose all their subscriptions.
+   *
+   * @param desiredByParent account name ({@code accounts/{account}}) -> desired subscriptions,
+   *     without names.
+   */
+  public Summary reconcile(Map<String, List<NotificationSubscription>> desiredByParent) {
+    Summary summary = new Summary();
+    List<CompletableFuture<Void>> futures = new ArrayList<>();
+    for (Map.Entry<String, List<NotificationSubscription>> entry : desiredByParent.entrySet()) {
+      futures.add(reconcileParent(entry.getKey(), entry.getValue(), summary));
+    }
+    CompletableFuture.allOf(futures.toArray(new CompletableFuture<?>[0])).join();
+    return summary;
+  }
+
+  private CompletableFuture<Void> reconcileParent(
+      String parent, List<NotificationSubscription> desired, Summary summary) {
+    return CompletableFuture.supplyAsync(() -> list(parent), executor)
+        .thenCompose(
+            existing -> {
+              List<CompletableFuture<Void>> writes = new ArrayList<>();
+              // Desired subscriptions by key, removed once they are matched.
+              Map<String, NotificationSubscription> missing = new LinkedHashMap<>();
+              for (NotificationSubscription subscription : desired) {
+                missing.put(key(subscription), subscription);
+              }
+              for (NotificationSubscription subscription : existing) {
+                NotificationSubscription wanted = missing.remove(key(subscription));
+                if (wanted == null) {
+                  // Not desired, or a duplicate of a subscription matched already.
+                  writes.add(write(summary.deleted, summary, () -> delete(subscription)));
+                } else if (wanted.getCallBackUri().equals(subscription.getCallBackUri())) {
+                  summary.unchanged.incrementAndGet();
+                } else {
+                  writes.add(write(summary.updated, summary, () -> update(subscription, wanted)));
+                }
+              }
+              for (NotificationSubscription subscription : missing.values()) {
+                writes.add(write(summary.created, summary, () -> create(parent, subscription)));
+              }
+              return CompletableFuture.allOf(writes.toArray(new CompletableFuture<?>[0]));
+            })
+        .exceptionally(
+            throwable -> {
+              // The subscriptions could not be listed, so nothing is changed for the account.
+              summary.failed.incrementAndGet();
+              System.out.printf("Failed to reconcile %s: %s%n", parent, throwable.getCause());
+              return null;
+            });
+  }
+
+  // Runs the write on the executor, and counts its outcome.
+  private CompletableFuture<Void> write(AtomicInteger counter, Summary summary, Runnable write) {
+    return CompletableFuture.runAsync(
+            () -> {
+              if (!dryRun) {
+                rateLimiter.acquire();
+                write.run();
+              }
+              counter.incrementAndGet();
+            },
+            executor)
+        .exceptionally(
+            throwable -> {
+              summary.failed.incrementAndGet();
+              System.out.println("Failed to write a subscription: " + throwable.getCause());
+              return null;
+            });
+  }
+
+  private List<NotificationSubscription> list(String parent) {
+    rateLimiter.acquire();
+    List<NotificationSubscription> subscriptions = new ArrayList<>();
+    ListNotificationSubscriptionsRequest request =
+        ListNotificationSubscriptionsRequest.newBuilder().setParent(parent).build();
+    for (NotificationSubscription subscription :
+        client.listNotificationSubscriptions(request).iterateAll()) {
+      subscriptions.add(subscription);
+    }
+    return subscriptions;
+  }
+
+  private void create(String parent, NotificationSubscription subscription) {
+    client.createNotificationSubscription(
+        CreateNotificationSubscriptionRequest.newBuilder()
+            .setParent(parent)
+            .setNotificationSubscription(subscription)
+            .build());
+  }
+
+  private void update(NotificationSubscription existing, NotificationSubscription wanted) {
+    client.updateNotificationSubscription(
+        UpdateNotificationSubscriptionRequest.newBuilder()
+            .setNotificationSubscription(
+                existing.toBuilder().setCallBackUri(wanted.getCallBackUri()).build())
+            .setUpdateMask(FieldMask.newBuilder().addPaths("call_back_uri").build())
+            .build());
+  }
+
+  private void delete(NotificationSubscription subscription) {
+    client.deleteNotificationSubscription(
+        DeleteNotificationSubscriptionRequest.newBuilder().setName(subscription.getName()).build());
+  }
+
+  // The event type and the accounts the subscription is interested in.
+  private static String key(NotificationSubscription subscription) {
+    String target = subscription.getAllManagedAccounts() ? "*" : subscription.getTargetAccount();
+    return subscription.getRegisteredEvent().name() + "/" + target;
+  }
+}
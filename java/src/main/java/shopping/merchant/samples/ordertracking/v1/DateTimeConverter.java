@@ -0,0 +1,139 @@
+// Copyright 2026 Google LLC
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     https://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package shopping.merchant.samples.ordertracking.v1;
+
+import com.google.type.DateTime;
+import com.google.type.TimeZone;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.zone.ZoneOffsetTransition;
+import java.time.zone.ZoneRules;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Converts epoch milliseconds to {@link DateTime} messages in a time zone, e.g. for the many time
+ * fields of order tracking signals.
+ *
+ * <p>Going through {@code java.time} for every field resolves the zone, and allocates an {@code
+ * Instant}, a {@code ZonedDateTime} and a {@code TimeZone} message each time. Instead, the
+ * converter keeps per zone the {@code TimeZone} message and the UTC offset valid between two
+ * transitions of the zone rules. Converting a time within that interval only needs integer
+ * arithmetic, and allocates nothing besides the {@code DateTime} itself. The zone rules are only
+ * consulted again when a time falls outside of the cached interval, e.g. after a daylight saving
+ * time change.
+ *
+ * <p>The converter is thread-safe.
+ */
+public class DateTimeConverter {
+
+  private static final long SECONDS_PER_DAY = 86_400;
+
+  /** The cached data of a time zone. */
+  private static final class Zone {
+    private final ZoneRules rules;
+    private final TimeZone timeZone;
+    // The offset valid from startSeconds (inclusive) to endSeconds (exclusive). Replaced as a
+    // whole, so readers always see a consistent interval.
+    private volatile Interval interval;
+
+    Zone(String zoneId) {
+      this.rules = ZoneId.of(zoneId).getRules();
+      this.timeZone = TimeZone.newBuilder().setId(zoneId).build();
+      this.interval = new Interval(Long.MAX_VALUE, Long.MIN_VALUE, 0);
+    }
+
+    int offsetSeconds(long epochSeconds) {
+      Interval current = interval;
+      if (epochSeconds >= current.startSeconds && epochSeconds < current.endSeconds) {
+        return current.offsetSeconds;
+      }
+      current = computeInterval(epochSeconds);
+      interval = current;
+      return current.offsetSeconds;
+    }
+
+    private Interval computeInterval(long epochSeconds) {
+      Instant instant = Instant.ofEpochSecond(epochSeconds);
+      int offset = rules.getOffset(instant).getTotalSeconds();
+      if (rules.isFixedOffset()) {
+        return new Interval(Long.MIN_VALUE, Long.MAX_VALUE, offset);
+      }
+      // The transition at the instant itself is the start of the interval.
+      ZoneOffsetTransition previous = rules.previousTransition(instant.plusSeconds(1));
+      ZoneOffsetTransition next = rules.nextTransition(instant);
+      return new Interval(
+          previous == null ? Long.MIN_VALUE : previous.toEpochSecond(),
+          next == null ? Long.MAX_VALUE : next.toEpochSecond(),
+          offset);
+    }
+  }
+
+  /** A UTC offset and the interval in which it is valid. */
+  private static final class Interval {
+    private final long startSeconds;
+    private final long endSeconds;
+    private final int offsetSeconds;
+
+    Interval(long startSeconds, long endSeconds, int offsetSeconds) {
+      this.startSeconds = startSeconds;
+      this.endSeconds = endSeconds;
+      this.offsetSeconds = offsetSeconds;
+    }
+  }
+
+  private final ConcurrentHashMap<String, Zone> zones = new ConcurrentHashMap<>();
+
+  /**
+   * Returns the local date and time of the instant in the time zone.
+   *
+   * @param zoneId an IANA time zone ID, e.g. "America/Los_Angeles".
+   */
+  public DateTime toDateTime(long epochMillis, String zoneId) {
+    Zone zone = zones.get(zoneId);
+    if (zone == null) {
+      zone = zones.computeIfAbsent(zoneId, Zone::new);
+    }
+    long epochSeconds = Math.floorDiv(epochMillis, 1000);
+    int millis = (int) Math.floorMod(epochMillis, 1000);
+    long localSeconds = epochSeconds + zone.offsetSeconds(epochSeconds);
+
+    long epochDay = Math.floorDiv(localSeconds, SECONDS_PER_DAY);
+    int secondOfDay = (int) Math.floorMod(localSeconds, SECONDS_PER_DAY);
+
+    // Converts the day to a civil date, counting in 400-year eras of 146097 days that start on
+    // March 1st, so that the leap day is the last day of a year (the algorithm of
+    // https://howardhinnant.github.io/date_algorithms.html#civil_from_days).
+    long days = epochDay + 719_468;
+    long era = Math.floorDiv(days, 146_097);
+    int dayOfEra = (int) (days - era * 146_097);
+    int yearOfEra = (dayOfEra - dayOfEra / 1460 + dayOfEra / 36_524 - dayOfEra / 146_096) / 365;
+    int dayOfYear = dayOfEra - (365 * yearOfEra + yearOfEra / 4 - yearOfEra / 100);
+    int monthFromMarch = (5 * dayOfYear + 2) / 153;
+    int day = dayOfYear - (153 * monthFromMarch + 2) / 5 + 1;
+    int month = monthFromMarch < 10 ? monthFromMarch + 3 : monthFromMarch - 9;
+    long year = yearOfEra + era * 400 + (month <= 2 ? 1 : 0);
+
+    return DateTime.newBuilder()
+        .setYear((int) year)
+        .setMonth(month)
+        .setDay(day)
+        .setHours(secondOfDay / 3600)
+        .setMinutes(secondOfDay / 60 % 60)
+        .setSeconds(secondOfDay % 60)
+        .setNanos(millis * 1_000_000)
+        .setTimeZone(zone.timeZone)
+        .build();
+  }
+}
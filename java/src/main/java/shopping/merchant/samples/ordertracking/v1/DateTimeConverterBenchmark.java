@@ -0,0 +1,109 @@
+// Copyright 2026 Google LLC
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     https://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package shopping.merchant.samples.ordertracking.v1;
+
+import com.google.type.DateTime;
+import com.google.type.TimeZone;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.util.Random;
+
+/**
+ * Compares the throughput of {@link DateTimeConverter} with converting every time through {@code
+ * java.time}, on synthetic order times of a day in a few time zones. It does not call the API, so
+ * it can be run without credentials:
+ *
+ * <pre>
+ * mvn exec:java -Dexec.mainClass="shopping.merchant.samples.ordertracking.v1.DateTimeConverterBenchmark"
+ * </pre>
+ */
+public class DateTimeConverterBenchmark {
+
+  private static final String[] ZONES = {
+    "America/Los_Angeles", "America/New_York", "Europe/Berlin", "Asia/Tokyo", "UTC"
+  };
+  // 2025-03-09T00:00:00Z, the day daylight saving time starts in the US.
+  private static final long DAY_START_MILLIS = 1_741_478_400_000L;
+  private static final long DAY_MILLIS = 86_400_000L;
+  // A power of two, so the benchmark loop can pick times with a mask.
+  private static final int DISTINCT_TIMES = 1 << 16;
+  private static final int CONVERSIONS = 10_000_000;
+  private static final int ROUNDS = 8;
+
+  public static void main(String[] args) {
+    Random random = new Random(42);
+    long[] times = new long[DISTINCT_TIMES];
+    String[] zones = new String[DISTINCT_TIMES];
+    for (int i = 0; i < DISTINCT_TIMES; i++) {
+      times[i] = DAY_START_MILLIS + (long) (random.nextDouble() * DAY_MILLIS);
+      zones[i] = ZONES[random.nextInt(ZONES.length)];
+    }
+
+    // Both paths must agree before their speed is compared.
+    DateTimeConverter converter = new DateTimeConverter();
+    for (int i = 0; i < DISTINCT_TIMES; i++) {
+      DateTime expected = naiveToDateTime(times[i], zones[i]);
+      DateTime actual = converter.toDateTime(times[i], zones[i]);
+      if (!expected.equals(actual)) {
+        throw new IllegalStateException(
+            String.format("%d in %s: expected %s, got %s", times[i], zones[i], expected, actual));
+      }
+    }
+
+    // The first rounds also warm up the JIT compiler.
+    for (int round = 1; round <= ROUNDS; round++) {
+      long checksum = 0;
+      long start = System.nanoTime();
+      for (int i = 0; i < CONVERSIONS; i++) {
+        int index = i & (DISTINCT_TIMES - 1);
+        checksum += naiveToDateTime(times[index], zones[index]).getHours();
+      }
+      long naiveNanos = System.nanoTime() - start;
+
+      start = System.nanoTime();
+      for (int i = 0; i < CONVERSIONS; i++) {
+        int index = i & (DISTINCT_TIMES - 1);
+        checksum -= converter.toDateTime(times[index], zones[index]).getHours();
+      }
+      long cachedNanos = System.nanoTime() - start;
+
+      // The checksum is printed so the conversions cannot be optimized away. It is 0 when both
+      // paths return the same hours.
+      System.out.printf(
+          "Round %d: java.time %.1f, cached %.1f million conversions per second (checksum %d)%n",
+          round,
+          CONVERSIONS * 1_000.0 / naiveNanos,
+          CONVERSIONS * 1_000.0 / cachedNanos,
+          checksum);
+    }
+  }
+
+  // Converts the time the straightforward way, resolving the zone and building a new TimeZone for
+  // every call.
+  private static DateTime naiveToDateTime(long epochMillis, String zoneId) {
+    ZonedDateTime time = Instant.ofEpochMilli(epochMillis).atZone(ZoneId.of(zoneId));
+    return DateTime.newBuilder()
+        .setYear(time.getYear())
+        .setMonth(time.getMonthValue())
+        .setDay(time.getDayOfMonth())
+        .setHours(time.getHour())
+        .setMinutes(time.getMinute())
+        .setSeconds(time.getSecond())
+        .setNanos(time.getNano())
+        .setTimeZone(TimeZone.newBuilder().setId(zoneId))
+        .build();
+  }
+}
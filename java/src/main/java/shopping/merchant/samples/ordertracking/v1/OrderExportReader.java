@@ -0,0 +1,328 @@
+// Copyright 2026 Google LLC
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     https://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package shopping.merchant.samples.ordertracking.v1;
+
+import com.google.protobuf.InvalidProtocolBufferException;
+import com.google.protobuf.util.JsonFormat;
+import com.google.shopping.merchant.ordertracking.v1.OrderTrackingSignal;
+import com.google.shopping.merchant.ordertracking.v1.OrderTrackingSignal.LineItemDetails;
+import com.google.shopping.merchant.ordertracking.v1.OrderTrackingSignal.ShipmentLineItemMapping;
+import com.google.shopping.merchant.ordertracking.v1.OrderTrackingSignal.ShippingInfo;
+import com.google.shopping.merchant.ordertracking.v1.OrderTrackingSignal.ShippingInfo.ShippingState;
+import com.google.shopping.type.Price;
+import com.google.type.DateTime;
+import com.google.type.TimeZone;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.DateTimeException;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
+
+/**
+ * Reads order tracking signals from order export files, one signal at a time, so that files of any
+ * size can be uploaded while they are read.
+ *
+ * <p>Two formats are supported, chosen by the file extension:
+ *
+ * <ul>
+ *   <li>{@code .jsonl}: one {@link OrderTrackingSignal} per line, in the JSON format of the
+ *       message, e.g. {@code {"orderId": "123", "lineItems": [...], ...}}.
+ *   <li>{@code .csv}: one row per order line item and shipment, with a header row naming the
+ *       columns. The rows of an order must be consecutive. The columns are {@code order_id}, {@code
+ *       order_created_time}, {@code time_zone}, {@code delivery_postal_code}, {@code
+ *       delivery_region_code}, {@code shipping_fee_micros}, {@code currency_code}, {@code
+ *       line_item_id}, {@code product_id}, {@code quantity}, {@code shipment_id}, {@code
+ *       shipped_quantity}, {@code carrier}, {@code carrier_service}, {@code tracking_id}, {@code
+ *       shipped_time}, {@code shipping_status}, {@code origin_postal_code} and {@code
+ *       origin_region_code}. Times are either local ISO-8601 times, e.g. {@code
+ *       2025-03-24T12:02:22}, or milliseconds since the epoch, e.g. {@code 1742817742000}, and are
+ *       set in the {@code time_zone} of the row.
+ * </ul>
+ *
+ * <p>Lines that cannot be parsed are reported to the error handler, and reading continues with the
+ * next line or order.
+ */
+public class OrderExportReader {
+
+  /** Called for each line or order that cannot be read. */
+  public interface ErrorHandler {
+    void onError(long lineNumber, String line, String error);
+  }
+
+  private final ErrorHandler errorHandler;
+  private final DateTimeConverter converter = new DateTimeConverter();
+  private final JsonFormat.Parser parser = JsonFormat.parser().ignoringUnknownFields();
+
+  public OrderExportReader(ErrorHandler errorHandler) {
+    this.errorHandler = errorHandler;
+  }
+
+  /** Reads the file, and passes each signal to the consumer as soon as it is complete. */
+  public void read(Path file, Consumer<OrderTrackingSignal> consumer) throws IOException {
+    try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+      if (file.getFileName().toString().endsWith(".csv")) {
+        readCsv(reader, consumer);
+      } else {
+        readJsonLines(reader, consumer);
+      }
+    }
+  }
+
+  private void readJsonLines(BufferedReader reader, Consumer<OrderTrackingSignal> consumer)
+      throws IOException {
+    String line;
+    long lineNumber = 0;
+    while ((line = reader.readLine()) != null) {
+      lineNumber++;
+      if (line.trim().isEmpty()) {
+        continue;
+      }
+      OrderTrackingSignal.Builder signal = OrderTrackingSignal.newBuilder();
+      try {
+        parser.merge(line, signal);
+      } catch (InvalidProtocolBufferException e) {
+        errorHandler.onError(lineNumber, line, e.getMessage());
+        continue;
+      }
+      consumer.accept(signal.build());
+    }
+  }
+
+  private void readCsv(BufferedReader reader, Consumer<OrderTrackingSignal> consumer)
+      throws IOException {
+    String header = reader.readLine();
+    if (header == null) {
+      return;
+    }
+    Map<String, Integer> columns = new HashMap<>();
+    List<String> names = splitCsv(header);
+    for (int i = 0; i < names.size(); i++) {
+      columns.put(names.get(i).trim(), i);
+    }
+
+    OrderAssembler order = null;
+    String line;
+    long lineNumber = 1;
+    while ((line = reader.readLine()) != null) {
+      lineNumber++;
+      if (line.trim().isEmpty()) {
+        continue;
+      }
+      Row row = new Row(columns, splitCsv(line));
+      String orderId = row.get("order_id");
+      if (order != null && !order.orderId.equals(orderId)) {
+        order.emit(consumer);
+        order = null;
+      }
+      if (order == null) {
+        order = new OrderAssembler(orderId, lineNumber, line);
+      }
+      try {
+        order.add(row);
+      } catch (RuntimeException e) {
+        // The whole order is skipped, since a partial signal would be wrong.
+        errorHandler.onError(lineNumber, line, e.getMessage());
+        order.failed = true;
+      }
+    }
+    if (order != null) {
+      order.emit(consumer);
+    }
+  }
+
+  /** A CSV row, with the values looked up by column name. */
+  private static final class Row {
+    private final Map<String, Integer> columns;
+    private final List<String> values;
+
+    Row(Map<String, Integer> columns, List<String> values) {
+      this.columns = columns;
+      this.values = values;
+    }
+
+    // Returns the value, or an empty string if the column or value is missing.
+    String get(String column) {
+      Integer index = columns.get(column);
+      return index == null || index >= values.size() ? "" : values.get(index).trim();
+    }
+  }
+
+  /** Collects the rows of an order into a signal. */
+  private final class OrderAssembler {
+    private final String orderId;
+    private final long firstLineNumber;
+    private final String firstLine;
+    private final OrderTrackingSignal.Builder signal = OrderTrackingSignal.newBuilder();
+    private final Set<String> lineItems = new HashSet<>();
+    private final Set<String> shipments = new HashSet<>();
+    private boolean failed;
+
+    OrderAssembler(String orderId, long firstLineNumber, String firstLine) {
+      this.orderId = orderId;
+      this.firstLineNumber = firstLineNumber;
+      this.firstLine = firstLine;
+    }
+
+    void add(Row row) {
+      if (orderId.isEmpty()) {
+        throw new IllegalArgumentException("Missing order_id");
+      }
+      String timeZone = row.get("time_zone");
+      if (lineItems.isEmpty()) {
+        // The order level values are taken from the first row.
+        signal.setOrderId(orderId);
+        signal.setOrderCreatedTime(toDateTime(row.get("order_created_time"), timeZone));
+        setIfPresent(row.get("delivery_postal_code"), signal::setDeliveryPostalCode);
+        setIfPresent(row.get("delivery_region_code"), signal::setDeliveryRegionCode);
+        if (!row.get("shipping_fee_micros").isEmpty()) {
+          signal.setCustomerShippingFee(
+              Price.newBuilder()
+                  .setAmountMicros(Long.parseLong(row.get("shipping_fee_micros")))
+                  .setCurrencyCode(row.get("currency_code")));
+        }
+      }
+
+      String lineItemId = row.get("line_item_id");
+      if (lineItems.add(lineItemId)) {
+        signal.addLineItems(
+            LineItemDetails.newBuilder()
+                .setLineItemId(lineItemId)
+                .setProductId(row.get("product_id"))
+                .setQuantity(Long.parseLong(row.get("quantity"))));
+      }
+
+      String shipmentId = row.get("shipment_id");
+      if (shipmentId.isEmpty()) {
+        // The line item has not been shipped yet.
+        return;
+      }
+      if (shipments.add(shipmentId)) {
+        ShippingInfo.Builder shippingInfo =
+            ShippingInfo.newBuilder()
+                .setShipmentId(shipmentId)
+                .setShippingStatus(ShippingState.valueOf(row.get("shipping_status")));
+        setIfPresent(row.get("carrier"), shippingInfo::setCarrier);
+        setIfPresent(row.get("carrier_service"), shippingInfo::setCarrierService);
+        setIfPresent(row.get("tracking_id"), shippingInfo::setTrackingId);
+        setIfPresent(row.get("origin_postal_code"), shippingInfo::setOriginPostalCode);
+        setIfPresent(row.get("origin_region_code"), shippingInfo::setOriginRegionCode);
+        if (!row.get("shipped_time").isEmpty()) {
+          shippingInfo.setShippedTime(toDateTime(row.get("shipped_time"), timeZone));
+        }
+        signal.addShippingInfo(shippingInfo);
+      }
+      // Without a shipped quantity, the whole line item is in the shipment.
+      String shippedQuantity = row.get("shipped_quantity");
+      if (shippedQuantity.isEmpty()) {
+        shippedQuantity = row.get("quantity");
+      }
+      signal.addShipmentLineItemMapping(
+          ShipmentLineItemMapping.newBuilder()
+              .setShipmentId(shipmentId)
+              .setLineItemId(lineItemId)
+              .setQuantity(Long.parseLong(shippedQuantity)));
+    }
+
+    void emit(Consumer<OrderTrackingSignal> consumer) {
+      if (failed) {
+        errorHandler.onError(firstLineNumber, firstLine, "Skipped order " + orderId);
+        return;
+      }
+      consumer.accept(signal.build());
+    }
+  }
+
+  private static void setIfPresent(String value, Consumer<String> setter) {
+    if (!value.isEmpty()) {
+      setter.accept(value);
+    }
+  }
+
+  private DateTime toDateTime(String value, String timeZone) {
+    if (isEpochMillis(value)) {
+      try {
+        return converter.toDateTime(Long.parseLong(value), timeZone);
+      } catch (DateTimeException e) {
+        throw new IllegalArgumentException("Invalid time zone " + timeZone);
+      }
+    }
+    LocalDateTime time;
+    try {
+      time = LocalDateTime.parse(value);
+    } catch (DateTimeParseException e) {
+      throw new IllegalArgumentException("Invalid time " + value);
+    }
+    return DateTime.newBuilder()
+        .setYear(time.getYear())
+        .setMonth(time.getMonthValue())
+        .setDay(time.getDayOfMonth())
+        .setHours(time.getHour())
+        .setMinutes(time.getMinute())
+        .setSeconds(time.getSecond())
+        .setTimeZone(TimeZone.newBuilder().setId(timeZone))
+        .build();
+  }
+
+  private static boolean isEpochMillis(String value) {
+    if (value.isEmpty()) {
+      return false;
+    }
+    for (int i = 0; i < value.length(); i++) {
+      if (value.charAt(i) < '0' || value.charAt(i) > '9') {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  // Splits a CSV line, handling quoted values with "" as an escaped quote.
+  static List<String> splitCsv(String line) {
+    List<String> values = new ArrayList<>();
+    StringBuilder value = new StringBuilder();
+    boolean quoted = false;
+    for (int i = 0; i < line.length(); i++) {
+      char c = line.charAt(i);
+      if (quoted) {
+        if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+          value.append('"');
+          i++;
+        } else if (c == '"') {
+          quoted = false;
+        } else {
+          value.append(c);
+        }
+      } else if (c == '"') {
+        quoted = true;
+      } else if (c == ',') {
+        values.add(value.toString());
+        value.setLength(0);
+      } else {
+        value.append(c);
+      }
+    }
+    values.add(value.toString());
+    return values;
+  }
+}
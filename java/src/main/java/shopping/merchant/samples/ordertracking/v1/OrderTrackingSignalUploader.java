@@ -0,0 +1,188 @@
+// Copyright 2026 Google LLC
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     https://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package shopping.merchant.samples.ordertracking.v1;
+
+import com.google.api.gax.rpc.ApiException;
+import com.google.api.gax.rpc.StatusCode;
+import com.google.protobuf.util.JsonFormat;
+import com.google.shopping.merchant.ordertracking.v1.CreateOrderTrackingSignalRequest;
+import com.google.shopping.merchant.ordertracking.v1.OrderTrackingSignal;
+import com.google.shopping.merchant.ordertracking.v1.OrderTrackingSignalsServiceClient;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Uploads order tracking signals with a bounded number of requests in flight.
+ *
+ * <p>{@link #submit} blocks while {@code maxInFlight} signals are being uploaded, so a reader
+ * feeding the uploader never gets ahead by more than that. Requests failing with a transient error
+ * are retried with exponential backoff and jitter. Signals that are rejected, or still fail after
+ * {@link #MAX_ATTEMPTS} attempts, are appended to a dead-letter file in the JSON lines format read
+ * by {@link OrderExportReader}, so they can be fixed and uploaded again.
+ */
+public class OrderTrackingSignalUploader implements AutoCloseable {
+
+  private static final int MAX_ATTEMPTS = 5;
+  private static final long INITIAL_BACKOFF_MILLIS = 500;
+  private static final long MAX_BACKOFF_MILLIS = 30_000;
+  // Errors that may succeed when the request is sent again.
+  private static final Set<StatusCode.Code> RETRYABLE_CODES =
+      EnumSet.copyOf(
+          Arrays.asList(
+              StatusCode.Code.UNAVAILABLE,
+              StatusCode.Code.DEADLINE_EXCEEDED,
+              StatusCode.Code.RESOURCE_EXHAUSTED,
+              StatusCode.Code.ABORTED,
+              StatusCode.Code.INTERNAL));
+
+  private final OrderTrackingSignalsServiceClient client;
+  private final String parent;
+  private final int maxInFlight;
+  private final ExecutorService executor;
+  private final Semaphore inFlight;
+  private final Writer deadLetters;
+  private final JsonFormat.Printer printer = JsonFormat.printer().omittingInsignificantWhitespace();
+
+  private final AtomicLong submitted = new AtomicLong();
+  private final AtomicLong uploaded = new AtomicLong();
+  private final AtomicLong retries = new AtomicLong();
+  private final AtomicLong deadLettered = new AtomicLong();
+
+  /**
+   * Creates an uploader.
+   *
+   * @param parent the account name, in the format {@code accounts/{account}}.
+   * @param maxInFlight the maximum number of requests in flight at the same time.
+   * @param deadLetterFile the file the failed signals are appended to.
+   */
+  public OrderTrackingSignalUploader(
+      OrderTrackingSignalsServiceClient client, String parent, int maxInFlight, Path deadLetterFile)
+      throws IOException {
+    this.client = client;
+    this.parent = parent;
+    this.maxInFlight = maxInFlight;
+    this.executor = Executors.newFixedThreadPool(maxInFlight);
+    this.inFlight = new Semaphore(maxInFlight);
+    this.deadLetters =
+        Files.newBufferedWriter(
+            deadLetterFile,
+            StandardCharsets.UTF_8,
+            StandardOpenOption.CREATE,
+            StandardOpenOption.APPEND);
+  }
+
+  /** Uploads the signal in the background, waiting first if too many uploads are in flight. */
+  public void submit(OrderTrackingSignal signal) throws InterruptedException {
+    inFlight.acquire();
+    submitted.incrementAndGet();
+    executor.execute(
+        () -> {
+          try {
+            upload(signal);
+          } finally {
+            inFlight.release();
+          }
+        });
+  }
+
+  /** Waits for the uploads in flight, and closes the dead-letter file. */
+  @Override
+  public void close() throws IOException, InterruptedException {
+    inFlight.acquire(maxInFlight);
+    executor.shutdown();
+    synchronized (deadLetters) {
+      deadLetters.close();
+    }
+  }
+
+  public long getSubmitted() {
+    return submitted.get();
+  }
+
+  public long getUploaded() {
+    return uploaded.get();
+  }
+
+  public long getRetries() {
+    return retries.get();
+  }
+
+  public long getDeadLettered() {
+    return deadLettered.get();
+  }
+
+  private void upload(OrderTrackingSignal signal) {
+    CreateOrderTrackingSignalRequest request =
+        CreateOrderTrackingSignalRequest.newBuilder()
+            .setParent(parent)
+            .setOrderTrackingSignal(signal)
+            .build();
+    long backoffMillis = INITIAL_BACKOFF_MILLIS;
+    for (int attempt = 1; ; attempt++) {
+      try {
+        client.createOrderTrackingSignal(request);
+        uploaded.incrementAndGet();
+        return;
+      } catch (ApiException e) {
+        if (attempt >= MAX_ATTEMPTS || !RETRYABLE_CODES.contains(e.getStatusCode().getCode())) {
+          deadLetter(signal, e);
+          return;
+        }
+      } catch (RuntimeException e) {
+        // Not an API error, so not retried, but still recorded rather than lost.
+        deadLetter(signal, e);
+        return;
+      }
+      retries.incrementAndGet();
+      try {
+        // Full jitter spreads the retries of many uploads failing at the same time.
+        Thread.sleep(ThreadLocalRandom.current().nextLong(backoffMillis + 1));
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        deadLetter(signal, e);
+        return;
+      }
+      backoffMillis = Math.min(backoffMillis * 2, MAX_BACKOFF_MILLIS);
+    }
+  }
+
+  private void deadLetter(OrderTrackingSignal signal, Exception error) {
+    deadLettered.incrementAndGet();
+    System.out.printf("Order %s failed: %s%n", signal.getOrderId(), error.getMessage());
+    try {
+      String json = printer.print(signal);
+      synchronized (deadLetters) {
+        deadLetters.write(json);
+        deadLetters.write('\n');
+        // Flushed right away, so no failed signal is lost if the process stops.
+        deadLetters.flush();
+      }
+    } catch (IOException e) {
+      System.out.println("Failed to write the dead letter of order " + signal.getOrderId());
+    }
+  }
+}
@@ -0,0 +1,110 @@
+// Copyright 2026 Google LLC
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     https://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package shopping.merchant.samples.ordertracking.v1;
+
+// [START merchantapi_upload_order_tracking_signals]
+import com.google.api.gax.core.FixedCredentialsProvider;
+import com.google.auth.oauth2.GoogleCredentials;
+import com.google.shopping.merchant.ordertracking.v1.OrderTrackingSignalsServiceClient;
+import com.google.shopping.merchant.ordertracking.v1.OrderTrackingSignalsServiceSettings;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.concurrent.atomic.AtomicLong;
+import shopping.merchant.samples.utils.Authenticator;
+import shopping.merchant.samples.utils.Config;
+
+/**
+ * This class demonstrates how to upload the order tracking signals of an order export file, e.g.
+ * the orders shipped in a day, while the file is read.
+ *
+ * <p>See {@link OrderExportReader} for the supported file formats, and {@link
+ * CreateOrderTrackingSignalSample} for the meaning of the fields of a signal.
+ */
+public class UploadOrderTrackingSignalsSample {
+
+  // Maximum number of createOrderTrackingSignal requests in flight at the same time.
+  private static final int MAX_CONCURRENT_REQUESTS = 20;
+
+  private static String getParent(String accountId) {
+    return String.format("accounts/%s", accountId);
+  }
+
+  public static void uploadOrderTrackingSignals(Config config, Path exportFile, Path deadLetterFile)
+      throws Exception {
+    GoogleCredentials credentials = new Authenticator().authenticate();
+    OrderTrackingSignalsServiceSettings orderTrackingSignalsServiceSettings =
+        OrderTrackingSignalsServiceSettings.newBuilder()
+            .setCredentialsProvider(FixedCredentialsProvider.create(credentials))
+            .build();
+
+    String parent = getParent(config.getAccountId().toString());
+
+    try (OrderTrackingSignalsServiceClient orderTrackingSignalsServiceClient =
+        OrderTrackingSignalsServiceClient.create(orderTrackingSignalsServiceSettings)) {
+
+      AtomicLong invalid = new AtomicLong();
+      OrderExportReader reader =
+          new OrderExportReader(
+              (lineNumber, line, error) -> {
+                invalid.incrementAndGet();
+                System.out.printf("Line %d of %s: %s%n", lineNumber, exportFile, error);
+              });
+
+      long start = System.currentTimeMillis();
+      OrderTrackingSignalUploader uploader =
+          new OrderTrackingSignalUploader(
+              orderTrackingSignalsServiceClient, parent, MAX_CONCURRENT_REQUESTS, deadLetterFile);
+      try {
+        // Each signal is submitted as soon as it is read. The reader is blocked while the
+        // maximum number of requests are in flight.
+        reader.read(
+            exportFile,
+            signal -> {
+              try {
+                uploader.submit(signal);
+              } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Interrupted while uploading", e);
+              }
+            });
+      } finally {
+        uploader.close();
+      }
+
+      System.out.printf(
+          "Uploaded %d of %d signals in %d s, with %d retries%n",
+          uploader.getUploaded(),
+          uploader.getSubmitted(),
+          (System.currentTimeMillis() - start) / 1000,
+          uploader.getRetries());
+      System.out.printf(
+          "%d signals written to %s, %d invalid lines%n",
+          uploader.getDeadLettered(), deadLetterFile, invalid.get());
+    } catch (Exception e) {
+      System.out.println(e);
+    }
+  }
+
+  public static void main(String[] args) throws Exception {
+    Config config = Config.load();
+    // The order export to upload, either a .csv or a .jsonl file.
+    Path exportFile = Paths.get("orders.csv");
+    // Failed signals are appended to this file, and can be uploaded again from it.
+    Path deadLetterFile = Paths.get("orders_dead_letter.jsonl");
+
+    uploadOrderTrackingSignals(config, exportFile, deadLetterFile);
+  }
+}
+// [END merchantapi_upload_order_tracking_signals]
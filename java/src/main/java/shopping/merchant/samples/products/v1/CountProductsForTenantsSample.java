@@ -0,0 +1,103 @@
+// Copyright 2026 Google LLC
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     https://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package shopping.merchant.samples.products.v1;
+
+// [START merchantapi_count_products_for_tenants]
+import com.google.shopping.merchant.products.v1.ListProductsRequest;
+import com.google.shopping.merchant.products.v1.Product;
+import com.google.shopping.merchant.products.v1.ProductsServiceClient;
+import com.google.shopping.merchant.products.v1.ProductsServiceSettings;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import shopping.merchant.samples.utils.Config;
+import shopping.merchant.samples.utils.Tenant;
+import shopping.merchant.samples.utils.TenantClientPool;
+import shopping.merchant.samples.utils.TenantRegistry;
+import shopping.merchant.samples.utils.TenantScheduler;
+
+/**
+ * This class demonstrates how to work on many Merchant Center accounts with different service
+ * accounts, for example as an agency, by counting the products of every account.
+ *
+ * <p>The accounts are read from a {@code tenants.tsv} file in the configuration directory, with
+ * one account ID and service account key file per line. See {@link TenantRegistry}.
+ */
+public class CountProductsForTenantsSample {
+
+  // Maximum number of requests in flight at the same time, in total and per account.
+  private static final int WORKERS = 16;
+  private static final int MAX_REQUESTS_PER_ACCOUNT = 2;
+  // Maximum number of clients, and so of channels, open at the same time.
+  private static final int MAX_OPEN_CLIENTS = 32;
+
+  public static void countProductsForTenants(TenantRegistry registry) throws Exception {
+    // Creates the client of each account with the credentials of the account.
+    TenantClientPool.ClientFactory<ProductsServiceClient> factory =
+        credentialsProvider ->
+            ProductsServiceClient.create(
+                ProductsServiceSettings.newBuilder()
+                    .setCredentialsProvider(credentialsProvider)
+                    .build());
+
+    try (TenantClientPool<ProductsServiceClient> clients =
+            new TenantClientPool<>(registry, factory, MAX_OPEN_CLIENTS);
+        TenantScheduler scheduler = new TenantScheduler(WORKERS, MAX_REQUESTS_PER_ACCOUNT)) {
+
+      Map<Tenant, CompletableFuture<Long>> counts = new LinkedHashMap<>();
+      for (Tenant tenant : registry.getTenants()) {
+        counts.put(
+            tenant,
+            scheduler.submit(
+                tenant,
+                () ->
+                    clients.execute(
+                        tenant,
+                        productsServiceClient -> {
+                          ListProductsRequest request =
+                              ListProductsRequest.newBuilder()
+                                  .setParent(tenant.getName())
+                                  .setPageSize(1000)
+                                  .build();
+                          long count = 0;
+                          for (Product product :
+                              productsServiceClient.listProducts(request).iterateAll()) {
+                            count++;
+                          }
+                          return count;
+                        })));
+      }
+
+      // Calls the API and catches and prints any network failures/errors, per account.
+      for (Map.Entry<Tenant, CompletableFuture<Long>> entry : counts.entrySet()) {
+        try {
+          System.out.printf("%s: %d products%n", entry.getKey(), entry.getValue().join());
+        } catch (Exception e) {
+          System.out.printf("%s: failed with %s%n", entry.getKey(), e.getCause());
+        }
+      }
+      System.out.printf(
+          "Created %d clients, closed %d idle clients%n",
+          clients.getCreated(), clients.getEvictions());
+    }
+  }
+
+  public static void main(String[] args) throws Exception {
+    Config config = Config.load();
+    TenantRegistry registry = TenantRegistry.load(config, "tenants.tsv");
+    countProductsForTenants(registry);
+  }
+}
+// [END merchantapi_count_products_for_tenants]
@@ -0,0 +1,127 @@
+// Copyright 2026 Google LLC
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     https://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package shopping.merchant.samples.products.v1;
+
+// [START merchantapi_export_products]
+import com.google.api.gax.core.FixedCredentialsProvider;
+import com.google.auth.oauth2.GoogleCredentials;
+import com.google.shopping.merchant.products.v1.ListProductsRequest;
+import com.google.shopping.merchant.products.v1.Product;
+import com.google.shopping.merchant.products.v1.ProductsServiceClient;
+import com.google.shopping.merchant.products.v1.ProductsServiceSettings;
+import java.io.File;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import shopping.merchant.samples.utils.Authenticator;
+import shopping.merchant.samples.utils.Config;
+import shopping.merchant.samples.utils.MessageSink;
+
+/**
+ * This class demonstrates how to export all the products of an account to a file quickly, in a
+ * compact format, instead of printing them.
+ *
+ * <p>Pass the format as the first argument: {@code TSV} (the default) for the columns below, {@code
+ * JSON} for one product per line, or {@code DELIMITED} for binary products that can be read back
+ * with {@code Product.parseDelimitedFrom}.
+ */
+public class ExportProductsSample {
+
+  // The columns of the TSV format, as paths of proto field names.
+  private static final List<String> TSV_FIELDS =
+      Arrays.asList(
+          "name",
+          "offer_id",
+          "content_language",
+          "feed_label",
+          "product_attributes.title",
+          "product_attributes.price.amount_micros",
+          "product_attributes.price.currency_code",
+          "product_status.destination_statuses.reporting_context");
+  // Maximum number of products waiting to be written, while the next pages are received.
+  private static final int QUEUE_CAPACITY = 10_000;
+
+  private static String getParent(String accountId) {
+    return String.format("accounts/%s", accountId);
+  }
+
+  public static void exportProducts(Config config, MessageSink.Format format, Path outputFile)
+      throws Exception {
+
+    // Obtains OAuth token based on the user's configuration.
+    GoogleCredentials credential = new Authenticator().authenticate();
+
+    // Creates service settings using the credentials retrieved above.
+    ProductsServiceSettings productsServiceSettings =
+        ProductsServiceSettings.newBuilder()
+            .setCredentialsProvider(FixedCredentialsProvider.create(credential))
+            .build();
+
+    String parent = getParent(config.getAccountId().toString());
+    // The products are written to a temporary file, which replaces the output file once complete,
+    // so that a failed export leaves the previous one in place.
+    Path temporaryFile = outputFile.resolveSibling(outputFile.getFileName() + ".tmp");
+
+    long start = System.currentTimeMillis();
+    int count = 0;
+    // Calls the API and catches and prints any network failures/errors.
+    try (ProductsServiceClient productsServiceClient =
+            ProductsServiceClient.create(productsServiceSettings);
+        OutputStream output = Files.newOutputStream(temporaryFile);
+        // Formats and writes the products on a background thread, while the pages are received.
+        MessageSink sink =
+            MessageSink.async(
+                MessageSink.create(format, output, Product.getDescriptor(), TSV_FIELDS),
+                QUEUE_CAPACITY)) {
+
+      ListProductsRequest request =
+          ListProductsRequest.newBuilder().setParent(parent).setPageSize(1000).build();
+
+      System.out.println("Sending list products request:");
+      for (Product product : productsServiceClient.listProducts(request).iterateAll()) {
+        sink.write(product);
+        count++;
+      }
+    } catch (Exception e) {
+      System.out.println("An error has occurred: ");
+      System.out.println(e);
+      Files.deleteIfExists(temporaryFile);
+      return;
+    }
+    Files.move(
+        temporaryFile,
+        outputFile,
+        StandardCopyOption.REPLACE_EXISTING,
+        StandardCopyOption.ATOMIC_MOVE);
+    System.out.printf(
+        "Exported %d products to %s in %d ms%n",
+        count, outputFile, System.currentTimeMillis() - start);
+  }
+
+  public static void main(String[] args) throws Exception {
+    Config config = Config.load();
+    MessageSink.Format format =
+        args.length > 0 ? MessageSink.Format.valueOf(args[0]) : MessageSink.Format.TSV;
+    Path outputFile =
+        new File(config.getPath(), "products." + format.name().toLowerCase(Locale.ROOT)).toPath();
+
+    exportProducts(config, format, outputFile);
+  }
+}
+// [END merchantapi_export_products]
@@ -16,12 +16,9 @@ package shopping.merchant.samples.products.v1;
 
 // [START merchantapi_insert_product_input_async]
 import com.google.api.core.ApiFuture;
-import com.google.api.core.ApiFutureCallback;
-import com.google.api.core.ApiFutures;
 import com.google.api.gax.core.FixedCredentialsProvider;
 import com.google.api.gax.grpc.InstantiatingGrpcChannelProvider;
 import com.google.auth.oauth2.GoogleCredentials;
-import com.google.common.util.concurrent.MoreExecutors;
 import com.google.shopping.merchant.products.v1.Availability;
 import com.google.shopping.merchant.products.v1.Condition;
 import com.google.shopping.merchant.products.v1.InsertProductInputRequest;
@@ -31,16 +28,25 @@ import com.google.shopping.merchant.products.v1.ProductInputsServiceClient;
 import com.google.shopping.merchant.products.v1.ProductInputsServiceSettings;
 import com.google.shopping.merchant.products.v1.Shipping;
 import com.google.shopping.type.Price;
+import java.io.File;
+import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Random;
-import java.util.stream.Collectors;
+import java.util.concurrent.ExecutionException;
 import shopping.merchant.samples.utils.Authenticator;
+import shopping.merchant.samples.utils.BoundedAsyncWriter;
 import shopping.merchant.samples.utils.Config;
+import shopping.merchant.samples.utils.DeadLetterQueue;
 
 /** This class demonstrates how to insert a product input */
 public class InsertProductInputAsyncSample {
 
+  // The file of the failed requests, in the configuration directory.
+  static final String DEAD_LETTER_FILE = "product-input-dead-letters.pb";
+  // Maximum number of insert requests in flight at the same time.
+  static final int MAX_IN_FLIGHT = 100;
+
   private static String getParent(String accountId) {
     return String.format("accounts/%s", accountId);
   }
@@ -136,31 +142,36 @@ public class InsertProductInputAsyncSample {
         requests.add(request);
       }
 
+      // See InsertProductInputsWithRetryPolicySample for how to retry and hedge the requests to
+      // bound their tail latency.
       System.out.println("Sending insert product input requests");
-      List<ApiFuture<ProductInput>> futures =
-          requests.stream()
-              .map(
-                  request ->
-                      productInputsServiceClient.insertProductInputCallable().futureCall(request))
-              .collect(Collectors.toList());
-
-      // Creates callback to handle the responses when all are ready.
-      ApiFuture<List<ProductInput>> responses = ApiFutures.allAsList(futures);
-      ApiFutures.addCallback(
-          responses,
-          new ApiFutureCallback<List<ProductInput>>() {
-            @Override
-            public void onSuccess(List<ProductInput> results) {
-              System.out.println("Inserted products below");
-              System.out.println(results);
-            }
-
-            @Override
-            public void onFailure(Throwable throwable) {
-              System.out.println(throwable);
-            }
-          },
-          MoreExecutors.directExecutor());
+      // Requests that fail are added to a dead letter file with the status of their failure, and
+      // the other requests are not affected. Run ReplayProductInputDeadLettersSample to send the
+      // failed requests again.
+      Path deadLetterFile = new File(config.getPath(), DEAD_LETTER_FILE).toPath();
+      try (DeadLetterQueue<InsertProductInputRequest> deadLetters =
+          new DeadLetterQueue<>(deadLetterFile)) {
+        BoundedAsyncWriter<InsertProductInputRequest, ProductInput> writer =
+            new BoundedAsyncWriter<>(
+                productInputsServiceClient.insertProductInputCallable()::futureCall,
+                MAX_IN_FLIGHT,
+                deadLetters);
+        List<ApiFuture<ProductInput>> futures = new ArrayList<>(requests.size());
+        for (InsertProductInputRequest request : requests) {
+          futures.add(writer.submit(request));
+        }
+        writer.awaitCompletion();
+
+        System.out.println("Inserted products below");
+        for (ApiFuture<ProductInput> future : futures) {
+          try {
+            System.out.println(future.get());
+          } catch (ExecutionException e) {
+            // Already in the dead letter file.
+          }
+        }
+        System.out.println(writer);
+      }
 
     } catch (Exception e) {
       System.out.println(e);
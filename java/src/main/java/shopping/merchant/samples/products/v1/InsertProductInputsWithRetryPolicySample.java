@@ -0,0 +1,164 @@
+// Copyright 2026 Google LLC
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     https://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package shopping.merchant.samples.products.v1;
+
+// [START merchantapi_insert_product_inputs_with_retry_policy]
+import com.google.api.core.ApiFuture;
+import com.google.api.gax.grpc.InstantiatingGrpcChannelProvider;
+import com.google.common.util.concurrent.MoreExecutors;
+import com.google.shopping.merchant.products.v1.Availability;
+import com.google.shopping.merchant.products.v1.Condition;
+import com.google.shopping.merchant.products.v1.InsertProductInputRequest;
+import com.google.shopping.merchant.products.v1.ProductAttributes;
+import com.google.shopping.merchant.products.v1.ProductInput;
+import com.google.shopping.merchant.products.v1.ProductInputsServiceClient;
+import com.google.shopping.merchant.products.v1.ProductInputsServiceSettings;
+import com.google.shopping.type.Price;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import shopping.merchant.samples.utils.Config;
+import shopping.merchant.samples.utils.CredentialCache;
+import shopping.merchant.samples.utils.PolicyCallable;
+import shopping.merchant.samples.utils.RetryPolicy;
+
+/**
+ * This class demonstrates how to bound the tail latency of many product input inserts, retrying
+ * transient errors with backoff and hedging the slowest requests, within a retry budget.
+ */
+public class InsertProductInputsWithRetryPolicySample {
+
+  private static final int PRODUCT_COUNT = 1000;
+  // Maximum number of inserts in flight at the same time. Retries and hedges are within budget.
+  private static final int MAX_IN_FLIGHT = 100;
+  // Timeout of each attempt, hedge or retry of an insert.
+  private static final long ATTEMPT_TIMEOUT_MILLIS = 10_000;
+
+  private static String getParent(String accountId) {
+    return String.format("accounts/%s", accountId);
+  }
+
+  private static ProductInput createProduct(int index) {
+    Price price = Price.newBuilder().setAmountMicros(33_450_000).setCurrencyCode("USD").build();
+
+    ProductAttributes attributes =
+        ProductAttributes.newBuilder()
+            .setTitle("A Tale of Two Cities, volume " + index)
+            .setDescription("A classic novel about the French Revolution")
+            .setLink("https://exampleWebsite.com/tale-of-two-cities.html")
+            .setImageLink("https://exampleWebsite.com/tale-of-two-cities.jpg")
+            .setAvailability(Availability.IN_STOCK)
+            .setCondition(Condition.NEW)
+            .setGoogleProductCategory("Media > Books")
+            .setPrice(price)
+            .build();
+
+    return ProductInput.newBuilder()
+        .setContentLanguage("en")
+        .setFeedLabel("CH")
+        .setOfferId("tale-of-two-cities-" + index)
+        .setProductAttributes(attributes)
+        .build();
+  }
+
+  public static void insertProductInputsWithRetryPolicy(Config config, String dataSource)
+      throws Exception {
+
+    InstantiatingGrpcChannelProvider channelProvider =
+        InstantiatingGrpcChannelProvider.newBuilder().setPoolSize(4).build();
+
+    // Creates service settings using the shared, proactively refreshed credentials.
+    ProductInputsServiceSettings.Builder productInputsServiceSettingsBuilder =
+        ProductInputsServiceSettings.newBuilder()
+            .setCredentialsProvider(CredentialCache.getCredentialsProvider())
+            .setTransportChannelProvider(channelProvider);
+    // The policy below retries and hedges the inserts, so the client sends each attempt once, with
+    // its own timeout, instead of retrying inside every attempt.
+    productInputsServiceSettingsBuilder
+        .insertProductInputSettings()
+        .setRetrySettings(RetryPolicy.singleAttempt(ATTEMPT_TIMEOUT_MILLIS));
+    ProductInputsServiceSettings productInputsServiceSettings =
+        productInputsServiceSettingsBuilder.build();
+
+    // Inserting the same product input twice gives the same product, so the inserts are
+    // idempotent and can be hedged: a request with no response after 2 seconds is sent again, and
+    // the first response is used.
+    RetryPolicy policy =
+        RetryPolicy.newBuilder()
+            .setMaxAttempts(4)
+            .setInitialBackoffMillis(200)
+            .setMaxBackoffMillis(5_000)
+            .setRetryBudgetRatio(0.1)
+            .setHedgeDelayMillis(2_000)
+            .build();
+    // Runs the backoff and hedge timers only; the calls themselves are asynchronous.
+    ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor();
+
+    String parent = getParent(config.getAccountId().toString());
+
+    // Calls the API and catches and prints any network failures/errors.
+    try (ProductInputsServiceClient productInputsServiceClient =
+        ProductInputsServiceClient.create(productInputsServiceSettings)) {
+
+      PolicyCallable<InsertProductInputRequest, ProductInput> insertProductInput =
+          new PolicyCallable<>(
+              productInputsServiceClient.insertProductInputCallable(), policy, scheduler);
+
+      Semaphore inFlight = new Semaphore(MAX_IN_FLIGHT);
+      List<ApiFuture<ProductInput>> futures = new ArrayList<>(PRODUCT_COUNT);
+      long start = System.currentTimeMillis();
+      for (int i = 0; i < PRODUCT_COUNT; i++) {
+        InsertProductInputRequest request =
+            InsertProductInputRequest.newBuilder()
+                .setParent(parent)
+                .setDataSource(dataSource)
+                .setProductInput(createProduct(i))
+                .build();
+        inFlight.acquire();
+        ApiFuture<ProductInput> future = insertProductInput.futureCall(request);
+        future.addListener(inFlight::release, MoreExecutors.directExecutor());
+        futures.add(future);
+      }
+
+      // Each request succeeds or fails on its own, so one failure does not hide the others.
+      for (ApiFuture<ProductInput> future : futures) {
+        try {
+          future.get();
+        } catch (ExecutionException e) {
+          System.out.println("Insert failed: " + e.getCause());
+        }
+      }
+      System.out.printf(
+          "Inserted %d products in %d ms: %s%n",
+          PRODUCT_COUNT, System.currentTimeMillis() - start, insertProductInput);
+    } catch (Exception e) {
+      System.out.println(e);
+    } finally {
+      scheduler.shutdown();
+    }
+  }
+
+  public static void main(String[] args) throws Exception {
+    Config config = Config.load();
+    // Identifies the data source that will own the product inputs.
+    String dataSource = "accounts/" + config.getAccountId() + "/dataSources/{datasourceId}";
+
+    insertProductInputsWithRetryPolicy(config, dataSource);
+  }
+}
+// [END merchantapi_insert_product_inputs_with_retry_policy]
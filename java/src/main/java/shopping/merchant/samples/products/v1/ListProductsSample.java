@@ -64,6 +64,7 @@ public class ListProductsSample {
 
       // Iterates over all rows in all pages and prints the datasource in each row.
       // Automatically uses the `nextPageToken` if returned to fetch all pages of data.
+      // See ExportProductsSample for how to write many products faster than printing them.
       for (Product product : response.iterateAll()) {
 
         System.out.println(product); // The product includes the `productStatus` field
@@ -0,0 +1,96 @@
+// Copyright 2026 Google LLC
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     https://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package shopping.merchant.samples.products.v1;
+
+// [START merchantapi_replay_product_input_dead_letters]
+import com.google.api.gax.core.FixedCredentialsProvider;
+import com.google.api.gax.grpc.InstantiatingGrpcChannelProvider;
+import com.google.auth.oauth2.GoogleCredentials;
+import com.google.shopping.merchant.products.v1.InsertProductInputRequest;
+import com.google.shopping.merchant.products.v1.ProductInput;
+import com.google.shopping.merchant.products.v1.ProductInputsServiceClient;
+import com.google.shopping.merchant.products.v1.ProductInputsServiceSettings;
+import java.io.File;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import shopping.merchant.samples.utils.Authenticator;
+import shopping.merchant.samples.utils.BoundedAsyncWriter;
+import shopping.merchant.samples.utils.Config;
+import shopping.merchant.samples.utils.DeadLetterQueue;
+
+/**
+ * This class demonstrates how to send again the product input inserts that failed in {@link
+ * InsertProductInputAsyncSample}, from its dead letter file. The requests that fail again stay in
+ * the file, so the sample can be run until the file is gone.
+ */
+public class ReplayProductInputDeadLettersSample {
+
+  public static void replayProductInputDeadLetters(Path deadLetterFile) throws Exception {
+    List<DeadLetterQueue.DeadLetter<InsertProductInputRequest>> deadLetters =
+        DeadLetterQueue.read(deadLetterFile, InsertProductInputRequest.parser());
+    if (deadLetters.isEmpty()) {
+      System.out.println("No failed requests to replay in " + deadLetterFile);
+      return;
+    }
+
+    // Prints why the requests failed, e.g. to fix the data source before replaying.
+    Map<Integer, Integer> countByCode = new HashMap<>();
+    for (DeadLetterQueue.DeadLetter<InsertProductInputRequest> deadLetter : deadLetters) {
+      countByCode.merge(deadLetter.getStatus().getCode(), 1, Integer::sum);
+    }
+    System.out.printf(
+        "Replaying %d failed requests, by status code: %s%n", deadLetters.size(), countByCode);
+
+    // Obtains OAuth token based on the user's configuration.
+    GoogleCredentials credential = new Authenticator().authenticate();
+
+    // Creates service settings using the credentials retrieved above.
+    ProductInputsServiceSettings productInputsServiceSettings =
+        ProductInputsServiceSettings.newBuilder()
+            .setCredentialsProvider(FixedCredentialsProvider.create(credential))
+            .setTransportChannelProvider(
+                InstantiatingGrpcChannelProvider.newBuilder().setPoolSize(4).build())
+            .build();
+
+    // Calls the API and catches and prints any network failures/errors.
+    try (ProductInputsServiceClient productInputsServiceClient =
+        ProductInputsServiceClient.create(productInputsServiceSettings)) {
+
+      // Uses the same limit of requests in flight as the original inserts.
+      BoundedAsyncWriter<InsertProductInputRequest, ProductInput> writer =
+          DeadLetterQueue.replay(
+              deadLetterFile,
+              InsertProductInputRequest.parser(),
+              productInputsServiceClient.insertProductInputCallable()::futureCall,
+              InsertProductInputAsyncSample.MAX_IN_FLIGHT);
+      System.out.printf(
+          "Replayed %d requests: %d succeeded, %d failed again%n",
+          writer.getSubmitted(), writer.getSucceeded(), writer.getFailed());
+    } catch (Exception e) {
+      System.out.println(e);
+    }
+  }
+
+  public static void main(String[] args) throws Exception {
+    Config config = Config.load();
+    Path deadLetterFile =
+        new File(config.getPath(), InsertProductInputAsyncSample.DEAD_LETTER_FILE).toPath();
+
+    replayProductInputDeadLetters(deadLetterFile);
+  }
+}
+// [END merchantapi_replay_product_input_dead_letters]
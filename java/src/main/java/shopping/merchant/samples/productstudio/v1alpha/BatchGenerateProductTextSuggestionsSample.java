@@ -0,0 +1,169 @@
+// Copyright 2026 Google LLC
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     https://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package shopping.merchant.samples.productstudio.v1alpha;
+
+// [START merchantapi_batch_generate_product_text_suggestions]
+import com.google.api.gax.core.FixedCredentialsProvider;
+import com.google.auth.oauth2.GoogleCredentials;
+import com.google.protobuf.InvalidProtocolBufferException;
+import com.google.protobuf.Struct;
+import com.google.protobuf.Value;
+import com.google.protobuf.util.JsonFormat;
+import com.google.shopping.merchant.productstudio.v1alpha.GenerateProductTextSuggestionsResponse;
+import com.google.shopping.merchant.productstudio.v1alpha.OutputSpec;
+import com.google.shopping.merchant.productstudio.v1alpha.ProductInfo;
+import com.google.shopping.merchant.productstudio.v1alpha.TextSuggestionsServiceClient;
+import com.google.shopping.merchant.productstudio.v1alpha.TextSuggestionsServiceSettings;
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import shopping.merchant.samples.utils.Authenticator;
+import shopping.merchant.samples.utils.Config;
+
+/**
+ * This class demonstrates how to generate titles and descriptions for many products, sending a
+ * single request for all the products with the same attributes, e.g. variants.
+ *
+ * <p>The products are read from a file with one JSON object per line, e.g. {@code {"product":
+ * "sku-1", "attributes": {"title": "Mens shirt", "description": "A blue shirt for men"}}}.
+ */
+public class BatchGenerateProductTextSuggestionsSample {
+
+  // Maximum number of requests in flight at the same time, and per second.
+  private static final int MAX_CONCURRENT_REQUESTS = 10;
+  private static final double REQUESTS_PER_SECOND = 5;
+  // The workflows to run for every product.
+  private static final String[] WORKFLOW_IDS = {"title", "description"};
+
+  private static String getName(String accountId) {
+    return String.format("accounts/%s", accountId);
+  }
+
+  // Returns product ID -> product info.
+  private static Map<String, ProductInfo> readProducts(Path file) throws IOException {
+    JsonFormat.Parser parser = JsonFormat.parser();
+    Map<String, ProductInfo> products = new LinkedHashMap<>();
+    try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+      String line;
+      int lineNumber = 0;
+      while ((line = reader.readLine()) != null) {
+        lineNumber++;
+        if (line.trim().isEmpty()) {
+          continue;
+        }
+        Struct.Builder record = Struct.newBuilder();
+        try {
+          parser.merge(line, record);
+        } catch (InvalidProtocolBufferException e) {
+          System.out.printf("Skipping line %d of %s: %s%n", lineNumber, file, e.getMessage());
+          continue;
+        }
+        String product =
+            record.getFieldsOrDefault("product", Value.getDefaultInstance()).getStringValue();
+        ProductInfo.Builder productInfo = ProductInfo.newBuilder();
+        Struct attributes =
+            record.getFieldsOrDefault("attributes", Value.getDefaultInstance()).getStructValue();
+        for (Map.Entry<String, Value> attribute : attributes.getFieldsMap().entrySet()) {
+          productInfo.putProductAttributes(
+              attribute.getKey(), attribute.getValue().getStringValue());
+        }
+        products.put(product, productInfo.build());
+      }
+    }
+    return products;
+  }
+
+  public static void batchGenerateProductTextSuggestions(
+      Config config, Path productsFile, Path cacheFile, Path resultsFile) throws Exception {
+    // Obtains OAuth token based on the user's configuration.
+    GoogleCredentials credential = new Authenticator().authenticate();
+
+    // Creates service settings using the credentials retrieved above.
+    TextSuggestionsServiceSettings textSuggestionsServiceSettings =
+        TextSuggestionsServiceSettings.newBuilder()
+            .setCredentialsProvider(FixedCredentialsProvider.create(credential))
+            .build();
+
+    String name = getName(config.getAccountId().toString());
+    ExecutorService executor = Executors.newFixedThreadPool(MAX_CONCURRENT_REQUESTS);
+    JsonFormat.Printer printer = JsonFormat.printer().omittingInsignificantWhitespace();
+
+    // Calls the API and catches and prints any network failures/errors.
+    try (TextSuggestionsServiceClient textSuggestionsServiceClient =
+            TextSuggestionsServiceClient.create(textSuggestionsServiceSettings);
+        TextSuggestionBatcher batcher =
+            new TextSuggestionBatcher(
+                textSuggestionsServiceClient, name, executor, REQUESTS_PER_SECOND, cacheFile);
+        Writer results = Files.newBufferedWriter(resultsFile, StandardCharsets.UTF_8)) {
+
+      Map<String, ProductInfo> products = readProducts(productsFile);
+      for (String workflowId : WORKFLOW_IDS) {
+        OutputSpec outputSpec = OutputSpec.newBuilder().setWorkflowId(workflowId).build();
+        TextSuggestionBatcher.Summary summary =
+            batcher.generate(
+                products,
+                outputSpec,
+                new TextSuggestionBatcher.ResultHandler() {
+                  @Override
+                  public void onResult(
+                      String product, GenerateProductTextSuggestionsResponse response) {
+                    try {
+                      // One line per product and workflow, with the response in JSON.
+                      results.write(
+                          product + "\t" + workflowId + "\t" + printer.print(response) + "\n");
+                    } catch (IOException e) {
+                      throw new UncheckedIOException(e);
+                    }
+                  }
+
+                  @Override
+                  public void onFailure(String product, Throwable error) {
+                    System.out.printf("Failed %s for %s: %s%n", workflowId, product, error);
+                  }
+                });
+        System.out.printf("Workflow %s: %s%n", workflowId, summary);
+      }
+      System.out.println("Results written to " + resultsFile);
+    } catch (Exception e) {
+      System.out.println("An error has occurred: ");
+      System.out.println(e);
+    } finally {
+      executor.shutdown();
+      executor.awaitTermination(1, TimeUnit.MINUTES);
+    }
+  }
+
+  public static void main(String[] args) throws Exception {
+    Config config = Config.load();
+    Path productsFile = new File(config.getPath(), "products.jsonl").toPath();
+    // The responses of previous runs. Keep it to avoid sending the same requests again.
+    Path cacheFile = new File(config.getPath(), "text-suggestions-cache.tsv").toPath();
+    Path resultsFile = new File(config.getPath(), "text_suggestions.tsv").toPath();
+
+    batchGenerateProductTextSuggestions(config, productsFile, cacheFile, resultsFile);
+  }
+}
+
+// [END merchantapi_batch_generate_product_text_suggestions]
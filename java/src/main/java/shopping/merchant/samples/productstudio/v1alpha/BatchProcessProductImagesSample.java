@@ -0,0 +1,186 @@
+// Copyright 2026 Google LLC
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     https://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package shopping.merchant.samples.productstudio.v1alpha;
+
+// [START merchantapi_batch_process_product_images]
+import com.google.api.gax.core.FixedCredentialsProvider;
+import com.google.auth.oauth2.GoogleCredentials;
+import com.google.protobuf.InvalidProtocolBufferException;
+import com.google.protobuf.util.JsonFormat;
+import com.google.shopping.merchant.productstudio.v1alpha.GenerateImageBackgroundConfig;
+import com.google.shopping.merchant.productstudio.v1alpha.GeneratedImage;
+import com.google.shopping.merchant.productstudio.v1alpha.ImageServiceClient;
+import com.google.shopping.merchant.productstudio.v1alpha.ImageServiceSettings;
+import com.google.shopping.merchant.productstudio.v1alpha.OutputImageConfig;
+import com.google.shopping.merchant.productstudio.v1alpha.RemoveImageBackgroundConfig;
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import shopping.merchant.samples.productstudio.v1alpha.ProductImagePipeline.Job;
+import shopping.merchant.samples.productstudio.v1alpha.ProductImagePipeline.Operation;
+import shopping.merchant.samples.utils.Authenticator;
+import shopping.merchant.samples.utils.Config;
+
+/**
+ * This class demonstrates how to process the images of a whole product catalog with Product Studio,
+ * caching the results so that reruns and images shared by several products cost nothing.
+ *
+ * <p>The jobs are read from a tab-separated file with the columns product, image URI, operation
+ * ({@code GENERATE_BACKGROUND}, {@code REMOVE_BACKGROUND} or {@code UPSCALE}) and, optionally, the
+ * operation configuration in JSON, e.g. {@code {"productDescription": "a jar",
+ * "backgroundDescription": "on a marble table"}}.
+ */
+public class BatchProcessProductImagesSample {
+
+  // Maximum number of image requests in flight at the same time.
+  private static final int MAX_CONCURRENT_REQUESTS = 8;
+
+  private static String getName(String accountId) {
+    return String.format("accounts/%s", accountId);
+  }
+
+  private static List<Job> readJobs(Path file) throws IOException {
+    JsonFormat.Parser parser = JsonFormat.parser();
+    List<Job> jobs = new ArrayList<>();
+    try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+      String line;
+      int lineNumber = 0;
+      while ((line = reader.readLine()) != null) {
+        lineNumber++;
+        if (line.trim().isEmpty()) {
+          continue;
+        }
+        String[] columns = line.split("\t", -1);
+        try {
+          if (columns.length < 3) {
+            throw new IllegalArgumentException("Expected at least 3 columns");
+          }
+          String config = columns.length > 3 ? columns[3].trim() : "";
+          switch (Operation.valueOf(columns[2].trim())) {
+            case GENERATE_BACKGROUND:
+              GenerateImageBackgroundConfig.Builder generateConfig =
+                  GenerateImageBackgroundConfig.newBuilder();
+              parser.merge(config.isEmpty() ? "{}" : config, generateConfig);
+              jobs.add(Job.generateBackground(columns[0], columns[1], generateConfig.build()));
+              break;
+            case REMOVE_BACKGROUND:
+              RemoveImageBackgroundConfig.Builder removeConfig =
+                  RemoveImageBackgroundConfig.newBuilder();
+              parser.merge(config.isEmpty() ? "{}" : config, removeConfig);
+              jobs.add(Job.removeBackground(columns[0], columns[1], removeConfig.build()));
+              break;
+            case UPSCALE:
+              jobs.add(Job.upscale(columns[0], columns[1]));
+              break;
+          }
+        } catch (InvalidProtocolBufferException | IllegalArgumentException e) {
+          System.out.printf("Skipping line %d of %s: %s%n", lineNumber, file, e.getMessage());
+        }
+      }
+    }
+    return jobs;
+  }
+
+  public static void batchProcessProductImages(
+      Config config, Path jobsFile, Path cacheDirectory, Path resultsFile) throws Exception {
+    // Obtains OAuth token based on the user's configuration.
+    GoogleCredentials credential = new Authenticator().authenticate();
+
+    // Creates service settings using the credentials retrieved above.
+    ImageServiceSettings imageServiceSettings =
+        ImageServiceSettings.newBuilder()
+            .setCredentialsProvider(FixedCredentialsProvider.create(credential))
+            .build();
+
+    String name = getName(config.getAccountId().toString());
+    ExecutorService executor = Executors.newFixedThreadPool(MAX_CONCURRENT_REQUESTS);
+
+    // Calls the API and catches and prints any network failures/errors.
+    try (ImageServiceClient imageServiceClient = ImageServiceClient.create(imageServiceSettings);
+        Writer results = Files.newBufferedWriter(resultsFile, StandardCharsets.UTF_8)) {
+
+      // Set this field to false to return the image bytes in the response instead. The bytes are
+      // then stored in the cache too.
+      OutputImageConfig outputImageConfig =
+          OutputImageConfig.newBuilder().setReturnImageUri(true).build();
+      ProductImagePipeline pipeline =
+          new ProductImagePipeline(
+              imageServiceClient, name, outputImageConfig, executor, cacheDirectory);
+
+      List<Job> jobs = readJobs(jobsFile);
+      List<CompletableFuture<GeneratedImage>> futures = new ArrayList<>(jobs.size());
+      for (Job job : jobs) {
+        futures.add(pipeline.process(job));
+      }
+
+      // Writes one line per job, in the order of the jobs file.
+      int failed = 0;
+      results.write("product\timage_uri\toperation\tresult\n");
+      for (int i = 0; i < jobs.size(); i++) {
+        Job job = jobs.get(i);
+        String result;
+        try {
+          GeneratedImage image = futures.get(i).join();
+          result = image.getUri().isEmpty() ? "(image bytes)" : image.getUri();
+        } catch (Exception e) {
+          failed++;
+          result = "FAILED: " + e.getCause();
+        }
+        String[] columns = {
+          job.getProduct(), job.getImageUri(), job.getOperation().name(), result
+        };
+        results.write(String.join("\t", columns) + "\n");
+      }
+
+      System.out.printf(
+          "Processed %d jobs with %d calls, %d cached results and %d shared calls (%d failed)%n",
+          jobs.size(),
+          pipeline.getCalls(),
+          pipeline.getCacheHits(),
+          pipeline.getShared(),
+          failed);
+      System.out.println("Results written to " + resultsFile);
+    } catch (Exception e) {
+      System.out.println("An error has occurred: ");
+      System.out.println(e);
+    } finally {
+      executor.shutdown();
+      executor.awaitTermination(1, TimeUnit.MINUTES);
+    }
+  }
+
+  public static void main(String[] args) throws Exception {
+    Config config = Config.load();
+    // The jobs to run, one per line.
+    Path jobsFile = new File(config.getPath(), "image_jobs.tsv").toPath();
+    // The generated images of previous runs. Keep it to avoid calling the API again.
+    Path cacheDirectory = new File(config.getPath(), "product-image-cache").toPath();
+    Path resultsFile = new File(config.getPath(), "image_results.tsv").toPath();
+
+    batchProcessProductImages(config, jobsFile, cacheDirectory, resultsFile);
+  }
+}
+
+// [END merchantapi_batch_process_product_images]
@@ -0,0 +1,245 @@
+// Copyright 2026 Google LLC
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     https://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package shopping.merchant.samples.productstudio.v1alpha;
+
+import com.google.protobuf.Message;
+import com.google.shopping.merchant.productstudio.v1alpha.GenerateImageBackgroundConfig;
+import com.google.shopping.merchant.productstudio.v1alpha.GenerateProductImageBackgroundRequest;
+import com.google.shopping.merchant.productstudio.v1alpha.GeneratedImage;
+import com.google.shopping.merchant.productstudio.v1alpha.ImageServiceClient;
+import com.google.shopping.merchant.productstudio.v1alpha.InputImage;
+import com.google.shopping.merchant.productstudio.v1alpha.OutputImageConfig;
+import com.google.shopping.merchant.productstudio.v1alpha.RemoveImageBackgroundConfig;
+import com.google.shopping.merchant.productstudio.v1alpha.RemoveProductImageBackgroundRequest;
+import com.google.shopping.merchant.productstudio.v1alpha.UpscaleProductImageRequest;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicLong;
+import shopping.merchant.samples.utils.ContentHash;
+
+/**
+ * Runs Product Studio image operations for many product images over one shared {@link
+ * ImageServiceClient}, and caches the generated images on disk.
+ *
+ * <p>The cache is content-addressed: a result is stored under a hash of the input image URI, the
+ * operation, its configuration and the output configuration, and does not depend on the product.
+ * So running the pipeline again, or processing the same image for several variants of a product,
+ * does not call the API again. Concurrent jobs with the same key share a single call, and failed
+ * calls are not cached. The executor bounds the number of calls in flight.
+ */
+public class ProductImagePipeline {
+
+  /** The image operations of the Product Studio API. */
+  public enum Operation {
+    GENERATE_BACKGROUND,
+    REMOVE_BACKGROUND,
+    UPSCALE
+  }
+
+  /** An operation to run on an image of a product. */
+  public static final class Job {
+    private final String product;
+    private final String imageUri;
+    private final Operation operation;
+    // GenerateImageBackgroundConfig, RemoveImageBackgroundConfig, or null for UPSCALE.
+    private final Message config;
+
+    private Job(String product, String imageUri, Operation operation, Message config) {
+      this.product = product;
+      this.imageUri = imageUri;
+      this.operation = operation;
+      this.config = config;
+    }
+
+    public static Job generateBackground(
+        String product, String imageUri, GenerateImageBackgroundConfig config) {
+      return new Job(product, imageUri, Operation.GENERATE_BACKGROUND, config);
+    }
+
+    public static Job removeBackground(
+        String product, String imageUri, RemoveImageBackgroundConfig config) {
+      return new Job(product, imageUri, Operation.REMOVE_BACKGROUND, config);
+    }
+
+    public static Job upscale(String product, String imageUri) {
+      return new Job(product, imageUri, Operation.UPSCALE, null);
+    }
+
+    public String getProduct() {
+      return product;
+    }
+
+    public String getImageUri() {
+      return imageUri;
+    }
+
+    public Operation getOperation() {
+      return operation;
+    }
+  }
+
+  private final ImageServiceClient client;
+  private final String name;
+  private final OutputImageConfig outputConfig;
+  private final ExecutorService executor;
+  private final Path cacheDirectory;
+  // Calls in flight by cache key.
+  private final ConcurrentHashMap<String, CompletableFuture<GeneratedImage>> pending =
+      new ConcurrentHashMap<>();
+  private final AtomicLong calls = new AtomicLong();
+  private final AtomicLong cacheHits = new AtomicLong();
+  private final AtomicLong shared = new AtomicLong();
+
+  /**
+   * Creates a pipeline.
+   *
+   * @param name the account name, in the format {@code accounts/{account}}.
+   * @param outputConfig whether the generated images are returned as URIs or as bytes.
+   * @param cacheDirectory the directory of the cached results, created if needed.
+   */
+  public ProductImagePipeline(
+      ImageServiceClient client,
+      String name,
+      OutputImageConfig outputConfig,
+      ExecutorService executor,
+      Path cacheDirectory)
+      throws IOException {
+    this.client = client;
+    this.name = name;
+    this.outputConfig = outputConfig;
+    this.executor = executor;
+    this.cacheDirectory = Files.createDirectories(cacheDirectory);
+  }
+
+  /** Returns the generated image of the job, either from the cache or from a new call. */
+  public CompletableFuture<GeneratedImage> process(Job job) {
+    String key = cacheKey(job);
+    CompletableFuture<GeneratedImage> created = new CompletableFuture<>();
+    CompletableFuture<GeneratedImage> existing = pending.putIfAbsent(key, created);
+    if (existing != null) {
+      shared.incrementAndGet();
+      return existing;
+    }
+    CompletableFuture<GeneratedImage> call;
+    try {
+      call = CompletableFuture.supplyAsync(() -> loadOrCall(key, job), executor);
+    } catch (RejectedExecutionException e) {
+      // E.g. the executor was shut down. Otherwise the jobs with this key would wait forever.
+      pending.remove(key, created);
+      created.completeExceptionally(e);
+      return created;
+    }
+    call.whenComplete(
+        (image, throwable) -> {
+          // The cache file answers the next jobs with this key, so the call is forgotten.
+          pending.remove(key, created);
+          if (throwable != null) {
+            created.completeExceptionally(throwable);
+          } else {
+            created.complete(image);
+          }
+        });
+    return created;
+  }
+
+  /** Returns the number of calls sent to the API. */
+  public long getCalls() {
+    return calls.get();
+  }
+
+  /** Returns the number of jobs answered from the cache directory. */
+  public long getCacheHits() {
+    return cacheHits.get();
+  }
+
+  /** Returns the number of jobs that shared the call of a concurrent job with the same key. */
+  public long getShared() {
+    return shared.get();
+  }
+
+  private GeneratedImage loadOrCall(String key, Job job) {
+    Path file = cacheDirectory.resolve(key + ".pb");
+    try {
+      if (Files.exists(file)) {
+        cacheHits.incrementAndGet();
+        return GeneratedImage.parseFrom(Files.readAllBytes(file));
+      }
+      calls.incrementAndGet();
+      GeneratedImage image = call(job);
+      // Written to a temporary file first, so that a crash never leaves a partial result.
+      Path temporary = Files.createTempFile(cacheDirectory, key, ".tmp");
+      Files.write(temporary, image.toByteArray());
+      Files.move(
+          temporary, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+      return image;
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  private GeneratedImage call(Job job) {
+    InputImage inputImage = InputImage.newBuilder().setImageUri(job.imageUri).build();
+    switch (job.operation) {
+      case GENERATE_BACKGROUND:
+        return client
+            .generateProductImageBackground(
+                GenerateProductImageBackgroundRequest.newBuilder()
+                    .setName(name)
+                    .setOutputConfig(outputConfig)
+                    .setInputImage(inputImage)
+                    .setConfig((GenerateImageBackgroundConfig) job.config)
+                    .build())
+            .getGeneratedImage();
+      case REMOVE_BACKGROUND:
+        return client
+            .removeProductImageBackground(
+                RemoveProductImageBackgroundRequest.newBuilder()
+                    .setName(name)
+                    .setOutputConfig(outputConfig)
+                    .setInputImage(inputImage)
+                    .setConfig((RemoveImageBackgroundConfig) job.config)
+                    .build())
+            .getGeneratedImage();
+      case UPSCALE:
+        return client
+            .upscaleProductImage(
+                UpscaleProductImageRequest.newBuilder()
+                    .setName(name)
+                    .setOutputConfig(outputConfig)
+                    .setInputImage(inputImage)
+                    .build())
+            .getGeneratedImage();
+      default:
+        throw new IllegalArgumentException("Unknown operation " + job.operation);
+    }
+  }
+
+  // Returns the hex SHA-256 hash of the inputs that determine the generated image.
+  private String cacheKey(Job job) {
+    return new ContentHash()
+        .putString(job.imageUri)
+        .putString(job.operation.name())
+        .putMessage(job.config)
+        .putMessage(outputConfig)
+        .toHex();
+  }
+}
@@ -0,0 +1,280 @@
+// Copyright 2026 Google LLC
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     https://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package shopping.merchant.samples.productstudio.v1alpha;
+
+import com.google.common.util.concurrent.RateLimiter;
+import com.google.protobuf.InvalidProtocolBufferException;
+import com.google.shopping.merchant.productstudio.v1alpha.GenerateProductTextSuggestionsRequest;
+import com.google.shopping.merchant.productstudio.v1alpha.GenerateProductTextSuggestionsResponse;
+import com.google.shopping.merchant.productstudio.v1alpha.OutputSpec;
+import com.google.shopping.merchant.productstudio.v1alpha.ProductInfo;
+import com.google.shopping.merchant.productstudio.v1alpha.TextSuggestionsServiceClient;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.atomic.AtomicInteger;
+import shopping.merchant.samples.utils.ContentHash;
+
+/**
+ * Generates text suggestions for many products, sending one request per distinct product info.
+ *
+ * <p>Variants of a product often have the same attributes, or attributes that only differ in case
+ * of the name or in whitespace. The attributes of each product are normalized, and the products
+ * are grouped by a hash of their normalized info and the output spec. Only one request is sent per
+ * group, and its response is passed on to every product of the group. Responses are appended to a
+ * cache file, so later runs only send requests for new or changed product infos.
+ *
+ * <p>Requests run on the given executor, which bounds the number in flight, and take a permit from
+ * a rate limiter first, to stay within the quota.
+ */
+public class TextSuggestionBatcher implements AutoCloseable {
+
+  /** Receives the response of each product. Calls are made one at a time. */
+  public interface ResultHandler {
+    void onResult(String product, GenerateProductTextSuggestionsResponse response);
+
+    void onFailure(String product, Throwable error);
+  }
+
+  /** The number of products and requests per outcome. */
+  public static final class Summary {
+    private final AtomicInteger products = new AtomicInteger();
+    private final AtomicInteger distinct = new AtomicInteger();
+    private final AtomicInteger cached = new AtomicInteger();
+    private final AtomicInteger sent = new AtomicInteger();
+    private final AtomicInteger failed = new AtomicInteger();
+
+    public int getProducts() {
+      return products.get();
+    }
+
+    /** Returns the number of distinct product infos. */
+    public int getDistinct() {
+      return distinct.get();
+    }
+
+    /** Returns the number of distinct product infos answered by the cache. */
+    public int getCached() {
+      return cached.get();
+    }
+
+    /** Returns the number of requests sent. */
+    public int getSent() {
+      return sent.get();
+    }
+
+    /** Returns the number of requests that failed. */
+    public int getFailed() {
+      return failed.get();
+    }
+
+    @Override
+    public String toString() {
+      return String.format(
+          "%d products, %d distinct, %d cached, %d requests sent, %d failed",
+          products.get(), distinct.get(), cached.get(), sent.get(), failed.get());
+    }
+  }
+
+  private final TextSuggestionsServiceClient client;
+  private final String name;
+  private final ExecutorService executor;
+  private final RateLimiter rateLimiter;
+  private final Map<String, GenerateProductTextSuggestionsResponse> cache =
+      new ConcurrentHashMap<>();
+  private final Writer cacheWriter;
+
+  /**
+   * Creates a batcher.
+   *
+   * @param name the account name, in the format {@code accounts/{account}}.
+   * @param requestsPerSecond the maximum rate of requests.
+   * @param cacheFile the file of the responses of previous runs, created if needed.
+   */
+  public TextSuggestionBatcher(
+      TextSuggestionsServiceClient client,
+      String name,
+      ExecutorService executor,
+      double requestsPerSecond,
+      Path cacheFile)
+      throws IOException {
+    this.client = client;
+    this.name = name;
+    this.executor = executor;
+    this.rateLimiter = RateLimiter.create(requestsPerSecond);
+    if (Files.exists(cacheFile)) {
+      try (BufferedReader reader = Files.newBufferedReader(cacheFile, StandardCharsets.UTF_8)) {
+        String line;
+        while ((line = reader.readLine()) != null) {
+          String[] columns = line.split("\t", -1);
+          if (columns.length != 2) {
+            continue;
+          }
+          try {
+            cache.put(
+                columns[0],
+                GenerateProductTextSuggestionsResponse.parseFrom(
+                    Base64.getDecoder().decode(columns[1])));
+          } catch (InvalidProtocolBufferException | IllegalArgumentException e) {
+            // Ignores a partially written last line from a crashed run.
+          }
+        }
+      }
+    }
+    this.cacheWriter =
+        Files.newBufferedWriter(
+            cacheFile,
+            StandardCharsets.UTF_8,
+            StandardOpenOption.CREATE,
+            StandardOpenOption.APPEND);
+  }
+
+  /**
+   * Returns the product info with normalized attributes: names are trimmed and lower case, values
+   * are trimmed with runs of whitespace replaced by a single space, and empty attributes are
+   * removed.
+   */
+  public static ProductInfo normalize(ProductInfo productInfo) {
+    Map<String, String> attributes = new HashMap<>();
+    for (Map.Entry<String, String> entry : productInfo.getProductAttributesMap().entrySet()) {
+      String attributeName = entry.getKey().trim().toLowerCase(Locale.ROOT);
+      String value = entry.getValue().trim().replaceAll("\\s+", " ");
+      if (!attributeName.isEmpty() && !value.isEmpty()) {
+        attributes.put(attributeName, value);
+      }
+    }
+    return productInfo.toBuilder()
+        .clearProductAttributes()
+        .putAllProductAttributes(attributes)
+        .build();
+  }
+
+  /**
+   * Generates the suggestions of every product, and waits until the handler has received all of
+   * them.
+   *
+   * @param products product ID -> product info.
+   */
+  public Summary generate(
+      Map<String, ProductInfo> products, OutputSpec outputSpec, ResultHandler handler) {
+    Summary summary = new Summary();
+    // Groups the products by the key of their normalized info.
+    Map<String, ProductInfo> infoByKey = new HashMap<>();
+    Map<String, List<String>> productsByKey = new LinkedHashMap<>();
+    for (Map.Entry<String, ProductInfo> entry : products.entrySet()) {
+      summary.products.incrementAndGet();
+      ProductInfo normalized = normalize(entry.getValue());
+      String key = key(normalized, outputSpec);
+      infoByKey.putIfAbsent(key, normalized);
+      productsByKey.computeIfAbsent(key, k -> new ArrayList<>()).add(entry.getKey());
+    }
+    summary.distinct.set(productsByKey.size());
+
+    List<CompletableFuture<Void>> futures = new ArrayList<>();
+    for (Map.Entry<String, List<String>> entry : productsByKey.entrySet()) {
+      String key = entry.getKey();
+      List<String> group = entry.getValue();
+      GenerateProductTextSuggestionsResponse cached = cache.get(key);
+      if (cached != null) {
+        summary.cached.incrementAndGet();
+        fanOut(group, cached, null, handler);
+        continue;
+      }
+      GenerateProductTextSuggestionsRequest request =
+          GenerateProductTextSuggestionsRequest.newBuilder()
+              .setName(name)
+              .setProductInfo(infoByKey.get(key))
+              .setOutputSpec(outputSpec)
+              .build();
+      futures.add(
+          CompletableFuture.supplyAsync(
+                  () -> {
+                    rateLimiter.acquire();
+                    summary.sent.incrementAndGet();
+                    return client.generateProductTextSuggestions(request);
+                  },
+                  executor)
+              .handle(
+                  (response, throwable) -> {
+                    if (throwable != null) {
+                      summary.failed.incrementAndGet();
+                      fanOut(group, null, throwable.getCause(), handler);
+                    } else {
+                      store(key, response);
+                      fanOut(group, response, null, handler);
+                    }
+                    return null;
+                  }));
+    }
+    CompletableFuture.allOf(futures.toArray(new CompletableFuture<?>[0])).join();
+    return summary;
+  }
+
+  @Override
+  public void close() throws IOException {
+    synchronized (cacheWriter) {
+      cacheWriter.close();
+    }
+  }
+
+  private void store(String key, GenerateProductTextSuggestionsResponse response) {
+    cache.put(key, response);
+    try {
+      synchronized (cacheWriter) {
+        cacheWriter.write(
+            key + "\t" + Base64.getEncoder().encodeToString(response.toByteArray()) + "\n");
+        cacheWriter.flush();
+      }
+    } catch (IOException e) {
+      // The response is still used, but will be requested again on the next run.
+      System.out.println("Failed to write the cache: " + e);
+    }
+  }
+
+  private static void fanOut(
+      List<String> group,
+      GenerateProductTextSuggestionsResponse response,
+      Throwable error,
+      ResultHandler handler) {
+    synchronized (handler) {
+      for (String product : group) {
+        if (error != null) {
+          handler.onFailure(product, error);
+        } else {
+          handler.onResult(product, response);
+        }
+      }
+    }
+  }
+
+  // Returns the hex SHA-256 hash of the normalized product info and the output spec.
+  private static String key(ProductInfo normalized, OutputSpec outputSpec) {
+    return new ContentHash().putMessage(normalized).putMessage(outputSpec).toHex();
+  }
+}
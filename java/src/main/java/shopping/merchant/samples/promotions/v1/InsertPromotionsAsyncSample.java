@@ -16,12 +16,9 @@
 package shopping.merchant.samples.promotions.v1;
 // [START merchantapi_insert_promotions_async]
 import com.google.api.core.ApiFuture;
-import com.google.api.core.ApiFutureCallback;
-import com.google.api.core.ApiFutures;
 import com.google.api.gax.core.FixedCredentialsProvider;
 import com.google.api.gax.grpc.InstantiatingGrpcChannelProvider;
 import com.google.auth.oauth2.GoogleCredentials;
-import com.google.common.util.concurrent.MoreExecutors;
 import com.google.protobuf.Timestamp;
 import com.google.shopping.merchant.promotions.v1.Attributes;
 import com.google.shopping.merchant.promotions.v1.CouponValueType;
@@ -35,16 +32,25 @@ import com.google.shopping.merchant.promotions.v1.RedemptionChannel;
 import com.google.shopping.type.CustomAttribute;
 import com.google.shopping.type.Destination.DestinationEnum;
 import com.google.type.Interval;
+import java.io.File;
+import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Random;
-import java.util.stream.Collectors;
+import java.util.concurrent.ExecutionException;
 import shopping.merchant.samples.utils.Authenticator;
+import shopping.merchant.samples.utils.BoundedAsyncWriter;
 import shopping.merchant.samples.utils.Config;
+import shopping.merchant.samples.utils.DeadLetterQueue;
 
 /** This class demonstrates how to insert multiple promotions asynchronously. */
 public class InsertPromotionsAsyncSample {
 
+  // The file of the failed requests, in the configuration directory.
+  static final String DEAD_LETTER_FILE = "promotion-dead-letters.pb";
+  // Maximum number of insert requests in flight at the same time.
+  static final int MAX_IN_FLIGHT = 100;
+
   private static String generateRandomString() {
     String characters = "ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz0123456789";
     Random random = new Random();
@@ -94,7 +100,8 @@ public class InsertPromotionsAsyncSample {
         .build();
   }
 
-  public static void asyncInsertPromotions(String accountId, String dataSourceId) throws Exception {
+  public static void asyncInsertPromotions(
+      String accountId, String dataSourceId, Path deadLetterFile) throws Exception {
     GoogleCredentials credential = new Authenticator().authenticate();
 
     // Creates a channel provider. This provider manages a pool of gRPC channels
@@ -120,6 +127,8 @@ public class InsertPromotionsAsyncSample {
         PromotionsServiceClient.create(merchantPromotionsServiceSettings)) {
 
       // Arbitrarily creates five merchant promotions with random IDs.
+      // See LoadPromotionsSample for how to insert many promotions with bounded concurrency,
+      // skipping those that have not changed.
       List<InsertPromotionRequest> requests = new ArrayList<>();
       for (int i = 0; i < 5; i++) {
         InsertPromotionRequest request =
@@ -132,39 +141,42 @@ public class InsertPromotionsAsyncSample {
       }
 
       // Inserts the merchant promotions.
-      List<ApiFuture<Promotion>> futures =
-          requests.stream()
-              .map(
-                  request ->
-                      merchantPromotionsServiceClient.insertPromotionCallable().futureCall(request))
-              .collect(Collectors.toList());
-
-      // Creates callback to handle the responses when all are ready.
-      ApiFuture<List<Promotion>> responses = ApiFutures.allAsList(futures);
-      ApiFutures.addCallback(
-          responses,
-          new ApiFutureCallback<List<Promotion>>() {
-            @Override
-            public void onSuccess(List<Promotion> results) {
-              System.out.println("Inserted merchant promotions below:");
-              System.out.println(results);
-            }
-
-            @Override
-            public void onFailure(Throwable throwable) {
-              System.out.println(throwable);
-            }
-          },
-          MoreExecutors.directExecutor());
+      // Requests that fail are added to a dead letter file with the status of their failure, and
+      // the other requests are not affected. Run ReplayPromotionDeadLettersSample to send the
+      // failed requests again.
+      try (DeadLetterQueue<InsertPromotionRequest> deadLetters =
+          new DeadLetterQueue<>(deadLetterFile)) {
+        BoundedAsyncWriter<InsertPromotionRequest, Promotion> writer =
+            new BoundedAsyncWriter<>(
+                merchantPromotionsServiceClient.insertPromotionCallable()::futureCall,
+                MAX_IN_FLIGHT,
+                deadLetters);
+        List<ApiFuture<Promotion>> futures = new ArrayList<>(requests.size());
+        for (InsertPromotionRequest request : requests) {
+          futures.add(writer.submit(request));
+        }
+        writer.awaitCompletion();
+
+        System.out.println("Inserted merchant promotions below:");
+        for (ApiFuture<Promotion> future : futures) {
+          try {
+            System.out.println(future.get());
+          } catch (ExecutionException e) {
+            // Already in the dead letter file.
+          }
+        }
+        System.out.println(writer);
+      }
     } catch (Exception e) {
       System.out.println(e);
     }
   }
 
-
   public static void main(String[] args) throws Exception {
     Config config = Config.load();
-    asyncInsertPromotions(config.getAccountId().toString(), "<YOUR_DATA_SOURCE_ID>");
+    Path deadLetterFile = new File(config.getPath(), DEAD_LETTER_FILE).toPath();
+    asyncInsertPromotions(
+        config.getAccountId().toString(), "<YOUR_DATA_SOURCE_ID>", deadLetterFile);
   }
 }
 // [END merchantapi_insert_promotions_async]
\ No newline at end of file
@@ -0,0 +1,135 @@
+// Copyright 2026 Google LLC
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     https://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package shopping.merchant.samples.promotions.v1;
+// [START merchantapi_load_promotions]
+import com.google.api.gax.core.FixedCredentialsProvider;
+import com.google.api.gax.grpc.InstantiatingGrpcChannelProvider;
+import com.google.auth.oauth2.GoogleCredentials;
+import com.google.protobuf.InvalidProtocolBufferException;
+import com.google.protobuf.util.JsonFormat;
+import com.google.shopping.merchant.promotions.v1.Promotion;
+import com.google.shopping.merchant.promotions.v1.PromotionsServiceClient;
+import com.google.shopping.merchant.promotions.v1.PromotionsServiceSettings;
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import shopping.merchant.samples.utils.Authenticator;
+import shopping.merchant.samples.utils.Config;
+
+/**
+ * This class demonstrates how to keep the promotions of a data source in sync with a promotion
+ * calendar file, inserting only the promotions that are new or changed since the last run.
+ */
+public class LoadPromotionsSample {
+
+  // Maximum number of insertPromotion requests in flight at the same time.
+  private static final int MAX_CONCURRENT_REQUESTS = 100;
+
+  // Reads one promotion per line, in the JSON format of the Promotion message.
+  private static List<Promotion> readPromotions(Path file) throws IOException {
+    JsonFormat.Parser parser = JsonFormat.parser().ignoringUnknownFields();
+    List<Promotion> promotions = new ArrayList<>();
+    try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+      String line;
+      int lineNumber = 0;
+      while ((line = reader.readLine()) != null) {
+        lineNumber++;
+        if (line.trim().isEmpty()) {
+          continue;
+        }
+        Promotion.Builder promotion = Promotion.newBuilder();
+        try {
+          parser.merge(line, promotion);
+        } catch (InvalidProtocolBufferException e) {
+          System.out.printf("Skipping line %d of %s: %s%n", lineNumber, file, e.getMessage());
+          continue;
+        }
+        promotions.add(promotion.build());
+      }
+    }
+    return promotions;
+  }
+
+  public static void loadPromotions(
+      String accountId,
+      String dataSourceId,
+      Path promotionsFile,
+      Path indexFile,
+      boolean checkDrift)
+      throws Exception {
+    GoogleCredentials credential = new Authenticator().authenticate();
+
+    // The 100 concurrent promotion inserts are spread over 2 channels, leaving headroom on each.
+    // See InsertProductInputAsyncSample for how to size the pool.
+    InstantiatingGrpcChannelProvider channelProvider =
+        InstantiatingGrpcChannelProvider.newBuilder()
+            .setPoolSize(Math.max(1, MAX_CONCURRENT_REQUESTS / 50))
+            .build();
+
+    PromotionsServiceSettings promotionsServiceSettings =
+        PromotionsServiceSettings.newBuilder()
+            .setCredentialsProvider(FixedCredentialsProvider.create(credential))
+            .setTransportChannelProvider(channelProvider)
+            .build();
+
+    String parent = String.format("accounts/%s", accountId);
+    String dataSource = String.format("accounts/%s/dataSources/%s", accountId, dataSourceId);
+
+    try (PromotionsServiceClient promotionsServiceClient =
+            PromotionsServiceClient.create(promotionsServiceSettings);
+        PromotionHashIndex index = new PromotionHashIndex(indexFile)) {
+
+      List<Promotion> promotions = readPromotions(promotionsFile);
+      System.out.printf(
+          "Read %d promotions, %d inserted by previous runs%n", promotions.size(), index.size());
+
+      PromotionLoader loader =
+          new PromotionLoader(
+              promotionsServiceClient, parent, dataSource, index, MAX_CONCURRENT_REQUESTS);
+      if (checkDrift) {
+        // Promotions that were deleted or changed in the account are inserted again below.
+        loader.checkDrift(promotions);
+      }
+
+      long start = System.currentTimeMillis();
+      PromotionLoader.LoadSummary summary = loader.load(promotions);
+      System.out.printf(
+          "Loaded promotions in %d ms: %s%n", System.currentTimeMillis() - start, summary);
+    } catch (Exception e) {
+      System.out.println(e);
+    }
+  }
+
+  public static void main(String[] args) throws Exception {
+    Config config = Config.load();
+    String dataSourceId = "<YOUR_DATA_SOURCE_ID>";
+    // The promotion calendar, with one Promotion per line in JSON format.
+    Path promotionsFile = new File(config.getPath(), "promotions.jsonl").toPath();
+    // The hashes of the promotions inserted so far. Keep it between runs, one per data source.
+    Path indexFile = new File(config.getPath(), "promotions-index.tsv").toPath();
+    // Listing all the promotions of the account costs a few calls, so it can be skipped when the
+    // account is only changed through this loader.
+    boolean checkDrift = true;
+
+    loadPromotions(
+        config.getAccountId().toString(), dataSourceId, promotionsFile, indexFile, checkDrift);
+  }
+}
+// [END merchantapi_load_promotions]
@@ -0,0 +1,139 @@
+// Copyright 2026 Google LLC
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     https://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package shopping.merchant.samples.promotions.v1;
+
+import com.google.shopping.merchant.promotions.v1.Promotion;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import shopping.merchant.samples.utils.ContentHash;
+
+/**
+ * Remembers a hash of the last promotion successfully inserted for each promotion key, so that
+ * unchanged promotions can be skipped on the next run.
+ *
+ * <p>The index is a tab-separated file of {@code key, hash} lines. Changes are appended and flushed
+ * right away, so an interrupted run keeps everything inserted so far. A line with an empty hash
+ * removes the key. When the file holds many more lines than keys, it is rewritten on open.
+ */
+public class PromotionHashIndex implements AutoCloseable {
+
+  // Rewrites the file when it has more than this many lines per key.
+  private static final int MAX_LINES_PER_KEY = 2;
+
+  private final Map<String, String> hashes = new ConcurrentHashMap<>();
+  private final Writer writer;
+
+  public PromotionHashIndex(Path file) throws IOException {
+    long lines = 0;
+    if (Files.exists(file)) {
+      try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+        String line;
+        while ((line = reader.readLine()) != null) {
+          lines++;
+          String[] columns = line.split("\t", -1);
+          // Ignores a partially written last line from a crashed run.
+          if (columns.length != 2) {
+            continue;
+          }
+          if (columns[1].isEmpty()) {
+            hashes.remove(columns[0]);
+          } else {
+            hashes.put(columns[0], columns[1]);
+          }
+        }
+      }
+    }
+    if (lines > (long) MAX_LINES_PER_KEY * hashes.size()) {
+      compact(file);
+    }
+    this.writer =
+        Files.newBufferedWriter(
+            file, StandardCharsets.UTF_8, StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+  }
+
+  /** Returns the key identifying a promotion: its target country, language and promotion ID. */
+  public static String key(Promotion promotion) {
+    return promotion.getTargetCountry()
+        + "/"
+        + promotion.getContentLanguage()
+        + "/"
+        + promotion.getPromotionId();
+  }
+
+  /**
+   * Returns a SHA-256 hash of the promotion. The deterministic serialization makes equal messages
+   * hash the same, whatever the order their fields were set in.
+   */
+  public static String hash(Promotion promotion) {
+    return new ContentHash().putMessage(promotion).toHex();
+  }
+
+  /** Returns whether the promotion was inserted before with exactly the same content. */
+  public boolean isUnchanged(String key, String hash) {
+    return hash.equals(hashes.get(key));
+  }
+
+  /** Returns whether the key was inserted before, whatever its content. */
+  public boolean contains(String key) {
+    return hashes.containsKey(key);
+  }
+
+  /** Records that the promotion was inserted with the given hash. */
+  public synchronized void put(String key, String hash) throws IOException {
+    append(key, hash);
+    hashes.put(key, hash);
+  }
+
+  /** Forgets the key, so that its promotion is inserted again on the next load. */
+  public synchronized void remove(String key) throws IOException {
+    if (hashes.remove(key) != null) {
+      append(key, "");
+    }
+  }
+
+  public int size() {
+    return hashes.size();
+  }
+
+  @Override
+  public synchronized void close() throws IOException {
+    writer.close();
+  }
+
+  private void append(String key, String hash) throws IOException {
+    writer.write(key + "\t" + hash + "\n");
+    writer.flush();
+  }
+
+  // Writes the current entries to a temporary file, and moves it over the index.
+  private void compact(Path file) throws IOException {
+    Path temporary = file.resolveSibling(file.getFileName() + ".tmp");
+    try (Writer output = Files.newBufferedWriter(temporary, StandardCharsets.UTF_8)) {
+      for (Map.Entry<String, String> entry : hashes.entrySet()) {
+        output.write(entry.getKey() + "\t" + entry.getValue() + "\n");
+      }
+    }
+    Files.move(
+        temporary, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+  }
+}
@@ -0,0 +1,216 @@
+// Copyright 2026 Google LLC
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     https://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package shopping.merchant.samples.promotions.v1;
+
+import com.google.api.core.ApiFuture;
+import com.google.api.core.ApiFutureCallback;
+import com.google.api.core.ApiFutures;
+import com.google.common.util.concurrent.MoreExecutors;
+import com.google.shopping.merchant.promotions.v1.InsertPromotionRequest;
+import com.google.shopping.merchant.promotions.v1.ListPromotionsRequest;
+import com.google.shopping.merchant.promotions.v1.Promotion;
+import com.google.shopping.merchant.promotions.v1.PromotionsServiceClient;
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Inserts a large set of promotions, skipping those that have not changed since the last run.
+ *
+ * <p>Each promotion is hashed and compared with the {@link PromotionHashIndex}, and only new or
+ * changed promotions are inserted. Inserts are sent asynchronously, with at most {@code
+ * maxInFlight} of them in flight. The index is updated as each insert succeeds, so a failed or
+ * interrupted load can simply be run again.
+ *
+ * <p>Because the index only reflects what this loader sent, {@link #checkDrift} compares it with
+ * the promotions returned by {@code listPromotions}, and forgets the promotions that are missing
+ * or were changed by someone else, so that the next {@link #load} inserts them again.
+ */
+public class PromotionLoader {
+
+  /** The outcome of a load. */
+  public static final class LoadSummary {
+    private final AtomicInteger unchanged = new AtomicInteger();
+    private final AtomicInteger inserted = new AtomicInteger();
+    private final AtomicInteger failed = new AtomicInteger();
+
+    public int getUnchanged() {
+      return unchanged.get();
+    }
+
+    public int getInserted() {
+      return inserted.get();
+    }
+
+    public int getFailed() {
+      return failed.get();
+    }
+
+    @Override
+    public String toString() {
+      return String.format(
+          "%d unchanged, %d inserted, %d failed", unchanged.get(), inserted.get(), failed.get());
+    }
+  }
+
+  /** The differences found between the index and the promotions in the account. */
+  public static final class DriftReport {
+    private int missing;
+    private int modified;
+    private int unmanaged;
+
+    /** Returns the number of indexed promotions that are not in the account. */
+    public int getMissing() {
+      return missing;
+    }
+
+    /** Returns the number of indexed promotions whose attributes differ in the account. */
+    public int getModified() {
+      return modified;
+    }
+
+    /** Returns the number of promotions in the account that are not in the source. */
+    public int getUnmanaged() {
+      return unmanaged;
+    }
+
+    @Override
+    public String toString() {
+      return String.format(
+          "%d missing, %d modified, %d not in the source", missing, modified, unmanaged);
+    }
+  }
+
+  private final PromotionsServiceClient client;
+  private final String parent;
+  private final String dataSource;
+  private final PromotionHashIndex index;
+  private final int maxInFlight;
+
+  /**
+   * Creates a loader.
+   *
+   * @param parent the account name, in the format {@code accounts/{account}}.
+   * @param dataSource the promotion data source, in the format {@code
+   *     accounts/{account}/dataSources/{datasource}}.
+   * @param index the index of the promotions inserted into this data source.
+   * @param maxInFlight the maximum number of inserts in flight at the same time.
+   */
+  public PromotionLoader(
+      PromotionsServiceClient client,
+      String parent,
+      String dataSource,
+      PromotionHashIndex index,
+      int maxInFlight) {
+    this.client = client;
+    this.parent = parent;
+    this.dataSource = dataSource;
+    this.index = index;
+    this.maxInFlight = maxInFlight;
+  }
+
+  /**
+   * Compares the source promotions with the promotions in the account, and removes from the index
+   * those that need to be inserted again.
+   *
+   * <p>Promotions are only compared on their attributes, since the account also returns output
+   * only fields, such as the promotion status, that are not part of the inserted promotion.
+   */
+  public DriftReport checkDrift(Iterable<Promotion> source) throws IOException {
+    Map<String, Promotion> remote = new HashMap<>();
+    ListPromotionsRequest request = ListPromotionsRequest.newBuilder().setParent(parent).build();
+    for (Promotion promotion : client.listPromotions(request).iterateAll()) {
+      remote.put(PromotionHashIndex.key(promotion), promotion);
+    }
+
+    DriftReport report = new DriftReport();
+    int sourceCount = 0;
+    for (Promotion promotion : source) {
+      sourceCount++;
+      String key = PromotionHashIndex.key(promotion);
+      Promotion remotePromotion = remote.remove(key);
+      if (!index.contains(key)) {
+        // Inserted by the next load anyway.
+        continue;
+      }
+      if (remotePromotion == null) {
+        report.missing++;
+        index.remove(key);
+      } else if (!remotePromotion.getAttributes().equals(promotion.getAttributes())) {
+        report.modified++;
+        index.remove(key);
+      }
+    }
+    // Whatever is left in the account is not managed by the source.
+    report.unmanaged = remote.size();
+    System.out.printf(
+        "Compared %d source promotions with the account: %s%n", sourceCount, report);
+    return report;
+  }
+
+  /** Inserts the new and changed promotions, and waits for all the inserts to complete. */
+  public LoadSummary load(Iterable<Promotion> source) throws InterruptedException {
+    LoadSummary summary = new LoadSummary();
+    Semaphore inFlight = new Semaphore(maxInFlight);
+    for (Promotion promotion : source) {
+      String key = PromotionHashIndex.key(promotion);
+      String hash = PromotionHashIndex.hash(promotion);
+      if (index.isUnchanged(key, hash)) {
+        summary.unchanged.incrementAndGet();
+        continue;
+      }
+
+      inFlight.acquire();
+      InsertPromotionRequest request =
+          InsertPromotionRequest.newBuilder()
+              .setParent(parent)
+              .setPromotion(promotion)
+              .setDataSource(dataSource)
+              .build();
+      ApiFuture<Promotion> future = client.insertPromotionCallable().futureCall(request);
+      ApiFutures.addCallback(
+          future,
+          new ApiFutureCallback<Promotion>() {
+            @Override
+            public void onSuccess(Promotion result) {
+              try {
+                index.put(key, hash);
+                summary.inserted.incrementAndGet();
+              } catch (IOException e) {
+                // Inserted, but not recorded, so it will be inserted again on the next run.
+                summary.failed.incrementAndGet();
+                System.out.println("Failed to update the index for " + key + ": " + e);
+              } finally {
+                inFlight.release();
+              }
+            }
+
+            @Override
+            public void onFailure(Throwable throwable) {
+              summary.failed.incrementAndGet();
+              System.out.println("Failed to insert " + key + ": " + throwable);
+              inFlight.release();
+            }
+          },
+          MoreExecutors.directExecutor());
+    }
+    // Waits for the last inserts.
+    inFlight.acquire(maxInFlight);
+    inFlight.release(maxInFlight);
+    return summary;
+  }
+}
@@ -0,0 +1,78 @@
+// Copyright 2026 Google LLC
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     https://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package shopping.merchant.samples.promotions.v1;
+
+// [START merchantapi_replay_promotion_dead_letters]
+import com.google.api.gax.core.FixedCredentialsProvider;
+import com.google.api.gax.grpc.InstantiatingGrpcChannelProvider;
+import com.google.auth.oauth2.GoogleCredentials;
+import com.google.shopping.merchant.promotions.v1.InsertPromotionRequest;
+import com.google.shopping.merchant.promotions.v1.Promotion;
+import com.google.shopping.merchant.promotions.v1.PromotionsServiceClient;
+import com.google.shopping.merchant.promotions.v1.PromotionsServiceSettings;
+import java.io.File;
+import java.nio.file.Path;
+import shopping.merchant.samples.utils.Authenticator;
+import shopping.merchant.samples.utils.BoundedAsyncWriter;
+import shopping.merchant.samples.utils.Config;
+import shopping.merchant.samples.utils.DeadLetterQueue;
+
+/**
+ * This class demonstrates how to send again the promotion inserts that failed in {@link
+ * InsertPromotionsAsyncSample}, from its dead letter file. The requests that fail again stay in the
+ * file, so the sample can be run until the file is gone.
+ */
+public class ReplayPromotionDeadLettersSample {
+
+  public static void replayPromotionDeadLetters(Path deadLetterFile) throws Exception {
+    // Obtains OAuth token based on the user's configuration.
+    GoogleCredentials credential = new Authenticator().authenticate();
+
+    // Creates service settings using the credentials retrieved above.
+    PromotionsServiceSettings promotionsServiceSettings =
+        PromotionsServiceSettings.newBuilder()
+            .setCredentialsProvider(FixedCredentialsProvider.create(credential))
+            .setTransportChannelProvider(
+                InstantiatingGrpcChannelProvider.newBuilder().setPoolSize(2).build())
+            .build();
+
+    // Calls the API and catches and prints any network failures/errors.
+    try (PromotionsServiceClient promotionsServiceClient =
+        PromotionsServiceClient.create(promotionsServiceSettings)) {
+
+      // Uses the same limit of requests in flight as the original inserts.
+      BoundedAsyncWriter<InsertPromotionRequest, Promotion> writer =
+          DeadLetterQueue.replay(
+              deadLetterFile,
+              InsertPromotionRequest.parser(),
+              promotionsServiceClient.insertPromotionCallable()::futureCall,
+              InsertPromotionsAsyncSample.MAX_IN_FLIGHT);
+      System.out.printf(
+          "Replayed %d requests: %d succeeded, %d failed again%n",
+          writer.getSubmitted(), writer.getSucceeded(), writer.getFailed());
+    } catch (Exception e) {
+      System.out.println(e);
+    }
+  }
+
+  public static void main(String[] args) throws Exception {
+    Config config = Config.load();
+    Path deadLetterFile =
+        new File(config.getPath(), InsertPromotionsAsyncSample.DEAD_LETTER_FILE).toPath();
+
+    replayPromotionDeadLetters(deadLetterFile);
+  }
+}
+// [END merchantapi_replay_promotion_dead_letters]
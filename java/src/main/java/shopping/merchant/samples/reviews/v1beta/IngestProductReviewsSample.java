@@ -0,0 +1,99 @@
+// Copyright 2026 Google LLC
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     https://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package shopping.merchant.samples.reviews.v1beta;
+
+// [START merchantapi_ingest_product_reviews]
+import com.google.api.gax.core.FixedCredentialsProvider;
+import com.google.api.gax.grpc.InstantiatingGrpcChannelProvider;
+import com.google.auth.oauth2.GoogleCredentials;
+import com.google.shopping.merchant.reviews.v1beta.ProductReviewsServiceClient;
+import com.google.shopping.merchant.reviews.v1beta.ProductReviewsServiceSettings;
+import java.io.File;
+import java.nio.file.Path;
+import shopping.merchant.samples.utils.Authenticator;
+import shopping.merchant.samples.utils.Config;
+
+/**
+ * This class demonstrates how to insert the product reviews of a large review platform export,
+ * skipping the reviews inserted by previous runs. See {@link ProductReviewIngester} for the format
+ * of the export.
+ */
+public class IngestProductReviewsSample {
+
+  // Maximum number of insertProductReview requests in flight at the same time.
+  private static final int MAX_CONCURRENT_REQUESTS = 200;
+  // The number of reviews the index is sized for, and the fraction of new reviews that need a
+  // lookup on disk.
+  private static final long EXPECTED_REVIEWS = 10_000_000;
+  private static final double FALSE_POSITIVE_RATE = 0.01;
+
+  public static void ingestProductReviews(
+      String accountId, String dataSourceId, Path exportFile, Path indexDirectory)
+      throws Exception {
+    GoogleCredentials credential = new Authenticator().authenticate();
+
+    // Up to 200 reviews are inserted at once, so 4 channels keep each one at about half of the
+    // concurrent requests it can carry. See InsertProductInputAsyncSample for how to size the pool.
+    InstantiatingGrpcChannelProvider channelProvider =
+        InstantiatingGrpcChannelProvider.newBuilder()
+            .setPoolSize(Math.max(1, MAX_CONCURRENT_REQUESTS / 50))
+            .build();
+
+    ProductReviewsServiceSettings productReviewsServiceSettings =
+        ProductReviewsServiceSettings.newBuilder()
+            .setCredentialsProvider(FixedCredentialsProvider.create(credential))
+            .setTransportChannelProvider(channelProvider)
+            .build();
+
+    String parent = String.format("accounts/%s", accountId);
+    // Must be a product reviews data source. In other words, a data source whose "type" is
+    // ProductReviewDataSource.
+    String dataSource = String.format("accounts/%s/dataSources/%s", accountId, dataSourceId);
+
+    try (ProductReviewsServiceClient productReviewsServiceClient =
+            ProductReviewsServiceClient.create(productReviewsServiceSettings);
+        ReviewIdIndex index =
+            new ReviewIdIndex(indexDirectory, EXPECTED_REVIEWS, FALSE_POSITIVE_RATE)) {
+
+      ProductReviewIngester ingester =
+          new ProductReviewIngester(
+              productReviewsServiceClient, parent, dataSource, index, MAX_CONCURRENT_REQUESTS);
+
+      long start = System.currentTimeMillis();
+      ProductReviewIngester.Summary summary = ingester.ingest(exportFile);
+      System.out.printf(
+          "Ingested %s in %d s: %s%n",
+          exportFile, (System.currentTimeMillis() - start) / 1000, summary);
+      System.out.printf(
+          "Index lookups: %d answered by the Bloom filter, %d checked on disk (%d false"
+              + " positives)%n",
+          index.getFiltered(), index.getExactLookups(), index.getFalsePositives());
+    } catch (Exception e) {
+      System.out.println(e);
+    }
+  }
+
+  public static void main(String[] args) throws Exception {
+    Config config = Config.load();
+    // The review platform export, with one review per line in JSON format.
+    Path exportFile = new File(config.getPath(), "product_reviews.jsonl").toPath();
+    // The IDs of the reviews inserted so far. Keep it between runs, one per data source.
+    Path indexDirectory = new File(config.getPath(), "product-review-index").toPath();
+
+    ingestProductReviews(
+        config.getAccountId().toString(), "YOUR_DATA_SOURCE_ID", exportFile, indexDirectory);
+  }
+}
+// [END merchantapi_ingest_product_reviews]
@@ -16,27 +16,33 @@ package shopping.merchant.samples.reviews.v1beta;
 
 // [START merchantapi_insert_merchant_reviews_async]
 import com.google.api.core.ApiFuture;
-import com.google.api.core.ApiFutureCallback;
-import com.google.api.core.ApiFutures;
 import com.google.api.gax.core.FixedCredentialsProvider;
 import com.google.auth.oauth2.GoogleCredentials;
-import com.google.common.util.concurrent.MoreExecutors;
 import com.google.protobuf.Timestamp;
 import com.google.shopping.merchant.reviews.v1beta.InsertMerchantReviewRequest;
 import com.google.shopping.merchant.reviews.v1beta.MerchantReview;
 import com.google.shopping.merchant.reviews.v1beta.MerchantReviewAttributes;
 import com.google.shopping.merchant.reviews.v1beta.MerchantReviewsServiceClient;
 import com.google.shopping.merchant.reviews.v1beta.MerchantReviewsServiceSettings;
+import java.io.File;
+import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Random;
-import java.util.stream.Collectors;
+import java.util.concurrent.ExecutionException;
 import shopping.merchant.samples.utils.Authenticator;
+import shopping.merchant.samples.utils.BoundedAsyncWriter;
 import shopping.merchant.samples.utils.Config;
+import shopping.merchant.samples.utils.DeadLetterQueue;
 
 /** This class demonstrates how to insert multiple merchant reviews asynchronously. */
 public class InsertMerchantReviewsAsyncSample {
 
+  // The file of the failed requests, in the configuration directory.
+  static final String DEAD_LETTER_FILE = "merchant-review-dead-letters.pb";
+  // Maximum number of insert requests in flight at the same time.
+  static final int MAX_IN_FLIGHT = 100;
+
   private static String generateRandomString() {
     String characters = "ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz0123456789";
     Random random = new Random();
@@ -68,8 +74,8 @@ public class InsertMerchantReviewsAsyncSample {
         .build();
   }
 
-  public static void asyncInsertMerchantReviews(String accountId, String dataSourceId)
-      throws Exception {
+  public static void asyncInsertMerchantReviews(
+      String accountId, String dataSourceId, Path deadLetterFile) throws Exception {
     GoogleCredentials credential = new Authenticator().authenticate();
 
     MerchantReviewsServiceSettings merchantReviewsServiceSettings =
@@ -81,6 +87,8 @@ public class InsertMerchantReviewsAsyncSample {
         MerchantReviewsServiceClient.create(merchantReviewsServiceSettings)) {
 
       // Arbitrarily creates five merchant reviews with random IDs.
+      // See SyncMerchantReviewsSample for how to insert and delete only the reviews that differ
+      // from a review store.
       List<InsertMerchantReviewRequest> requests = new ArrayList<>();
       for (int i = 0; i < 5; i++) {
         InsertMerchantReviewRequest request =
@@ -96,32 +104,32 @@ public class InsertMerchantReviewsAsyncSample {
       }
 
       // Inserts the merchant reviews.
-      List<ApiFuture<MerchantReview>> futures =
-          requests.stream()
-              .map(
-                  request ->
-                      merchantReviewsServiceClient
-                          .insertMerchantReviewCallable()
-                          .futureCall(request))
-              .collect(Collectors.toList());
-
-      // Creates callback to handle the responses when all are ready.
-      ApiFuture<List<MerchantReview>> responses = ApiFutures.allAsList(futures);
-      ApiFutures.addCallback(
-          responses,
-          new ApiFutureCallback<List<MerchantReview>>() {
-            @Override
-            public void onSuccess(List<MerchantReview> results) {
-              System.out.println("Inserted merchant reviews below:");
-              System.out.println(results);
-            }
+      // Requests that fail are added to a dead letter file with the status of their failure, and
+      // the other requests are not affected. Run ReplayMerchantReviewDeadLettersSample to send the
+      // failed requests again.
+      try (DeadLetterQueue<InsertMerchantReviewRequest> deadLetters =
+          new DeadLetterQueue<>(deadLetterFile)) {
+        BoundedAsyncWriter<InsertMerchantReviewRequest, MerchantReview> writer =
+            new BoundedAsyncWriter<>(
+                merchantReviewsServiceClient.insertMerchantReviewCallable()::futureCall,
+                MAX_IN_FLIGHT,
+                deadLetters);
+        List<ApiFuture<MerchantReview>> futures = new ArrayList<>(requests.size());
+        for (InsertMerchantReviewRequest request : requests) {
+          futures.add(writer.submit(request));
+        }
+        writer.awaitCompletion();
 
-            @Override
-            public void onFailure(Throwable throwable) {
-              System.out.println(throwable);
-            }
-          },
-          MoreExecutors.directExecutor());
+        System.out.println("Inserted merchant reviews below:");
+        for (ApiFuture<MerchantReview> future : futures) {
+          try {
+            System.out.println(future.get());
+          } catch (ExecutionException e) {
+            // Already in the dead letter file.
+          }
+        }
+        System.out.println(writer);
+      }
     } catch (Exception e) {
       System.out.println(e);
     }
@@ -129,7 +137,9 @@ public class InsertMerchantReviewsAsyncSample {
 
   public static void main(String[] args) throws Exception {
     Config config = Config.load();
-    asyncInsertMerchantReviews(config.getAccountId().toString(), "YOUR_DATA_SOURCE_ID");
+    Path deadLetterFile = new File(config.getPath(), DEAD_LETTER_FILE).toPath();
+    asyncInsertMerchantReviews(
+        config.getAccountId().toString(), "YOUR_DATA_SOURCE_ID", deadLetterFile);
   }
 }
 // [END merchantapi_insert_merchant_reviews_async]
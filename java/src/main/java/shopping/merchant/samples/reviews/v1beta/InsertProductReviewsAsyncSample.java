@@ -16,11 +16,8 @@ package shopping.merchant.samples.reviews.v1beta;
 
 // [START merchantapi_insert_product_reviews_async]
 import com.google.api.core.ApiFuture;
-import com.google.api.core.ApiFutureCallback;
-import com.google.api.core.ApiFutures;
 import com.google.api.gax.core.FixedCredentialsProvider;
 import com.google.auth.oauth2.GoogleCredentials;
-import com.google.common.util.concurrent.MoreExecutors;
 import com.google.protobuf.Timestamp;
 import com.google.shopping.merchant.reviews.v1beta.InsertProductReviewRequest;
 import com.google.shopping.merchant.reviews.v1beta.ProductReview;
@@ -29,16 +26,25 @@ import com.google.shopping.merchant.reviews.v1beta.ProductReviewAttributes.Revie
 import com.google.shopping.merchant.reviews.v1beta.ProductReviewAttributes.ReviewLink.Type;
 import com.google.shopping.merchant.reviews.v1beta.ProductReviewsServiceClient;
 import com.google.shopping.merchant.reviews.v1beta.ProductReviewsServiceSettings;
+import java.io.File;
+import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Random;
-import java.util.stream.Collectors;
+import java.util.concurrent.ExecutionException;
 import shopping.merchant.samples.utils.Authenticator;
+import shopping.merchant.samples.utils.BoundedAsyncWriter;
 import shopping.merchant.samples.utils.Config;
+import shopping.merchant.samples.utils.DeadLetterQueue;
 
 /** This class demonstrates how to insert multiple product reviews asynchronously. */
 public class InsertProductReviewsAsyncSample {
 
+  // The file of the failed requests, in the configuration directory.
+  static final String DEAD_LETTER_FILE = "product-review-dead-letters.pb";
+  // Maximum number of insert requests in flight at the same time.
+  static final int MAX_IN_FLIGHT = 100;
+
   private static String generateRandomString() {
     String characters = "ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz0123456789";
     Random random = new Random();
@@ -79,8 +85,8 @@ public class InsertProductReviewsAsyncSample {
         .build();
   }
 
-  public static void asyncInsertProductReviews(String accountId, String dataSourceId)
-      throws Exception {
+  public static void asyncInsertProductReviews(
+      String accountId, String dataSourceId, Path deadLetterFile) throws Exception {
     GoogleCredentials credential = new Authenticator().authenticate();
 
     ProductReviewsServiceSettings productReviewsServiceSettings =
@@ -92,6 +98,8 @@ public class InsertProductReviewsAsyncSample {
         ProductReviewsServiceClient.create(productReviewsServiceSettings)) {
 
       // Arbitrarily creates five product reviews with random IDs.
+      // See IngestProductReviewsSample for how to insert the reviews of a large export with
+      // bounded concurrency and a pool of channels.
       List<InsertProductReviewRequest> requests = new ArrayList<>();
       for (int i = 0; i < 5; i++) {
         InsertProductReviewRequest request =
@@ -106,30 +114,32 @@ public class InsertProductReviewsAsyncSample {
       }
 
       // Inserts the product reviews.
-      List<ApiFuture<ProductReview>> futures =
-          requests.stream()
-              .map(
-                  request ->
-                      productReviewsServiceClient.insertProductReviewCallable().futureCall(request))
-              .collect(Collectors.toList());
-
-      // Creates callback to handle the responses when all are ready.
-      ApiFuture<List<ProductReview>> responses = ApiFutures.allAsList(futures);
-      ApiFutures.addCallback(
-          responses,
-          new ApiFutureCallback<List<ProductReview>>() {
-            @Override
-            public void onSuccess(List<ProductReview> results) {
-              System.out.println("Inserted product reviews below:");
-              System.out.println(results);
-            }
+      // Requests that fail are added to a dead letter file with the status of their failure, and
+      // the other requests are not affected. Run ReplayProductReviewDeadLettersSample to send the
+      // failed requests again.
+      try (DeadLetterQueue<InsertProductReviewRequest> deadLetters =
+          new DeadLetterQueue<>(deadLetterFile)) {
+        BoundedAsyncWriter<InsertProductReviewRequest, ProductReview> writer =
+            new BoundedAsyncWriter<>(
+                productReviewsServiceClient.insertProductReviewCallable()::futureCall,
+                MAX_IN_FLIGHT,
+                deadLetters);
+        List<ApiFuture<ProductReview>> futures = new ArrayList<>(requests.size());
+        for (InsertProductReviewRequest request : requests) {
+          futures.add(writer.submit(request));
+        }
+        writer.awaitCompletion();
 
-            @Override
-            public void onFailure(Throwable throwable) {
-              System.out.println(throwable);
-            }
-          },
-          MoreExecutors.directExecutor());
+        System.out.println("Inserted product reviews below:");
+        for (ApiFuture<ProductReview> future : futures) {
+          try {
+            System.out.println(future.get());
+          } catch (ExecutionException e) {
+            // Already in the dead letter file.
+          }
+        }
+        System.out.println(writer);
+      }
     } catch (Exception e) {
       System.out.println(e);
     }
@@ -137,7 +147,9 @@ public class InsertProductReviewsAsyncSample {
 
   public static void main(String[] args) throws Exception {
     Config config = Config.load();
-    asyncInsertProductReviews(config.getAccountId().toString(), "YOUR_DATA_SOURCE_ID");
+    Path deadLetterFile = new File(config.getPath(), DEAD_LETTER_FILE).toPath();
+    asyncInsertProductReviews(
+        config.getAccountId().toString(), "YOUR_DATA_SOURCE_ID", deadLetterFile);
   }
 }
 // [END merchantapi_insert_product_reviews_async]
@@ -0,0 +1,303 @@
+// Copyright 2026 Google LLC
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     https://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package shopping.merchant.samples.reviews.v1beta;
+
+import com.google.common.hash.Hashing;
+import com.google.shopping.merchant.reviews.v1beta.DeleteMerchantReviewRequest;
+import com.google.shopping.merchant.reviews.v1beta.InsertMerchantReviewRequest;
+import com.google.shopping.merchant.reviews.v1beta.ListMerchantReviewsRequest;
+import com.google.shopping.merchant.reviews.v1beta.MerchantReview;
+import com.google.shopping.merchant.reviews.v1beta.MerchantReviewsServiceClient;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.atomic.AtomicInteger;
+import shopping.merchant.samples.utils.ContentHash;
+
+/**
+ * Makes the merchant reviews of an account mirror a review store.
+ *
+ * <p>The merchant reviews of the account that belong to the engine's data source are listed once
+ * into an index of review ID to a hash of the review content. Reviews of other data sources are
+ * left out, so that they are never deleted by a sync of another feed. The source reviews are
+ * hashed the same way, and only the difference is sent: reviews missing from the account are
+ * inserted, reviews whose content differs are inserted again (which replaces them), and reviews
+ * that are not in the source are deleted. The writes run on the given executor, so its size bounds
+ * the number of requests in flight.
+ *
+ * <p>Every write that succeeds is appended to a journal file. When a sync is interrupted or some
+ * writes fail, running it again skips the writes in the journal, even if the account does not
+ * show them yet. The journal is deleted once a sync completes without failures.
+ *
+ * <p>Since the source must be complete, an empty source is refused unless deleting every review of
+ * the data source is explicitly allowed, as it is more likely a failed export than an empty store.
+ */
+public class MerchantReviewSyncEngine {
+
+  // Journal hash of a deleted review.
+  private static final String DELETED = "-";
+
+  /** The number of reviews per outcome. */
+  public static final class Summary {
+    private final AtomicInteger unchanged = new AtomicInteger();
+    private final AtomicInteger resumed = new AtomicInteger();
+    private final AtomicInteger inserted = new AtomicInteger();
+    private final AtomicInteger updated = new AtomicInteger();
+    private final AtomicInteger deleted = new AtomicInteger();
+    private final AtomicInteger failed = new AtomicInteger();
+
+    public int getUnchanged() {
+      return unchanged.get();
+    }
+
+    /** Returns the number of writes skipped because a previous run had done them. */
+    public int getResumed() {
+      return resumed.get();
+    }
+
+    public int getInserted() {
+      return inserted.get();
+    }
+
+    public int getUpdated() {
+      return updated.get();
+    }
+
+    public int getDeleted() {
+      return deleted.get();
+    }
+
+    public int getFailed() {
+      return failed.get();
+    }
+
+    /** Returns the number of calls saved compared with inserting every source review. */
+    public int getCallsAvoided() {
+      return unchanged.get() + resumed.get();
+    }
+
+    @Override
+    public String toString() {
+      return String.format(
+          "%d unchanged, %d done by a previous run, %d inserted, %d updated, %d deleted, %d failed"
+              + " (%d calls avoided)",
+          unchanged.get(),
+          resumed.get(),
+          inserted.get(),
+          updated.get(),
+          deleted.get(),
+          failed.get(),
+          getCallsAvoided());
+    }
+  }
+
+  private final MerchantReviewsServiceClient client;
+  private final String parent;
+  private final String dataSource;
+  private final ExecutorService executor;
+  private final Path journalFile;
+
+  /**
+   * Creates a sync engine.
+   *
+   * @param parent the account name, in the format {@code accounts/{account}}.
+   * @param dataSource the merchant reviews data source the reviews are inserted into, in the
+   *     format {@code accounts/{account}/dataSources/{datasource}}.
+   * @param journalFile the file recording the writes of an unfinished sync.
+   */
+  public MerchantReviewSyncEngine(
+      MerchantReviewsServiceClient client,
+      String parent,
+      String dataSource,
+      ExecutorService executor,
+      Path journalFile) {
+    this.client = client;
+    this.parent = parent;
+    this.dataSource = dataSource;
+    this.executor = executor;
+    this.journalFile = journalFile;
+  }
+
+  /**
+   * Returns a hash of the content of the review: its attributes and custom attributes. The name
+   * and output only fields are left out, so that a source review and the same review listed from
+   * the account hash the same.
+   */
+  public static long hash(MerchantReview review) {
+    MerchantReview content =
+        MerchantReview.newBuilder()
+            .setMerchantReviewAttributes(review.getMerchantReviewAttributes())
+            .addAllCustomAttributes(review.getCustomAttributesList())
+            .build();
+    // Kept as a number, so that the hashes in the journal of an unfinished sync stay valid.
+    return Hashing.sha256().hashBytes(ContentHash.deterministicBytes(content)).asLong();
+  }
+
+  /**
+   * Applies the difference between the source reviews and the account, and waits for it. Fails
+   * without deleting anything if the source is empty.
+   */
+  public Summary sync(Iterable<MerchantReview> source) throws IOException {
+    return sync(source, false);
+  }
+
+  /**
+   * Applies the difference between the source reviews and the account, and waits for it.
+   *
+   * @param source all the reviews of the store. Any review of the data source not in it is
+   *     deleted.
+   * @param allowDeleteAll whether an empty source may delete every review of the data source.
+   */
+  public Summary sync(Iterable<MerchantReview> source, boolean allowDeleteAll) throws IOException {
+    Map<String, Long> existing = listExisting();
+    Set<String> journal = readJournal();
+    Summary summary = new Summary();
+    Set<String> sourceIds = new HashSet<>();
+
+    List<CompletableFuture<Void>> writes = new ArrayList<>();
+    try (Writer journalWriter =
+        Files.newBufferedWriter(
+            journalFile,
+            StandardCharsets.UTF_8,
+            StandardOpenOption.CREATE,
+            StandardOpenOption.APPEND)) {
+      for (MerchantReview review : source) {
+        String id = review.getMerchantReviewId();
+        if (!sourceIds.add(id)) {
+          System.out.println("Ignoring duplicate source review " + id);
+          continue;
+        }
+        long hash = hash(review);
+        // Removed, so that only the reviews to delete are left once the source is read.
+        Long existingHash = existing.remove(id);
+        if (existingHash != null && existingHash == hash) {
+          summary.unchanged.incrementAndGet();
+        } else if (journal.contains(id + "\t" + hash)) {
+          summary.resumed.incrementAndGet();
+        } else {
+          AtomicInteger counter = existingHash == null ? summary.inserted : summary.updated;
+          String journalHash = Long.toString(hash);
+          writes.add(write(counter, summary, journalWriter, id, journalHash, () -> insert(review)));
+        }
+      }
+      if (sourceIds.isEmpty() && !existing.isEmpty() && !allowDeleteAll) {
+        throw new IllegalStateException(
+            "The source has no reviews; refusing to delete all "
+                + existing.size()
+                + " reviews of "
+                + dataSource);
+      }
+      for (String id : existing.keySet()) {
+        if (journal.contains(id + "\t" + DELETED)) {
+          summary.resumed.incrementAndGet();
+        } else {
+          writes.add(write(summary.deleted, summary, journalWriter, id, DELETED, () -> delete(id)));
+        }
+      }
+      CompletableFuture.allOf(writes.toArray(new CompletableFuture<?>[0])).join();
+    }
+
+    if (summary.failed.get() == 0) {
+      // Everything is in sync, so the next sync starts from the account alone.
+      Files.deleteIfExists(journalFile);
+    }
+    return summary;
+  }
+
+  // Runs the write on the executor, and records it in the journal once it succeeded.
+  private CompletableFuture<Void> write(
+      AtomicInteger counter,
+      Summary summary,
+      Writer journalWriter,
+      String id,
+      String journalHash,
+      Runnable write) {
+    return CompletableFuture.runAsync(
+            () -> {
+              write.run();
+              counter.incrementAndGet();
+              try {
+                synchronized (journalWriter) {
+                  journalWriter.write(id + "\t" + journalHash + "\n");
+                  journalWriter.flush();
+                }
+              } catch (IOException e) {
+                // The write is done again if the sync is resumed, which is harmless.
+                System.out.println("Failed to record review " + id + " in the journal: " + e);
+              }
+            },
+            executor)
+        .exceptionally(
+            throwable -> {
+              summary.failed.incrementAndGet();
+              System.out.printf("Failed to sync review %s: %s%n", id, throwable.getCause());
+              return null;
+            });
+  }
+
+  // Lists the reviews of the data source only, since those are the only ones this engine writes.
+  private Map<String, Long> listExisting() {
+    Map<String, Long> existing = new HashMap<>();
+    int otherDataSources = 0;
+    ListMerchantReviewsRequest request =
+        ListMerchantReviewsRequest.newBuilder().setParent(parent).build();
+    for (MerchantReview review : client.listMerchantReviews(request).iterateAll()) {
+      if (!dataSource.equals(review.getDataSource())) {
+        otherDataSources++;
+        continue;
+      }
+      existing.put(review.getMerchantReviewId(), hash(review));
+    }
+    if (otherDataSources > 0) {
+      System.out.printf("Leaving out %d reviews of other data sources%n", otherDataSources);
+    }
+    return existing;
+  }
+
+  private Set<String> readJournal() throws IOException {
+    Set<String> journal = new HashSet<>();
+    if (Files.exists(journalFile)) {
+      journal.addAll(Files.readAllLines(journalFile, StandardCharsets.UTF_8));
+    }
+    return journal;
+  }
+
+  private void insert(MerchantReview review) {
+    client.insertMerchantReview(
+        InsertMerchantReviewRequest.newBuilder()
+            .setParent(parent)
+            .setMerchantReview(review)
+            .setDataSource(dataSource)
+            .build());
+  }
+
+  private void delete(String merchantReviewId) {
+    client.deleteMerchantReview(
+        DeleteMerchantReviewRequest.newBuilder()
+            .setName(parent + "/merchantReviews/" + merchantReviewId)
+            .build());
+  }
+}
@@ -0,0 +1,316 @@
+// Copyright 2026 Google LLC
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     https://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package shopping.merchant.samples.reviews.v1beta;
+
+import com.google.api.core.ApiFuture;
+import com.google.api.core.ApiFutureCallback;
+import com.google.api.core.ApiFutures;
+import com.google.common.util.concurrent.MoreExecutors;
+import com.google.protobuf.InvalidProtocolBufferException;
+import com.google.protobuf.ListValue;
+import com.google.protobuf.Struct;
+import com.google.protobuf.Timestamp;
+import com.google.protobuf.Value;
+import com.google.protobuf.util.JsonFormat;
+import com.google.shopping.merchant.reviews.v1beta.InsertProductReviewRequest;
+import com.google.shopping.merchant.reviews.v1beta.ProductReview;
+import com.google.shopping.merchant.reviews.v1beta.ProductReviewAttributes;
+import com.google.shopping.merchant.reviews.v1beta.ProductReviewAttributes.ReviewLink;
+import com.google.shopping.merchant.reviews.v1beta.ProductReviewAttributes.ReviewLink.Type;
+import com.google.shopping.merchant.reviews.v1beta.ProductReviewsServiceClient;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.time.format.DateTimeParseException;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+/**
+ * Inserts the product reviews of a review platform export, skipping the reviews inserted before.
+ *
+ * <p>The export is read one line at a time, so it can be of any size. Each line is a JSON object
+ * with the following fields, of which only {@code review_id}, {@code content} and {@code rating}
+ * are required:
+ *
+ * <pre>
+ * {"review_id": "r-1", "title": "Great", "content": "Works well.", "rating": 4, "min_rating": 1,
+ *  "max_rating": 5, "created_at": "2025-03-24T12:02:22Z", "reviewer_name": "jane",
+ *  "language": "en", "country": "US", "review_url": "https://...", "product_url": "https://...",
+ *  "product_name": "...", "gtin": ["..."], "sku": "...", "brand": "..."}
+ * </pre>
+ *
+ * <p>The {@code review_id} is used as the product review ID, and identifies the review across
+ * exports: reviews found in the {@link ReviewIdIndex}, or in flight, are skipped. Inserting a
+ * review again replaces it, so a review the index misses is only a wasted call. Inserts are sent
+ * asynchronously, with at most {@code maxInFlight} of them in flight.
+ */
+public class ProductReviewIngester {
+
+  /** The number of reviews per outcome. */
+  public static final class Summary {
+    private final AtomicLong read = new AtomicLong();
+    private final AtomicLong duplicates = new AtomicLong();
+    private final AtomicLong inserted = new AtomicLong();
+    private final AtomicLong invalid = new AtomicLong();
+    private final AtomicLong failed = new AtomicLong();
+
+    public long getRead() {
+      return read.get();
+    }
+
+    public long getDuplicates() {
+      return duplicates.get();
+    }
+
+    public long getInserted() {
+      return inserted.get();
+    }
+
+    public long getInvalid() {
+      return invalid.get();
+    }
+
+    public long getFailed() {
+      return failed.get();
+    }
+
+    @Override
+    public String toString() {
+      return String.format(
+          "%d read, %d duplicates, %d inserted, %d invalid, %d failed",
+          read.get(), duplicates.get(), inserted.get(), invalid.get(), failed.get());
+    }
+  }
+
+  private final ProductReviewsServiceClient client;
+  private final String parent;
+  private final String dataSource;
+  private final ReviewIdIndex index;
+  private final int maxInFlight;
+  private final JsonFormat.Parser parser = JsonFormat.parser();
+  // IDs of the reviews being inserted, so duplicates within the export are not sent twice.
+  private final Set<String> pending = ConcurrentHashMap.newKeySet();
+
+  /**
+   * Creates an ingester.
+   *
+   * @param parent the account name, in the format {@code accounts/{account}}.
+   * @param dataSource the product reviews data source, in the format {@code
+   *     accounts/{account}/dataSources/{datasource}}.
+   * @param index the IDs of the reviews inserted into this data source.
+   * @param maxInFlight the maximum number of inserts in flight at the same time.
+   */
+  public ProductReviewIngester(
+      ProductReviewsServiceClient client,
+      String parent,
+      String dataSource,
+      ReviewIdIndex index,
+      int maxInFlight) {
+    this.client = client;
+    this.parent = parent;
+    this.dataSource = dataSource;
+    this.index = index;
+    this.maxInFlight = maxInFlight;
+  }
+
+  /** Inserts the new reviews of the export, and waits for all the inserts to complete. */
+  public Summary ingest(Path exportFile) throws IOException, InterruptedException {
+    Summary summary = new Summary();
+    Semaphore inFlight = new Semaphore(maxInFlight);
+    try (BufferedReader reader = Files.newBufferedReader(exportFile, StandardCharsets.UTF_8)) {
+      String line;
+      long lineNumber = 0;
+      while ((line = reader.readLine()) != null) {
+        lineNumber++;
+        if (line.trim().isEmpty()) {
+          continue;
+        }
+        summary.read.incrementAndGet();
+        ProductReview review;
+        try {
+          Struct.Builder record = Struct.newBuilder();
+          parser.merge(line, record);
+          review = toProductReview(record.build());
+        } catch (InvalidProtocolBufferException | IllegalArgumentException e) {
+          summary.invalid.incrementAndGet();
+          System.out.printf("Line %d of %s: %s%n", lineNumber, exportFile, e.getMessage());
+          continue;
+        }
+
+        String id = review.getProductReviewId();
+        if (!pending.add(id)) {
+          summary.duplicates.incrementAndGet();
+          continue;
+        }
+        if (index.contains(id)) {
+          pending.remove(id);
+          summary.duplicates.incrementAndGet();
+          continue;
+        }
+        inFlight.acquire();
+        insert(review, summary, inFlight);
+      }
+    }
+    // Waits for the last inserts.
+    inFlight.acquire(maxInFlight);
+    inFlight.release(maxInFlight);
+    return summary;
+  }
+
+  private void insert(ProductReview review, Summary summary, Semaphore inFlight) {
+    String id = review.getProductReviewId();
+    InsertProductReviewRequest request =
+        InsertProductReviewRequest.newBuilder()
+            .setParent(parent)
+            .setProductReview(review)
+            .setDataSource(dataSource)
+            .build();
+    ApiFuture<ProductReview> future = client.insertProductReviewCallable().futureCall(request);
+    ApiFutures.addCallback(
+        future,
+        new ApiFutureCallback<ProductReview>() {
+          @Override
+          public void onSuccess(ProductReview result) {
+            try {
+              index.add(id);
+              summary.inserted.incrementAndGet();
+            } catch (IOException e) {
+              // Inserted, but not recorded, so it will be inserted again on the next run.
+              summary.failed.incrementAndGet();
+              System.out.println("Failed to add review " + id + " to the index: " + e);
+            } finally {
+              pending.remove(id);
+              inFlight.release();
+            }
+          }
+
+          @Override
+          public void onFailure(Throwable throwable) {
+            summary.failed.incrementAndGet();
+            System.out.println("Failed to insert review " + id + ": " + throwable);
+            pending.remove(id);
+            inFlight.release();
+          }
+        },
+        MoreExecutors.directExecutor());
+  }
+
+  /** Maps an export record to a product review, throwing if a required field is missing. */
+  static ProductReview toProductReview(Struct record) {
+    String id = string(record, "review_id");
+    if (id.isEmpty() || id.indexOf('\n') >= 0) {
+      throw new IllegalArgumentException("Missing or invalid review_id");
+    }
+    String content = string(record, "content");
+    if (content.isEmpty()) {
+      throw new IllegalArgumentException("Missing content in review " + id);
+    }
+    Value rating = record.getFieldsOrDefault("rating", null);
+    if (rating == null || rating.getKindCase() != Value.KindCase.NUMBER_VALUE) {
+      throw new IllegalArgumentException("Missing or invalid rating in review " + id);
+    }
+
+    ProductReviewAttributes.Builder attributes =
+        ProductReviewAttributes.newBuilder()
+            .setContent(content)
+            .setRating(rating.getNumberValue())
+            .setMinRating((long) number(record, "min_rating", 1))
+            .setMaxRating((long) number(record, "max_rating", 5));
+    setIfPresent(string(record, "title"), attributes::setTitle);
+    setIfPresent(string(record, "reviewer_name"), attributes::setReviewerUsername);
+    setIfPresent(string(record, "language"), attributes::setReviewLanguage);
+    setIfPresent(string(record, "country"), attributes::setReviewCountry);
+    String createdAt = string(record, "created_at");
+    if (!createdAt.isEmpty()) {
+      try {
+        Instant time = Instant.parse(createdAt);
+        attributes.setReviewTime(
+            Timestamp.newBuilder().setSeconds(time.getEpochSecond()).setNanos(time.getNano()));
+      } catch (DateTimeParseException e) {
+        throw new IllegalArgumentException("Invalid created_at in review " + id);
+      }
+    }
+    String reviewUrl = string(record, "review_url");
+    if (!reviewUrl.isEmpty()) {
+      // The export links to a page for each review.
+      attributes.setReviewLink(ReviewLink.newBuilder().setLink(reviewUrl).setType(Type.SINGLETON));
+    }
+    forEach(record, "product_url", attributes::addProductLinks);
+    forEach(record, "product_name", attributes::addProductNames);
+    forEach(record, "gtin", attributes::addGtins);
+    forEach(record, "sku", attributes::addSkus);
+    forEach(record, "brand", attributes::addBrands);
+
+    return ProductReview.newBuilder()
+        .setProductReviewId(id)
+        .setProductReviewAttributes(attributes)
+        .build();
+  }
+
+  // Returns the string value of the field, or an empty string if it is missing.
+  private static String string(Struct record, String field) {
+    Value value = record.getFieldsOrDefault(field, null);
+    if (value == null) {
+      return "";
+    }
+    switch (value.getKindCase()) {
+      case STRING_VALUE:
+        return value.getStringValue().trim();
+      case NUMBER_VALUE:
+        // Some platforms export numeric review IDs.
+        double number = value.getNumberValue();
+        return number == Math.rint(number) ? Long.toString((long) number) : Double.toString(number);
+      default:
+        return "";
+    }
+  }
+
+  private static double number(Struct record, String field, double defaultValue) {
+    Value value = record.getFieldsOrDefault(field, null);
+    return value != null && value.getKindCase() == Value.KindCase.NUMBER_VALUE
+        ? value.getNumberValue()
+        : defaultValue;
+  }
+
+  // Passes each value of a field that is either a string or a list of strings.
+  private static void forEach(Struct record, String field, Consumer<String> consumer) {
+    Value value = record.getFieldsOrDefault(field, null);
+    if (value == null) {
+      return;
+    }
+    if (value.getKindCase() == Value.KindCase.LIST_VALUE) {
+      ListValue list = value.getListValue();
+      for (Value element : list.getValuesList()) {
+        if (element.getKindCase() == Value.KindCase.STRING_VALUE) {
+          setIfPresent(element.getStringValue().trim(), consumer);
+        }
+      }
+    } else if (value.getKindCase() == Value.KindCase.STRING_VALUE) {
+      setIfPresent(value.getStringValue().trim(), consumer);
+    }
+  }
+
+  private static void setIfPresent(String value, Consumer<String> setter) {
+    if (!value.isEmpty()) {
+      setter.accept(value);
+    }
+  }
+}
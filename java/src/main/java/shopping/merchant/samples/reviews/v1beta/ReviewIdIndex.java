@@ -0,0 +1,231 @@
+// Copyright 2026 Google LLC
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     https://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package shopping.merchant.samples.reviews.v1beta;
+
+import com.google.common.hash.BloomFilter;
+import com.google.common.hash.Funnels;
+import java.io.BufferedReader;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Remembers the IDs of the reviews inserted so far, for millions of reviews, without holding all
+ * of them in memory.
+ *
+ * <p>The IDs are appended to 256 bucket files, chosen by the hash of the ID. A Bloom filter over
+ * all the IDs answers most lookups of new IDs without reading a bucket: only when the filter
+ * reports a possible match is the bucket loaded, into a small LRU cache, to check the ID exactly.
+ * The filter is saved on {@link #close}, and rebuilt from the buckets when it is missing or does
+ * not match them, e.g. after a crash.
+ *
+ * <p>The index is thread-safe.
+ */
+public class ReviewIdIndex implements AutoCloseable {
+
+  private static final int BUCKETS = 256;
+  // Number of buckets kept in memory for exact lookups.
+  private static final int CACHED_BUCKETS = 16;
+  private static final String BLOOM_FILTER_FILE = "bloom-filter.bin";
+
+  private final Path directory;
+  private final BloomFilter<CharSequence> bloomFilter;
+  private final Writer[] writers = new Writer[BUCKETS];
+  private final Map<Integer, Set<String>> cachedBuckets =
+      new LinkedHashMap<Integer, Set<String>>(CACHED_BUCKETS, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Integer, Set<String>> eldest) {
+          return size() > CACHED_BUCKETS;
+        }
+      };
+
+  private final AtomicLong filtered = new AtomicLong();
+  private final AtomicLong exactLookups = new AtomicLong();
+  private final AtomicLong falsePositives = new AtomicLong();
+
+  /**
+   * Opens the index stored in the directory, creating it if needed.
+   *
+   * @param expectedIds the number of IDs the index is sized for. Beyond that, the false positive
+   *     rate of the Bloom filter grows, and more lookups read a bucket.
+   * @param falsePositiveRate the fraction of new IDs that need an exact lookup, e.g. 0.01.
+   */
+  public ReviewIdIndex(Path directory, long expectedIds, double falsePositiveRate)
+      throws IOException {
+    this.directory = Files.createDirectories(directory);
+    long bucketBytes = bucketBytes();
+    BloomFilter<CharSequence> saved = readBloomFilter(bucketBytes);
+    if (saved != null) {
+      this.bloomFilter = saved;
+    } else {
+      this.bloomFilter =
+          BloomFilter.create(
+              Funnels.stringFunnel(StandardCharsets.UTF_8), expectedIds, falsePositiveRate);
+      for (int bucket = 0; bucket < BUCKETS; bucket++) {
+        for (String id : readBucket(bucket)) {
+          bloomFilter.put(id);
+        }
+      }
+    }
+  }
+
+  /** Returns whether the ID was added to the index, by this or a previous run. */
+  public boolean contains(String id) {
+    if (!bloomFilter.mightContain(id)) {
+      filtered.incrementAndGet();
+      return false;
+    }
+    exactLookups.incrementAndGet();
+    int bucket = bucket(id);
+    boolean found;
+    synchronized (cachedBuckets) {
+      Set<String> ids = cachedBuckets.get(bucket);
+      if (ids == null) {
+        try {
+          ids = readBucket(bucket);
+        } catch (IOException e) {
+          throw new IllegalStateException("Failed to read bucket " + bucket, e);
+        }
+        cachedBuckets.put(bucket, ids);
+      }
+      found = ids.contains(id);
+    }
+    if (!found) {
+      falsePositives.incrementAndGet();
+    }
+    return found;
+  }
+
+  /** Adds the ID to the index. The ID is written to disk before this method returns. */
+  public void add(String id) throws IOException {
+    int bucket = bucket(id);
+    synchronized (writers) {
+      if (writers[bucket] == null) {
+        writers[bucket] =
+            Files.newBufferedWriter(
+                bucketFile(bucket),
+                StandardCharsets.UTF_8,
+                StandardOpenOption.CREATE,
+                StandardOpenOption.APPEND);
+      }
+      writers[bucket].write(id + "\n");
+      writers[bucket].flush();
+    }
+    synchronized (cachedBuckets) {
+      Set<String> ids = cachedBuckets.get(bucket);
+      if (ids != null) {
+        ids.add(id);
+      }
+    }
+    bloomFilter.put(id);
+  }
+
+  /** Returns the number of lookups answered by the Bloom filter alone. */
+  public long getFiltered() {
+    return filtered.get();
+  }
+
+  /** Returns the number of lookups that needed to check a bucket. */
+  public long getExactLookups() {
+    return exactLookups.get();
+  }
+
+  /** Returns the number of exact lookups that did not find the ID. */
+  public long getFalsePositives() {
+    return falsePositives.get();
+  }
+
+  /** Closes the bucket files and saves the Bloom filter. */
+  @Override
+  public void close() throws IOException {
+    synchronized (writers) {
+      for (int bucket = 0; bucket < BUCKETS; bucket++) {
+        if (writers[bucket] != null) {
+          writers[bucket].close();
+          writers[bucket] = null;
+        }
+      }
+    }
+    // The filter is saved with the size of the buckets it covers, so that a filter that is
+    // behind the buckets is detected on open.
+    Path file = directory.resolve(BLOOM_FILTER_FILE);
+    Path temporary = directory.resolve(BLOOM_FILTER_FILE + ".tmp");
+    try (DataOutputStream output = new DataOutputStream(Files.newOutputStream(temporary))) {
+      output.writeLong(bucketBytes());
+      bloomFilter.writeTo(output);
+    }
+    Files.move(
+        temporary, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+  }
+
+  // Returns the saved filter, or null if it is missing or does not cover the buckets.
+  private BloomFilter<CharSequence> readBloomFilter(long bucketBytes) throws IOException {
+    Path file = directory.resolve(BLOOM_FILTER_FILE);
+    if (!Files.exists(file)) {
+      return null;
+    }
+    try (DataInputStream input = new DataInputStream(Files.newInputStream(file))) {
+      if (input.readLong() != bucketBytes) {
+        return null;
+      }
+      return BloomFilter.readFrom(input, Funnels.stringFunnel(StandardCharsets.UTF_8));
+    }
+  }
+
+  private Set<String> readBucket(int bucket) throws IOException {
+    Set<String> ids = new HashSet<>();
+    Path file = bucketFile(bucket);
+    if (Files.exists(file)) {
+      try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+        String line;
+        while ((line = reader.readLine()) != null) {
+          ids.add(line);
+        }
+      }
+    }
+    return ids;
+  }
+
+  private long bucketBytes() throws IOException {
+    long bytes = 0;
+    for (int bucket = 0; bucket < BUCKETS; bucket++) {
+      Path file = bucketFile(bucket);
+      if (Files.exists(file)) {
+        bytes += Files.size(file);
+      }
+    }
+    return bytes;
+  }
+
+  private Path bucketFile(int bucket) {
+    return directory.resolve(String.format("ids-%02x.txt", bucket));
+  }
+
+  // String.hashCode() is specified, so IDs stay in the same bucket across runs.
+  private static int bucket(String id) {
+    return Math.floorMod(id.hashCode(), BUCKETS);
+  }
+}
@@ -0,0 +1,127 @@
+// Copyright 2026 Google LLC
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     https://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package shopping.merchant.samples.reviews.v1beta;
+
+// [START merchantapi_sync_merchant_reviews]
+import com.google.api.gax.core.FixedCredentialsProvider;
+import com.google.auth.oauth2.GoogleCredentials;
+import com.google.protobuf.InvalidProtocolBufferException;
+import com.google.protobuf.util.JsonFormat;
+import com.google.shopping.merchant.reviews.v1beta.MerchantReview;
+import com.google.shopping.merchant.reviews.v1beta.MerchantReviewsServiceClient;
+import com.google.shopping.merchant.reviews.v1beta.MerchantReviewsServiceSettings;
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import shopping.merchant.samples.utils.Authenticator;
+import shopping.merchant.samples.utils.Config;
+
+/**
+ * This class demonstrates how to make the merchant reviews of an account mirror a review store,
+ * sending only the inserts and deletes needed. Run it again after a failure to resume the sync.
+ */
+public class SyncMerchantReviewsSample {
+
+  // Maximum number of insert and delete requests in flight at the same time.
+  private static final int MAX_CONCURRENT_REQUESTS = 20;
+
+  // Reads one review per line, in the JSON format of the MerchantReview message. A malformed line
+  // fails the whole read: the sync deletes the reviews missing from the source, so skipping the
+  // line would delete its review from the account.
+  private static List<MerchantReview> readReviews(Path file) throws IOException {
+    JsonFormat.Parser parser = JsonFormat.parser().ignoringUnknownFields();
+    List<MerchantReview> reviews = new ArrayList<>();
+    try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+      String line;
+      int lineNumber = 0;
+      while ((line = reader.readLine()) != null) {
+        lineNumber++;
+        if (line.trim().isEmpty()) {
+          continue;
+        }
+        MerchantReview.Builder review = MerchantReview.newBuilder();
+        try {
+          parser.merge(line, review);
+        } catch (InvalidProtocolBufferException e) {
+          throw new IOException(
+              String.format(
+                  "Invalid review on line %d of %s: %s", lineNumber, file, e.getMessage()),
+              e);
+        }
+        reviews.add(review.build());
+      }
+    }
+    return reviews;
+  }
+
+  public static void syncMerchantReviews(
+      String accountId, String dataSourceId, Path reviewsFile, Path journalFile) throws Exception {
+    GoogleCredentials credential = new Authenticator().authenticate();
+
+    MerchantReviewsServiceSettings merchantReviewsServiceSettings =
+        MerchantReviewsServiceSettings.newBuilder()
+            .setCredentialsProvider(FixedCredentialsProvider.create(credential))
+            .build();
+
+    String parent = String.format("accounts/%s", accountId);
+    // Must be a merchant reviews data source. In other words, a data source whose "type" is
+    // MerchantReviewDataSource.
+    String dataSource = String.format("accounts/%s/dataSources/%s", accountId, dataSourceId);
+
+    ExecutorService executor = Executors.newFixedThreadPool(MAX_CONCURRENT_REQUESTS);
+    try (MerchantReviewsServiceClient merchantReviewsServiceClient =
+        MerchantReviewsServiceClient.create(merchantReviewsServiceSettings)) {
+
+      List<MerchantReview> reviews = readReviews(reviewsFile);
+      System.out.printf("Syncing %d merchant reviews%n", reviews.size());
+
+      MerchantReviewSyncEngine engine =
+          new MerchantReviewSyncEngine(
+              merchantReviewsServiceClient, parent, dataSource, executor, journalFile);
+      long start = System.currentTimeMillis();
+      MerchantReviewSyncEngine.Summary summary = engine.sync(reviews);
+      System.out.printf(
+          "Synced merchant reviews in %d ms: %s%n", System.currentTimeMillis() - start, summary);
+      if (summary.getFailed() > 0) {
+        System.out.println("Run the sample again to retry the failed reviews.");
+      }
+    } catch (Exception e) {
+      System.out.println(e);
+    } finally {
+      executor.shutdown();
+      executor.awaitTermination(1, TimeUnit.MINUTES);
+    }
+  }
+
+  public static void main(String[] args) throws Exception {
+    Config config = Config.load();
+    // The review store export, with one MerchantReview per line in JSON format.
+    Path reviewsFile = new File(config.getPath(), "merchant_reviews.jsonl").toPath();
+    // The writes of an unfinished sync. Keep it to resume an interrupted sync.
+    Path journalFile = new File(config.getPath(), "merchant-reviews-journal.tsv").toPath();
+
+    syncMerchantReviews(
+        config.getAccountId().toString(), "YOUR_DATA_SOURCE_ID", reviewsFile, journalFile);
+  }
+}
+// [END merchantapi_sync_merchant_reviews]
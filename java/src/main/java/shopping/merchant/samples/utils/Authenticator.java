@@ -60,10 +60,20 @@ public class Authenticator {
   // Scopes for the generated OAuth2 credentials. The list here only contains the Merchant API
   // scope, but you can add multiple scopes if you want to use the credentials for other Google
   // APIs.
-  private static final ImmutableList<String> SCOPES =
+  static final ImmutableList<String> SCOPES =
       ImmutableList.<String>builder().add("https://www.googleapis.com/auth/content").build();
 
+  /**
+   * Returns the credentials of the user's configuration. They are loaded once per process and
+   * shared by all callers, with the access token refreshed in the background by {@link
+   * CredentialCache}.
+   */
   public GoogleCredentials authenticate() throws IOException {
+    return CredentialCache.getCredentials();
+  }
+
+  /** Loads new credentials from the configuration directory, or runs the OAuth2 flow. */
+  GoogleCredentials load() throws IOException {
     Config config = Config.load();
     if (config.getPath() == null) {
       throw new IllegalArgumentException(
@@ -0,0 +1,123 @@
+// Copyright 2026 Google LLC
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     https://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package shopping.merchant.samples.utils;
+
+import com.google.api.core.ApiFuture;
+import com.google.api.core.ApiFutureCallback;
+import com.google.api.core.ApiFutures;
+import com.google.common.util.concurrent.MoreExecutors;
+import com.google.protobuf.Message;
+import java.io.IOException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Sends write requests asynchronously, with at most {@code maxInFlight} requests in flight, and
+ * adds each request that fails to a {@link DeadLetterQueue}.
+ *
+ * <p>Every request succeeds or fails on its own, so a failure does not hide the results of the
+ * other requests, and only the failed requests need to be sent again.
+ *
+ * @param <RequestT> the request type, e.g. {@code InsertProductInputRequest}.
+ * @param <ResponseT> the response type, e.g. {@code ProductInput}.
+ */
+public class BoundedAsyncWriter<RequestT extends Message, ResponseT> {
+
+  /**
+   * Sends one request, e.g. {@code client.insertProductInputCallable()::futureCall}, or the {@code
+   * futureCall} of a {@link PolicyCallable}.
+   */
+  public interface AsyncCall<RequestT, ResponseT> {
+    ApiFuture<ResponseT> futureCall(RequestT request);
+  }
+
+  private final AsyncCall<RequestT, ResponseT> call;
+  private final int maxInFlight;
+  private final Semaphore inFlight;
+  private final DeadLetterQueue<RequestT> deadLetters;
+
+  private final AtomicLong submitted = new AtomicLong();
+  private final AtomicLong succeeded = new AtomicLong();
+  private final AtomicLong failed = new AtomicLong();
+
+  public BoundedAsyncWriter(
+      AsyncCall<RequestT, ResponseT> call, int maxInFlight, DeadLetterQueue<RequestT> deadLetters) {
+    this.call = call;
+    this.maxInFlight = maxInFlight;
+    this.inFlight = new Semaphore(maxInFlight);
+    this.deadLetters = deadLetters;
+  }
+
+  /** Sends the request, blocking while {@code maxInFlight} requests are in flight. */
+  public ApiFuture<ResponseT> submit(RequestT request) throws InterruptedException {
+    inFlight.acquire();
+    submitted.incrementAndGet();
+    ApiFuture<ResponseT> future;
+    try {
+      future = call.futureCall(request);
+    } catch (RuntimeException e) {
+      future = ApiFutures.immediateFailedFuture(e);
+    }
+    ApiFutures.addCallback(
+        future,
+        new ApiFutureCallback<ResponseT>() {
+          @Override
+          public void onSuccess(ResponseT response) {
+            succeeded.incrementAndGet();
+            inFlight.release();
+          }
+
+          @Override
+          public void onFailure(Throwable throwable) {
+            failed.incrementAndGet();
+            try {
+              deadLetters.add(request, throwable);
+            } catch (IOException e) {
+              System.out.println("Failed to write the dead letter of a request: " + e);
+            } finally {
+              inFlight.release();
+            }
+          }
+        },
+        MoreExecutors.directExecutor());
+    return future;
+  }
+
+  /** Waits until all the submitted requests have succeeded or been added to the dead letters. */
+  public void awaitCompletion() throws InterruptedException {
+    inFlight.acquire(maxInFlight);
+    inFlight.release(maxInFlight);
+  }
+
+  public long getSubmitted() {
+    return submitted.get();
+  }
+
+  public long getSucceeded() {
+    return succeeded.get();
+  }
+
+  /** Returns the number of requests added to the dead letters. */
+  public long getFailed() {
+    return failed.get();
+  }
+
+  @Override
+  public String toString() {
+    return String.format(
+        "%d requests, %d succeeded, %d failed and added to %s",
+        submitted.get(), succeeded.get(), failed.get(), deadLetters.getFile());
+  }
+}
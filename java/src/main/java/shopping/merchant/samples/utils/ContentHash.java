@@ -0,0 +1,67 @@
+// Copyright 2026 Google LLC
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     https://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package shopping.merchant.samples.utils;
+
+import com.google.common.hash.Hasher;
+import com.google.common.hash.Hashing;
+import com.google.protobuf.CodedOutputStream;
+import com.google.protobuf.Message;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * SHA-256 hash of the inputs of a call, used as a key to cache or share its result.
+ *
+ * <p>Each part is prefixed with its length, so that different parts never give the same bytes.
+ * Messages are serialized deterministically, so that equal messages, including their maps, always
+ * give the same hash.
+ */
+public final class ContentHash {
+
+  private final Hasher hasher = Hashing.sha256().newHasher();
+
+  public ContentHash putString(String value) {
+    byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+    hasher.putInt(bytes.length).putBytes(bytes);
+    return this;
+  }
+
+  /** Adds the message. A null message is hashed like an empty one. */
+  public ContentHash putMessage(Message message) {
+    byte[] bytes = message == null ? new byte[0] : deterministicBytes(message);
+    hasher.putInt(bytes.length).putBytes(bytes);
+    return this;
+  }
+
+  /** Returns the hash of the parts added, in lowercase hex. */
+  public String toHex() {
+    return hasher.hash().toString();
+  }
+
+  /** Serializes the message so that equal messages always give the same bytes. */
+  public static byte[] deterministicBytes(Message message) {
+    byte[] bytes = new byte[message.getSerializedSize()];
+    try {
+      CodedOutputStream output = CodedOutputStream.newInstance(bytes);
+      output.useDeterministicSerialization();
+      message.writeTo(output);
+      output.checkNoSpaceLeft();
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+    return bytes;
+  }
+}
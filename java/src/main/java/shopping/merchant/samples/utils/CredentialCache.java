@@ -0,0 +1,118 @@
+// Copyright 2026 Google LLC
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     https://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package shopping.merchant.samples.utils;
+
+import com.google.api.gax.core.CredentialsProvider;
+import com.google.api.gax.core.FixedCredentialsProvider;
+import com.google.auth.oauth2.AccessToken;
+import com.google.auth.oauth2.GoogleCredentials;
+import java.io.IOException;
+import java.util.Date;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Process-wide cache of the credentials loaded by {@link Authenticator}.
+ *
+ * <p>The credentials are loaded from disk once, and the first access token is fetched right away.
+ * A background thread then refreshes the access token a few minutes before it expires, so clients
+ * never wait for a token fetch on the request path. All clients of the process share the same
+ * credentials, through {@link #getCredentialsProvider()}.
+ */
+public final class CredentialCache {
+
+  // Refreshes the access token this long before it expires.
+  private static final long REFRESH_MARGIN_MILLIS = TimeUnit.MINUTES.toMillis(5);
+  // Delay before retrying a failed refresh, and the minimum delay between two refreshes.
+  private static final long RETRY_DELAY_MILLIS = TimeUnit.SECONDS.toMillis(30);
+
+  // Daemon thread, so that it never keeps the JVM alive.
+  private static final ScheduledExecutorService REFRESHER =
+      Executors.newSingleThreadScheduledExecutor(
+          runnable -> {
+            Thread thread = new Thread(runnable, "credential-refresher");
+            thread.setDaemon(true);
+            return thread;
+          });
+
+  private static GoogleCredentials credentials;
+  private static CredentialsProvider credentialsProvider;
+
+  private CredentialCache() {}
+
+  /** Returns the credentials of the user's configuration, loading them on the first call. */
+  public static synchronized GoogleCredentials getCredentials() throws IOException {
+    if (credentials == null) {
+      credentials = refreshInBackground(new Authenticator().load());
+      credentialsProvider = FixedCredentialsProvider.create(credentials);
+    }
+    return credentials;
+  }
+
+  /** Returns a provider of the cached credentials, to share between the settings of all clients. */
+  public static synchronized CredentialsProvider getCredentialsProvider() throws IOException {
+    getCredentials();
+    return credentialsProvider;
+  }
+
+  /**
+   * Fetches an access token for the credentials now, and keeps refreshing it in the background
+   * before it expires.
+   *
+   * @return the credentials to use, scoped to the Merchant API if they had no scopes.
+   * @throws IOException if the first access token cannot be fetched.
+   */
+  public static GoogleCredentials refreshInBackground(GoogleCredentials credentials)
+      throws IOException {
+    // Service account credentials cannot fetch an access token without scopes.
+    GoogleCredentials scoped =
+        credentials.createScopedRequired()
+            ? credentials.createScoped(Authenticator.SCOPES)
+            : credentials;
+    scoped.refresh();
+    scheduleRefresh(scoped, delayUntilRefresh(scoped.getAccessToken()));
+    return scoped;
+  }
+
+  // Returns the delay before the token should be refreshed, or -1 if it does not expire.
+  private static long delayUntilRefresh(AccessToken token) {
+    Date expirationTime = token == null ? null : token.getExpirationTime();
+    if (expirationTime == null) {
+      return -1;
+    }
+    long delay = expirationTime.getTime() - System.currentTimeMillis() - REFRESH_MARGIN_MILLIS;
+    return Math.max(delay, RETRY_DELAY_MILLIS);
+  }
+
+  private static void scheduleRefresh(GoogleCredentials credentials, long delayMillis) {
+    if (delayMillis < 0) {
+      return;
+    }
+    REFRESHER.schedule(
+        () -> {
+          try {
+            credentials.refresh();
+            scheduleRefresh(credentials, delayUntilRefresh(credentials.getAccessToken()));
+          } catch (IOException | RuntimeException e) {
+            // The current token stays valid until it expires, so the refresh is only retried.
+            System.out.println("Failed to refresh the access token, retrying: " + e);
+            scheduleRefresh(credentials, RETRY_DELAY_MILLIS);
+          }
+        },
+        delayMillis,
+        TimeUnit.MILLISECONDS);
+  }
+}
@@ -0,0 +1,218 @@
+// Copyright 2026 Google LLC
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     https://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package shopping.merchant.samples.utils;
+
+import com.google.api.gax.rpc.ApiException;
+import com.google.protobuf.CodedInputStream;
+import com.google.protobuf.InvalidProtocolBufferException;
+import com.google.protobuf.Message;
+import com.google.protobuf.Parser;
+import com.google.rpc.Code;
+import com.google.rpc.Status;
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A file of the write requests that failed, with the status of their failure, so that they can be
+ * sent again later with {@link #replay} instead of rerunning the whole batch.
+ *
+ * <p>Each dead letter is the request followed by a {@link Status}, both length-delimited protocol
+ * buffers. Dead letters are appended and flushed one at a time; a dead letter cut short by a crash
+ * is removed when the file is opened again.
+ *
+ * @param <RequestT> the request type, e.g. {@code InsertProductInputRequest}.
+ */
+public class DeadLetterQueue<RequestT extends Message> implements AutoCloseable {
+
+  /** A failed request and the status of its failure. */
+  public static final class DeadLetter<RequestT> {
+    private final RequestT request;
+    private final Status status;
+
+    private DeadLetter(RequestT request, Status status) {
+      this.request = request;
+      this.status = status;
+    }
+
+    public RequestT getRequest() {
+      return request;
+    }
+
+    public Status getStatus() {
+      return status;
+    }
+  }
+
+  private final Path file;
+  private final OutputStream output;
+  private final AtomicLong added = new AtomicLong();
+
+  /** Opens the dead letter file for appending, creating it if needed. */
+  public DeadLetterQueue(Path file) throws IOException {
+    this.file = file;
+    if (Files.exists(file)) {
+      long validLength = validLength(file);
+      try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+        channel.truncate(validLength);
+      }
+    }
+    this.output =
+        new BufferedOutputStream(
+            Files.newOutputStream(file, StandardOpenOption.CREATE, StandardOpenOption.APPEND));
+  }
+
+  /** Appends the request with the status of the error. */
+  public void add(RequestT request, Throwable error) throws IOException {
+    Status status = toStatus(error);
+    synchronized (output) {
+      request.writeDelimitedTo(output);
+      status.writeDelimitedTo(output);
+      // Flushed right away, so no failed request is lost if the process stops.
+      output.flush();
+    }
+    added.incrementAndGet();
+  }
+
+  /** Returns the number of dead letters added since the file was opened. */
+  public long getAdded() {
+    return added.get();
+  }
+
+  public Path getFile() {
+    return file;
+  }
+
+  @Override
+  public void close() throws IOException {
+    synchronized (output) {
+      output.close();
+    }
+  }
+
+  /** Returns the status of an error, with the code of the API error if it is one. */
+  public static Status toStatus(Throwable error) {
+    Code code = Code.UNKNOWN;
+    if (error instanceof ApiException) {
+      // The codes of the API errors have the same names as the google.rpc codes.
+      try {
+        code = Code.valueOf(((ApiException) error).getStatusCode().getCode().name());
+      } catch (IllegalArgumentException e) {
+        // Keeps UNKNOWN.
+      }
+    }
+    return Status.newBuilder()
+        .setCode(code.getNumber())
+        .setMessage(String.valueOf(error.getMessage()))
+        .build();
+  }
+
+  /** Reads the dead letters of the file, skipping a dead letter cut short by a crash. */
+  public static <RequestT extends Message> List<DeadLetter<RequestT>> read(
+      Path file, Parser<RequestT> parser) throws IOException {
+    List<DeadLetter<RequestT>> deadLetters = new ArrayList<>();
+    if (!Files.exists(file)) {
+      return deadLetters;
+    }
+    try (InputStream input = new BufferedInputStream(Files.newInputStream(file))) {
+      while (true) {
+        RequestT request;
+        Status status;
+        try {
+          request = parser.parseDelimitedFrom(input);
+          if (request == null) {
+            break;
+          }
+          status = Status.parseDelimitedFrom(input);
+        } catch (InvalidProtocolBufferException e) {
+          break;
+        }
+        if (status == null) {
+          break;
+        }
+        deadLetters.add(new DeadLetter<>(request, status));
+      }
+    }
+    return deadLetters;
+  }
+
+  /**
+   * Sends the dead letters of the file again through a writer with the same concurrency limit as
+   * the original run. The requests that fail again replace the content of the file, and the file
+   * is deleted if they all succeed.
+   *
+   * @return the counts of the replay.
+   */
+  public static <RequestT extends Message, ResponseT> BoundedAsyncWriter<RequestT, ResponseT>
+      replay(
+          Path file,
+          Parser<RequestT> parser,
+          BoundedAsyncWriter.AsyncCall<RequestT, ResponseT> call,
+          int maxInFlight)
+          throws IOException, InterruptedException {
+    List<DeadLetter<RequestT>> deadLetters = read(file, parser);
+    // The requests that fail again are written to a new file, which replaces the old one once
+    // the replay is done, so an interrupted replay can be run again.
+    Path retryFile = file.resolveSibling(file.getFileName() + ".replay");
+    Files.deleteIfExists(retryFile);
+    BoundedAsyncWriter<RequestT, ResponseT> writer;
+    try (DeadLetterQueue<RequestT> retries = new DeadLetterQueue<>(retryFile)) {
+      writer = new BoundedAsyncWriter<>(call, maxInFlight, retries);
+      for (DeadLetter<RequestT> deadLetter : deadLetters) {
+        writer.submit(deadLetter.getRequest());
+      }
+      writer.awaitCompletion();
+    }
+    if (writer.getFailed() == 0) {
+      Files.delete(retryFile);
+      Files.deleteIfExists(file);
+    } else {
+      Files.move(
+          retryFile, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+    return writer;
+  }
+
+  // Returns the length of the complete dead letters at the start of the file.
+  private static long validLength(Path file) throws IOException {
+    long validLength = 0;
+    try (InputStream input = new BufferedInputStream(Files.newInputStream(file))) {
+      CodedInputStream coded = CodedInputStream.newInstance(input);
+      coded.setSizeLimit(Integer.MAX_VALUE);
+      try {
+        while (!coded.isAtEnd()) {
+          // Skips the request, then the status.
+          for (int i = 0; i < 2; i++) {
+            coded.skipRawBytes(coded.readRawVarint32());
+          }
+          validLength = coded.getTotalBytesRead();
+        }
+      } catch (InvalidProtocolBufferException e) {
+        // The last dead letter was cut short.
+      }
+    }
+    return validLength;
+  }
+}
@@ -0,0 +1,425 @@
+// Copyright 2026 Google LLC
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     https://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package shopping.merchant.samples.utils;
+
+import com.google.protobuf.Descriptors.Descriptor;
+import com.google.protobuf.Descriptors.EnumValueDescriptor;
+import com.google.protobuf.Descriptors.FieldDescriptor;
+import com.google.protobuf.Message;
+import com.google.protobuf.util.JsonFormat;
+import java.io.BufferedOutputStream;
+import java.io.BufferedWriter;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+
+/**
+ * Writes many protocol buffer messages, e.g. the products or report rows of a listing, much faster
+ * than printing them with {@code System.out.println}, whose text format is slow for large messages.
+ *
+ * <p>The output is buffered, and can be written in one of the {@link Format formats}. Use {@link
+ * #async} to write on a background thread, so that formatting does not slow down the calls.
+ */
+public abstract class MessageSink implements AutoCloseable {
+
+  private static final int BUFFER_SIZE = 64 * 1024;
+
+  /** The output formats. */
+  public enum Format {
+    /** Binary messages, each preceded by its size, as read by {@code parseDelimitedFrom}. */
+    DELIMITED,
+    /** One message per line, in JSON. */
+    JSON,
+    /** Tab-separated values of the given fields, with a header line. */
+    TSV
+  }
+
+  /** Writes one message. */
+  public abstract void write(Message message) throws IOException;
+
+  /** Writes the buffered output. */
+  public abstract void flush() throws IOException;
+
+  /** Writes the buffered output and closes the stream. */
+  @Override
+  public abstract void close() throws IOException;
+
+  /**
+   * Creates a sink writing to the stream in the given format.
+   *
+   * @param fields for {@link Format#TSV}, the field paths of the columns in proto field names,
+   *     e.g. {@code offer_id} or {@code product_attributes.title}. Ignored for the other formats.
+   */
+  public static MessageSink create(Format format, OutputStream output, List<String> fields) {
+    return create(format, output, null, fields);
+  }
+
+  /**
+   * Creates a sink writing messages of the given type to the stream in the given format. For {@link
+   * Format#TSV}, the field paths are checked against the type here rather than at the first write,
+   * so that a misspelled path fails on the caller's thread even when the sink is {@link #async}.
+   *
+   * @param type the type of the messages, or null if it is only known at the first write.
+   * @param fields for {@link Format#TSV}, the field paths of the columns in proto field names,
+   *     e.g. {@code offer_id} or {@code product_attributes.title}. Ignored for the other formats.
+   */
+  public static MessageSink create(
+      Format format, OutputStream output, Descriptor type, List<String> fields) {
+    switch (format) {
+      case DELIMITED:
+        return new DelimitedSink(output);
+      case JSON:
+        return new JsonSink(output);
+      case TSV:
+        return new TsvSink(output, type, fields);
+      default:
+        throw new IllegalArgumentException("Unknown format " + format);
+    }
+  }
+
+  /**
+   * Creates a sink writing to {@code System.out} in the given format. Closing the sink flushes the
+   * output but does not close {@code System.out}.
+   */
+  public static MessageSink stdout(Format format, List<String> fields) {
+    return create(
+        format,
+        new FilterOutputStream(System.out) {
+          @Override
+          public void write(byte[] bytes, int offset, int length) throws IOException {
+            out.write(bytes, offset, length);
+          }
+
+          @Override
+          public void close() throws IOException {
+            flush();
+          }
+        },
+        fields);
+  }
+
+  /**
+   * Returns a sink that formats and writes the messages of the given sink on a background thread.
+   * {@link #write} only blocks when {@code capacity} messages are waiting to be written.
+   */
+  public static MessageSink async(MessageSink sink, int capacity) {
+    return new AsyncSink(sink, capacity);
+  }
+
+  private static final class DelimitedSink extends MessageSink {
+    private final OutputStream output;
+
+    private DelimitedSink(OutputStream output) {
+      this.output = new BufferedOutputStream(output, BUFFER_SIZE);
+    }
+
+    @Override
+    public void write(Message message) throws IOException {
+      message.writeDelimitedTo(output);
+    }
+
+    @Override
+    public void flush() throws IOException {
+      output.flush();
+    }
+
+    @Override
+    public void close() throws IOException {
+      output.close();
+    }
+  }
+
+  private static final class JsonSink extends MessageSink {
+    // Built once and reused for every message.
+    private final JsonFormat.Printer printer =
+        JsonFormat.printer().omittingInsignificantWhitespace();
+    private final Writer writer;
+
+    private JsonSink(OutputStream output) {
+      this.writer =
+          new BufferedWriter(new OutputStreamWriter(output, StandardCharsets.UTF_8), BUFFER_SIZE);
+    }
+
+    @Override
+    public void write(Message message) throws IOException {
+      printer.appendTo(message, writer);
+      writer.write('\n');
+    }
+
+    @Override
+    public void flush() throws IOException {
+      writer.flush();
+    }
+
+    @Override
+    public void close() throws IOException {
+      writer.close();
+    }
+  }
+
+  private static final class TsvSink extends MessageSink {
+    private final List<String> fields;
+    private final Writer writer;
+    // The field descriptors of each column, resolved once per message type.
+    private final Map<Descriptor, FieldDescriptor[][]> columnsByType = new HashMap<>();
+    private final JsonFormat.Printer printer =
+        JsonFormat.printer().omittingInsignificantWhitespace();
+    private boolean headerWritten;
+
+    private TsvSink(OutputStream output, Descriptor type, List<String> fields) {
+      if (fields == null || fields.isEmpty()) {
+        throw new IllegalArgumentException("The TSV format needs at least one field");
+      }
+      this.fields = Collections.unmodifiableList(new ArrayList<>(fields));
+      if (type != null) {
+        columnsByType.put(type, resolve(type));
+      }
+      this.writer =
+          new BufferedWriter(new OutputStreamWriter(output, StandardCharsets.UTF_8), BUFFER_SIZE);
+    }
+
+    @Override
+    public void write(Message message) throws IOException {
+      if (!headerWritten) {
+        writer.write(String.join("\t", fields));
+        writer.write('\n');
+        headerWritten = true;
+      }
+      FieldDescriptor[][] columns = columnsByType.get(message.getDescriptorForType());
+      if (columns == null) {
+        columns = resolve(message.getDescriptorForType());
+        columnsByType.put(message.getDescriptorForType(), columns);
+      }
+      for (int i = 0; i < columns.length; i++) {
+        if (i > 0) {
+          writer.write('\t');
+        }
+        writeValue(message, columns[i], 0);
+      }
+      writer.write('\n');
+    }
+
+    @Override
+    public void flush() throws IOException {
+      writer.flush();
+    }
+
+    @Override
+    public void close() throws IOException {
+      writer.close();
+    }
+
+    private FieldDescriptor[][] resolve(Descriptor type) {
+      FieldDescriptor[][] columns = new FieldDescriptor[fields.size()][];
+      for (int i = 0; i < columns.length; i++) {
+        String[] names = fields.get(i).split("\\.");
+        columns[i] = new FieldDescriptor[names.length];
+        Descriptor current = type;
+        for (int j = 0; j < names.length; j++) {
+          FieldDescriptor field = current == null ? null : current.findFieldByName(names[j]);
+          if (field == null) {
+            throw new IllegalArgumentException(
+                "No field " + fields.get(i) + " in " + type.getFullName());
+          }
+          columns[i][j] = field;
+          current =
+              field.getJavaType() == FieldDescriptor.JavaType.MESSAGE
+                  ? field.getMessageType()
+                  : null;
+        }
+      }
+      return columns;
+    }
+
+    // Writes the value at the end of the path, with repeated values separated by commas.
+    private void writeValue(Message message, FieldDescriptor[] path, int depth) throws IOException {
+      FieldDescriptor field = path[depth];
+      boolean last = depth == path.length - 1;
+      if (field.isRepeated()) {
+        int count = message.getRepeatedFieldCount(field);
+        for (int i = 0; i < count; i++) {
+          if (i > 0) {
+            writer.write(',');
+          }
+          Object value = message.getRepeatedField(field, i);
+          if (last) {
+            writeScalar(value);
+          } else {
+            writeValue((Message) value, path, depth + 1);
+          }
+        }
+      } else if (last) {
+        if (field.getJavaType() != FieldDescriptor.JavaType.MESSAGE || message.hasField(field)) {
+          writeScalar(message.getField(field));
+        }
+      } else if (message.hasField(field)) {
+        writeValue((Message) message.getField(field), path, depth + 1);
+      }
+    }
+
+    private void writeScalar(Object value) throws IOException {
+      String text;
+      if (value instanceof EnumValueDescriptor) {
+        text = ((EnumValueDescriptor) value).getName();
+      } else if (value instanceof Message) {
+        text = printer.print((Message) value);
+      } else {
+        text = String.valueOf(value);
+      }
+      // Keeps one record per line and one value per column.
+      for (int i = 0; i < text.length(); i++) {
+        char c = text.charAt(i);
+        writer.write(c == '\t' || c == '\n' || c == '\r' ? ' ' : c);
+      }
+    }
+  }
+
+  private static final class AsyncSink extends MessageSink {
+    // Queued after the messages to close the sink.
+    private static final Object CLOSE = new Object();
+
+    private final MessageSink sink;
+    private final BlockingQueue<Object> queue;
+    private final Thread thread;
+    private volatile Exception error;
+    private volatile boolean closed;
+
+    private AsyncSink(MessageSink sink, int capacity) {
+      this.sink = sink;
+      this.queue = new ArrayBlockingQueue<>(capacity);
+      this.thread = new Thread(this::drain, "message-sink");
+      thread.setDaemon(true);
+      thread.start();
+    }
+
+    @Override
+    public void write(Message message) throws IOException {
+      if (closed) {
+        throw new IOException("The sink is closed");
+      }
+      checkError();
+      put(message);
+    }
+
+    @Override
+    public void flush() throws IOException {
+      if (closed) {
+        throw new IOException("The sink is closed");
+      }
+      Flush flush = new Flush();
+      put(flush);
+      try {
+        flush.done.await();
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        throw new InterruptedIOException("Interrupted while flushing");
+      }
+      checkError();
+    }
+
+    @Override
+    public void close() throws IOException {
+      if (closed) {
+        return;
+      }
+      closed = true;
+      put(CLOSE);
+      try {
+        thread.join();
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        throw new InterruptedIOException("Interrupted while closing");
+      }
+      checkError();
+    }
+
+    private void put(Object item) throws IOException {
+      try {
+        queue.put(item);
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        throw new InterruptedIOException("Interrupted while writing");
+      }
+    }
+
+    private void checkError() throws IOException {
+      if (error != null) {
+        throw new IOException("Failed to write a message", error);
+      }
+    }
+
+    private void drain() {
+      try {
+        while (true) {
+          Object item = queue.take();
+          if (item == CLOSE) {
+            break;
+          }
+          if (item instanceof Flush) {
+            flushQuietly();
+            ((Flush) item).done.countDown();
+            continue;
+          }
+          // Messages after an error are dropped; the error is thrown by the next call.
+          if (error == null) {
+            try {
+              sink.write((Message) item);
+            } catch (IOException | RuntimeException e) {
+              // Keeps draining, so that pending flushes and the close are still answered.
+              error = e;
+            }
+          }
+        }
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      } finally {
+        try {
+          sink.close();
+        } catch (IOException | RuntimeException e) {
+          if (error == null) {
+            error = e;
+          }
+        }
+      }
+    }
+
+    private void flushQuietly() {
+      try {
+        sink.flush();
+      } catch (IOException | RuntimeException e) {
+        if (error == null) {
+          error = e;
+        }
+      }
+    }
+
+    // Queued after the messages to flush the sink. Counted down once flushed.
+    private static final class Flush {
+      private final CountDownLatch done = new CountDownLatch(1);
+    }
+  }
+}
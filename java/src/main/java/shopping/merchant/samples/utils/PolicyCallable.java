@@ -0,0 +1,284 @@
+// Copyright 2026 Google LLC
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     https://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package shopping.merchant.samples.utils;
+
+import com.google.api.core.ApiFuture;
+import com.google.api.core.ApiFutureCallback;
+import com.google.api.core.ApiFutures;
+import com.google.api.core.SettableApiFuture;
+import com.google.api.gax.rpc.ApiException;
+import com.google.api.gax.rpc.UnaryCallable;
+import com.google.common.util.concurrent.MoreExecutors;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Wraps the callable of one method, e.g. {@code insertProductInputCallable()}, to retry and hedge
+ * its calls as set by a {@link RetryPolicy}.
+ *
+ * <p>The wrapped callable must not retry itself, or its retries would run inside every attempt and
+ * hedge of the policy, multiplying the load and overriding its timing. Set the method's client
+ * retry settings to {@link RetryPolicy#singleAttempt}.
+ *
+ * <p>Each method should have its own {@code PolicyCallable}, so that it has its own retry budget
+ * and counters. The scheduler only runs the backoff and hedge timers, so one thread is enough for
+ * many callables.
+ *
+ * @param <RequestT> the request type of the method.
+ * @param <ResponseT> the response type of the method.
+ */
+public class PolicyCallable<RequestT, ResponseT> {
+
+  // Retry tokens are counted in thousandths, so that fractions can be added atomically.
+  private static final long TOKEN = 1000;
+
+  private final UnaryCallable<RequestT, ResponseT> callable;
+  private final RetryPolicy policy;
+  private final ScheduledExecutorService scheduler;
+
+  private final AtomicLong calls = new AtomicLong();
+  private final AtomicLong attempts = new AtomicLong();
+  private final AtomicLong retries = new AtomicLong();
+  private final AtomicLong hedges = new AtomicLong();
+  private final AtomicLong hedgesWon = new AtomicLong();
+  private final long tokensPerCall;
+  private final long maxTokens;
+  private final AtomicLong tokens;
+  private final AtomicLong budgetExhausted = new AtomicLong();
+  private final AtomicLong failed = new AtomicLong();
+
+  public PolicyCallable(
+      UnaryCallable<RequestT, ResponseT> callable,
+      RetryPolicy policy,
+      ScheduledExecutorService scheduler) {
+    this.callable = callable;
+    this.policy = policy;
+    this.scheduler = scheduler;
+    this.tokensPerCall = Math.round(policy.getRetryBudgetRatio() * TOKEN);
+    this.maxTokens = policy.getMaxRetryTokens() * TOKEN;
+    this.tokens = new AtomicLong(maxTokens);
+  }
+
+  /** Sends the request, and returns the first successful response of its attempts. */
+  public ApiFuture<ResponseT> futureCall(RequestT request) {
+    calls.incrementAndGet();
+    addTokens();
+    Call call = new Call(request);
+    call.attempt(false);
+    return call.result;
+  }
+
+  /** Returns the number of requests sent with {@link #futureCall}. */
+  public long getCalls() {
+    return calls.get();
+  }
+
+  /** Returns the number of attempts sent to the API, including retries and hedges. */
+  public long getAttempts() {
+    return attempts.get();
+  }
+
+  public long getRetries() {
+    return retries.get();
+  }
+
+  public long getHedges() {
+    return hedges.get();
+  }
+
+  /** Returns the number of calls answered by a hedge before the attempt it was hedging. */
+  public long getHedgesWon() {
+    return hedgesWon.get();
+  }
+
+  /** Returns the number of retries and hedges not sent because the budget was spent. */
+  public long getBudgetExhausted() {
+    return budgetExhausted.get();
+  }
+
+  /** Returns the number of calls that failed after all their attempts. */
+  public long getFailed() {
+    return failed.get();
+  }
+
+  @Override
+  public String toString() {
+    return String.format(
+        "%d calls, %d attempts, %d retries, %d hedges (%d won), %d over budget, %d failed",
+        calls.get(),
+        attempts.get(),
+        retries.get(),
+        hedges.get(),
+        hedgesWon.get(),
+        budgetExhausted.get(),
+        failed.get());
+  }
+
+  // Adds the tokens of one call, up to the capacity of the bucket.
+  private void addTokens() {
+    while (true) {
+      long current = tokens.get();
+      long next = Math.min(maxTokens, current + tokensPerCall);
+      if (next == current || tokens.compareAndSet(current, next)) {
+        return;
+      }
+    }
+  }
+
+  // Takes the token of one retry or hedge, if there is one.
+  private boolean tryAcquireBudget() {
+    while (true) {
+      long current = tokens.get();
+      if (current < TOKEN) {
+        budgetExhausted.incrementAndGet();
+        return false;
+      }
+      if (tokens.compareAndSet(current, current - TOKEN)) {
+        return true;
+      }
+    }
+  }
+
+  // The attempts of one request. Guarded by this.
+  private final class Call {
+    private final RequestT request;
+    private final SettableApiFuture<ResponseT> result = SettableApiFuture.create();
+    private final List<ApiFuture<ResponseT>> inFlight = new ArrayList<>();
+    private int attemptCount;
+    private long backoffMillis = policy.getInitialBackoffMillis();
+    private boolean hedged;
+
+    private Call(RequestT request) {
+      this.request = request;
+    }
+
+    private void attempt(boolean hedge) {
+      ApiFuture<ResponseT> future;
+      synchronized (this) {
+        if (result.isDone()) {
+          return;
+        }
+        if (hedge) {
+          // Checked and counted here, so that a hedge is only paid for if it is sent.
+          if (inFlight.isEmpty()
+              || attemptCount >= policy.getMaxAttempts()
+              || !tryAcquireBudget()) {
+            return;
+          }
+          hedges.incrementAndGet();
+        }
+        attemptCount++;
+        attempts.incrementAndGet();
+        future = send();
+        inFlight.add(future);
+        if (!hedged && policy.getHedgeDelayMillis() > 0) {
+          // Only one hedge per call, so a slow call costs at most one extra attempt.
+          hedged = true;
+          try {
+            scheduler.schedule(
+                () -> attempt(true), policy.getHedgeDelayMillis(), TimeUnit.MILLISECONDS);
+          } catch (RejectedExecutionException e) {
+            // The scheduler is shut down, so the call goes on without a hedge.
+          }
+        }
+      }
+      ApiFutures.addCallback(
+          future,
+          new ApiFutureCallback<ResponseT>() {
+            @Override
+            public void onSuccess(ResponseT response) {
+              if (result.set(response)) {
+                if (hedge) {
+                  hedgesWon.incrementAndGet();
+                }
+                cancelOthers(future);
+              }
+            }
+
+            @Override
+            public void onFailure(Throwable throwable) {
+              onAttemptFailed(future, throwable);
+            }
+          },
+          MoreExecutors.directExecutor());
+    }
+
+    // An exception thrown by the callable is handled like a failed attempt, since this may run on
+    // the scheduler, where it would be lost and the result would never complete.
+    private ApiFuture<ResponseT> send() {
+      try {
+        return callable.futureCall(request);
+      } catch (RuntimeException e) {
+        return ApiFutures.immediateFailedFuture(e);
+      }
+    }
+
+    private void onAttemptFailed(ApiFuture<ResponseT> future, Throwable throwable) {
+      long delayMillis;
+      synchronized (this) {
+        inFlight.remove(future);
+        if (result.isDone()) {
+          return;
+        }
+        if (!inFlight.isEmpty()) {
+          // Another attempt is still running, and may succeed.
+          return;
+        }
+        if (!isRetryable(throwable)
+            || attemptCount >= policy.getMaxAttempts()
+            || !tryAcquireBudget()) {
+          failed.incrementAndGet();
+          result.setException(throwable);
+          return;
+        }
+        retries.incrementAndGet();
+        // Full jitter spreads the retries of many calls failing at the same time.
+        delayMillis = ThreadLocalRandom.current().nextLong(backoffMillis + 1);
+        backoffMillis = Math.min(backoffMillis * 2, policy.getMaxBackoffMillis());
+      }
+      try {
+        scheduler.schedule(() -> attempt(false), delayMillis, TimeUnit.MILLISECONDS);
+      } catch (RejectedExecutionException e) {
+        failed.incrementAndGet();
+        result.setException(throwable);
+      }
+    }
+
+    private void cancelOthers(ApiFuture<ResponseT> winner) {
+      List<ApiFuture<ResponseT>> others;
+      synchronized (this) {
+        others = new ArrayList<>(inFlight);
+        inFlight.clear();
+      }
+      for (ApiFuture<ResponseT> other : others) {
+        if (other != winner) {
+          other.cancel(true);
+        }
+      }
+    }
+
+    private boolean isRetryable(Throwable throwable) {
+      return throwable instanceof ApiException
+          && policy
+              .getRetryableCodes()
+              .contains(((ApiException) throwable).getStatusCode().getCode());
+    }
+  }
+}
@@ -0,0 +1,183 @@
+// Copyright 2026 Google LLC
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     https://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package shopping.merchant.samples.utils;
+
+import com.google.api.gax.retrying.RetrySettings;
+import com.google.api.gax.rpc.StatusCode;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.Set;
+
+/**
+ * How a {@link PolicyCallable} retries and hedges the calls of one method.
+ *
+ * <p>Failed attempts are retried after an exponential backoff with full jitter. Retries and hedges
+ * are limited by a token bucket: each call adds {@code retryBudgetRatio} of a token, up to {@code
+ * maxRetryTokens}, and each retry or hedge takes one. Retries and hedges thus add at most {@code
+ * retryBudgetRatio} extra attempts per call, and a burst of failures after a long healthy run can
+ * only spend {@code maxRetryTokens} at once, so a failing backend is not flooded with retries.
+ * Hedging is off by default; only enable it for idempotent methods, such as inserts that overwrite
+ * the same resource.
+ */
+public final class RetryPolicy {
+
+  private final int maxAttempts;
+  private final long initialBackoffMillis;
+  private final long maxBackoffMillis;
+  private final double retryBudgetRatio;
+  private final int maxRetryTokens;
+  private final long hedgeDelayMillis;
+  private final Set<StatusCode.Code> retryableCodes;
+
+  private RetryPolicy(Builder builder) {
+    this.maxAttempts = builder.maxAttempts;
+    this.initialBackoffMillis = builder.initialBackoffMillis;
+    this.maxBackoffMillis = builder.maxBackoffMillis;
+    this.retryBudgetRatio = builder.retryBudgetRatio;
+    this.maxRetryTokens = builder.maxRetryTokens;
+    this.hedgeDelayMillis = builder.hedgeDelayMillis;
+    this.retryableCodes = Collections.unmodifiableSet(EnumSet.copyOf(builder.retryableCodes));
+  }
+
+  public static Builder newBuilder() {
+    return new Builder();
+  }
+
+  /**
+   * Returns client retry settings that send each call once, with the given timeout. Set them on the
+   * method wrapped by a {@link PolicyCallable}, e.g. with {@code
+   * settingsBuilder.insertProductInputSettings().setRetrySettings(...)}, so that the client does
+   * not retry inside each attempt of the policy.
+   */
+  public static RetrySettings singleAttempt(long attemptTimeoutMillis) {
+    Duration timeout = Duration.ofMillis(attemptTimeoutMillis);
+    return RetrySettings.newBuilder()
+        .setMaxAttempts(1)
+        .setInitialRpcTimeoutDuration(timeout)
+        .setMaxRpcTimeoutDuration(timeout)
+        .setRpcTimeoutMultiplier(1.0)
+        .setTotalTimeoutDuration(timeout)
+        .build();
+  }
+
+  /** Returns the maximum number of attempts per call, including the first one and hedges. */
+  public int getMaxAttempts() {
+    return maxAttempts;
+  }
+
+  public long getInitialBackoffMillis() {
+    return initialBackoffMillis;
+  }
+
+  public long getMaxBackoffMillis() {
+    return maxBackoffMillis;
+  }
+
+  /** Returns the number of retry tokens added per call, i.e. retries and hedges per call. */
+  public double getRetryBudgetRatio() {
+    return retryBudgetRatio;
+  }
+
+  /** Returns the number of retries and hedges that can be sent at once, e.g. at startup. */
+  public int getMaxRetryTokens() {
+    return maxRetryTokens;
+  }
+
+  /** Returns the time after which a call with no response is sent again, or 0 for no hedging. */
+  public long getHedgeDelayMillis() {
+    return hedgeDelayMillis;
+  }
+
+  /** Returns the error codes of the attempts that are retried. */
+  public Set<StatusCode.Code> getRetryableCodes() {
+    return retryableCodes;
+  }
+
+  /** Builder for {@link RetryPolicy}. */
+  public static final class Builder {
+    private int maxAttempts = 4;
+    private long initialBackoffMillis = 100;
+    private long maxBackoffMillis = 10_000;
+    private double retryBudgetRatio = 0.1;
+    private int maxRetryTokens = 10;
+    private long hedgeDelayMillis = 0;
+    // Errors that may succeed when the request is sent again.
+    private EnumSet<StatusCode.Code> retryableCodes =
+        EnumSet.copyOf(
+            Arrays.asList(
+                StatusCode.Code.UNAVAILABLE,
+                StatusCode.Code.DEADLINE_EXCEEDED,
+                StatusCode.Code.RESOURCE_EXHAUSTED,
+                StatusCode.Code.ABORTED,
+                StatusCode.Code.INTERNAL));
+
+    private Builder() {}
+
+    public Builder setMaxAttempts(int maxAttempts) {
+      if (maxAttempts < 1) {
+        throw new IllegalArgumentException("maxAttempts must be at least 1");
+      }
+      this.maxAttempts = maxAttempts;
+      return this;
+    }
+
+    public Builder setInitialBackoffMillis(long initialBackoffMillis) {
+      this.initialBackoffMillis = initialBackoffMillis;
+      return this;
+    }
+
+    public Builder setMaxBackoffMillis(long maxBackoffMillis) {
+      this.maxBackoffMillis = maxBackoffMillis;
+      return this;
+    }
+
+    public Builder setRetryBudgetRatio(double retryBudgetRatio) {
+      this.retryBudgetRatio = retryBudgetRatio;
+      return this;
+    }
+
+    /** Sets the capacity of the token bucket, which also starts full. */
+    public Builder setMaxRetryTokens(int maxRetryTokens) {
+      this.maxRetryTokens = maxRetryTokens;
+      return this;
+    }
+
+    /**
+     * Sends the request again if there is no response after the given delay, and uses the first
+     * response. Set it around the p95 latency of the method, so that only the slowest calls are
+     * hedged. 0 disables hedging.
+     */
+    public Builder setHedgeDelayMillis(long hedgeDelayMillis) {
+      this.hedgeDelayMillis = hedgeDelayMillis;
+      return this;
+    }
+
+    public Builder setRetryableCodes(Set<StatusCode.Code> retryableCodes) {
+      this.retryableCodes = EnumSet.noneOf(StatusCode.Code.class);
+      this.retryableCodes.addAll(retryableCodes);
+      return this;
+    }
+
+    public RetryPolicy build() {
+      if (maxBackoffMillis < initialBackoffMillis) {
+        throw new IllegalArgumentException(
+            "maxBackoffMillis must be at least initialBackoffMillis");
+      }
+      return new RetryPolicy(this);
+    }
+  }
+}
@@ -0,0 +1,195 @@
+// Copyright 2026 Google LLC
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     https://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package shopping.merchant.samples.utils;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.security.Permission;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Long-lived process that runs samples on request, so that running many samples in a row does not
+ * pay for a new JVM, class loading and credential loading every time.
+ *
+ * <p>Each request is one line with the sample class and its arguments, e.g. {@code
+ * products.v1.ListProductsSample}. The class name is relative to {@code shopping.merchant.samples}
+ * unless it is fully qualified. The runner calls the {@code main} method of the class, sends back
+ * what it prints, then a line {@code #END OK <millis>} or {@code #END FAILED <millis> <error>}.
+ * The line {@code quit} ends the session.
+ *
+ * <p>Run it without arguments to read requests from the standard input, or with a port to accept
+ * connections on that port of the loopback interface only, e.g. {@code mvn exec:java
+ * -Dexec.mainClass="shopping.merchant.samples.utils.SampleRunner" -Dexec.args="7070"}, then {@code
+ * echo products.v1.ListProductsSample | nc 127.0.0.1 7070}.
+ *
+ * <p>The credentials are loaded once by {@link CredentialCache} and their access token is kept
+ * fresh, so only the first sample waits for them. Samples run one at a time, because their output
+ * is captured by replacing {@code System.out}.
+ */
+public class SampleRunner {
+
+  private static final String PACKAGE_PREFIX = "shopping.merchant.samples.";
+  private static final String END = "#END";
+
+  // Main methods by requested class name.
+  private final Map<String, Method> mainMethods = new ConcurrentHashMap<>();
+
+  /** Thrown instead of exiting the JVM when a sample calls {@code System.exit}. */
+  private static final class ExitException extends SecurityException {
+    private ExitException(int status) {
+      super("The sample called System.exit(" + status + ")");
+    }
+  }
+
+  /** Runs the requests read from the input, and writes their output. */
+  public void serve(BufferedReader input, OutputStream output) throws IOException {
+    PrintStream out = new PrintStream(output, true, StandardCharsets.UTF_8.name());
+    String line;
+    while ((line = input.readLine()) != null) {
+      line = line.trim();
+      if (line.isEmpty()) {
+        continue;
+      }
+      if (line.equals("quit")) {
+        break;
+      }
+      run(line.split("\\s+"), out);
+    }
+    out.flush();
+  }
+
+  // Runs one sample with its output sent to out, and ends the output with the #END line.
+  private void run(String[] request, PrintStream out) {
+    String[] args = Arrays.copyOfRange(request, 1, request.length);
+    long start = System.nanoTime();
+    String error = null;
+    synchronized (SampleRunner.class) {
+      PrintStream stdout = System.out;
+      PrintStream stderr = System.err;
+      System.setOut(out);
+      System.setErr(out);
+      try {
+        mainMethod(request[0]).invoke(null, (Object) args);
+      } catch (InvocationTargetException e) {
+        error = e.getCause().toString();
+      } catch (ReflectiveOperationException | RuntimeException e) {
+        error = e.toString();
+      } finally {
+        System.setOut(stdout);
+        System.setErr(stderr);
+      }
+    }
+    long millis = (System.nanoTime() - start) / 1_000_000;
+    out.println(error == null ? END + " OK " + millis : END + " FAILED " + millis + " " + error);
+  }
+
+  private Method mainMethod(String className) throws ReflectiveOperationException {
+    Method cached = mainMethods.get(className);
+    if (cached != null) {
+      return cached;
+    }
+    Class<?> sampleClass;
+    try {
+      sampleClass = Class.forName(PACKAGE_PREFIX + className);
+    } catch (ClassNotFoundException e) {
+      sampleClass = Class.forName(className);
+    }
+    Method main = sampleClass.getMethod("main", String[].class);
+    if (!Modifier.isStatic(main.getModifiers())) {
+      throw new NoSuchMethodException(className + ".main is not static");
+    }
+    mainMethods.put(className, main);
+    return main;
+  }
+
+  // Makes System.exit throw instead, so that a failing sample does not stop the runner.
+  @SuppressWarnings("removal")
+  private static void preventExit() {
+    try {
+      System.setSecurityManager(
+          new SecurityManager() {
+            @Override
+            public void checkExit(int status) {
+              throw new ExitException(status);
+            }
+
+            // Allows everything else.
+            @Override
+            public void checkPermission(Permission permission) {}
+
+            @Override
+            public void checkPermission(Permission permission, Object context) {}
+          });
+    } catch (UnsupportedOperationException | SecurityException e) {
+      // Newer JVMs need -Djava.security.manager=allow for this.
+      System.out.println("Warning: samples calling System.exit will stop the runner: " + e);
+    }
+  }
+
+  public static void main(String[] args) throws Exception {
+    preventExit();
+    // Loads the credentials and fetches the first access token before the first request.
+    try {
+      CredentialCache.getCredentials();
+    } catch (IOException e) {
+      System.out.println("Could not load the credentials yet: " + e);
+    }
+
+    SampleRunner runner = new SampleRunner();
+    if (args.length == 0) {
+      System.out.println("Reading sample requests from the standard input");
+      runner.serve(
+          new BufferedReader(new InputStreamReader(System.in, StandardCharsets.UTF_8)),
+          System.out);
+      return;
+    }
+
+    int port = Integer.parseInt(args[0]);
+    // Only accepts local connections, since the samples run with the user's credentials.
+    try (ServerSocket serverSocket = new ServerSocket(port, 50, InetAddress.getLoopbackAddress())) {
+      System.out.printf("Listening for sample requests on 127.0.0.1:%d%n", port);
+      while (true) {
+        Socket socket = serverSocket.accept();
+        Thread session =
+            new Thread(
+                () -> {
+                  try (Socket client = socket) {
+                    runner.serve(
+                        new BufferedReader(
+                            new InputStreamReader(
+                                client.getInputStream(), StandardCharsets.UTF_8)),
+                        client.getOutputStream());
+                  } catch (IOException e) {
+                    System.out.println("Session failed: " + e);
+                  }
+                },
+                "sample-runner-session");
+        session.start();
+      }
+    }
+  }
+}
@@ -0,0 +1,48 @@
+// Copyright 2026 Google LLC
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     https://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package shopping.merchant.samples.utils;
+
+import java.io.File;
+import java.math.BigInteger;
+
+/** A Merchant Center account of a {@link TenantRegistry}, with its own service account. */
+public final class Tenant {
+  private final BigInteger accountId;
+  private final File credentialsFile;
+
+  public Tenant(BigInteger accountId, File credentialsFile) {
+    this.accountId = accountId;
+    this.credentialsFile = credentialsFile;
+  }
+
+  public BigInteger getAccountId() {
+    return accountId;
+  }
+
+  /** Returns the service account key file of the account. */
+  public File getCredentialsFile() {
+    return credentialsFile;
+  }
+
+  /** Returns the account name, in the format {@code accounts/{account}}. */
+  public String getName() {
+    return "accounts/" + accountId;
+  }
+
+  @Override
+  public String toString() {
+    return getName();
+  }
+}
@@ -0,0 +1,189 @@
+// Copyright 2026 Google LLC
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     https://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package shopping.merchant.samples.utils;
+
+import com.google.api.gax.core.BackgroundResource;
+import com.google.api.gax.core.CredentialsProvider;
+import java.io.IOException;
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The clients of one API for the accounts of a {@link TenantRegistry}.
+ *
+ * <p>The client of an account is created on its first use, with the credentials of the account. At
+ * most {@code maxOpenClients} clients are kept open: when there are more, the least recently used
+ * clients that are not in use are closed, which closes their channels. An account whose client was
+ * closed gets a new one on its next use.
+ *
+ * @param <C> the client type, e.g. {@code ProductsServiceClient}.
+ */
+public class TenantClientPool<C extends BackgroundResource> implements AutoCloseable {
+
+  /** Creates the client of an account. */
+  public interface ClientFactory<C> {
+    C create(CredentialsProvider credentialsProvider) throws IOException;
+  }
+
+  /** A call made with the client of an account. */
+  public interface ClientCall<C, T> {
+    T call(C client) throws Exception;
+  }
+
+  // The client of an account, closed once it is evicted and no longer in use.
+  private static final class Entry<C extends BackgroundResource> {
+    // Written under the entry lock, read under the pool lock by getOpenClients.
+    private volatile C client;
+    private int users;
+    private boolean evicted;
+  }
+
+  private final TenantRegistry registry;
+  private final ClientFactory<C> factory;
+  private final int maxOpenClients;
+  // In least recently used order. Guarded by this.
+  private final LinkedHashMap<BigInteger, Entry<C>> entries = new LinkedHashMap<>(16, 0.75f, true);
+  private boolean closed;
+  private long created;
+  private long evictions;
+
+  public TenantClientPool(TenantRegistry registry, ClientFactory<C> factory, int maxOpenClients) {
+    if (maxOpenClients < 1) {
+      throw new IllegalArgumentException("maxOpenClients must be at least 1");
+    }
+    this.registry = registry;
+    this.factory = factory;
+    this.maxOpenClients = maxOpenClients;
+  }
+
+  /** Calls the given function with the client of the account, creating the client if needed. */
+  public <T> T execute(Tenant tenant, ClientCall<C, T> call) throws Exception {
+    Entry<C> entry;
+    synchronized (this) {
+      if (closed) {
+        throw new IllegalStateException("The client pool is closed");
+      }
+      entry = entries.computeIfAbsent(tenant.getAccountId(), k -> new Entry<>());
+      entry.users++;
+    }
+    try {
+      // Clients are created outside the pool lock, so that other accounts are not blocked.
+      C client;
+      synchronized (entry) {
+        if (entry.client == null) {
+          entry.client = factory.create(registry.getCredentialsProvider(tenant));
+          synchronized (this) {
+            created++;
+          }
+        }
+        client = entry.client;
+      }
+      return call.call(client);
+    } finally {
+      release(entry);
+      evictIdle();
+    }
+  }
+
+  /** Returns the number of clients open now. */
+  public synchronized int getOpenClients() {
+    int open = 0;
+    for (Entry<C> entry : entries.values()) {
+      if (entry.client != null) {
+        open++;
+      }
+    }
+    return open;
+  }
+
+  /** Returns the number of clients created, including the ones created again after eviction. */
+  public synchronized long getCreated() {
+    return created;
+  }
+
+  /** Returns the number of clients closed to stay within the maximum. */
+  public synchronized long getEvictions() {
+    return evictions;
+  }
+
+  /** Closes all clients. Clients in use are closed once their calls return. */
+  @Override
+  public void close() {
+    List<Entry<C>> toClose = new ArrayList<>();
+    synchronized (this) {
+      closed = true;
+      for (Entry<C> entry : entries.values()) {
+        entry.evicted = true;
+        if (entry.users == 0) {
+          toClose.add(entry);
+        }
+      }
+      entries.clear();
+    }
+    closeAll(toClose);
+  }
+
+  private void release(Entry<C> entry) {
+    boolean close;
+    synchronized (this) {
+      entry.users--;
+      close = entry.evicted && entry.users == 0;
+    }
+    if (close) {
+      closeAll(Collections.singletonList(entry));
+    }
+  }
+
+  // Closes the least recently used idle clients until at most maxOpenClients are open.
+  private void evictIdle() {
+    List<Entry<C>> toClose = new ArrayList<>();
+    synchronized (this) {
+      int excess = entries.size() - maxOpenClients;
+      Iterator<Map.Entry<BigInteger, Entry<C>>> iterator = entries.entrySet().iterator();
+      while (excess > 0 && iterator.hasNext()) {
+        Entry<C> entry = iterator.next().getValue();
+        // Clients in use are kept, so the pool can briefly exceed the maximum.
+        if (entry.users == 0) {
+          iterator.remove();
+          entry.evicted = true;
+          toClose.add(entry);
+          evictions++;
+          excess--;
+        }
+      }
+    }
+    closeAll(toClose);
+  }
+
+  private static <C extends BackgroundResource> void closeAll(List<Entry<C>> toClose) {
+    for (Entry<C> entry : toClose) {
+      synchronized (entry) {
+        if (entry.client != null) {
+          try {
+            entry.client.close();
+          } catch (Exception e) {
+            System.out.println("Failed to close a client: " + e);
+          }
+          entry.client = null;
+        }
+      }
+    }
+  }
+}
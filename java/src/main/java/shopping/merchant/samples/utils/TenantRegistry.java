@@ -0,0 +1,120 @@
+// Copyright 2026 Google LLC
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     https://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package shopping.merchant.samples.utils;
+
+import com.google.api.gax.core.CredentialsProvider;
+import com.google.api.gax.core.FixedCredentialsProvider;
+import com.google.auth.oauth2.GoogleCredentials;
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * The Merchant Center accounts that a process works on, each with its own service account, for
+ * example the client accounts of an agency.
+ *
+ * <p>The accounts are read from a tab-separated file with the columns account ID and service
+ * account key file, relative to the configuration directory, e.g. {@code
+ * 123456789<TAB>tenants/shop-a.json}. Lines starting with {@code #} are ignored. The credentials of
+ * an account are only loaded the first time they are needed, and then kept for the rest of the
+ * process. Use a {@link TenantClientPool} per API to bound the number of open clients.
+ */
+public class TenantRegistry {
+
+  private final Map<BigInteger, Tenant> tenants;
+  private final Map<BigInteger, CredentialsProvider> credentialsProviders =
+      new ConcurrentHashMap<>();
+
+  private TenantRegistry(Map<BigInteger, Tenant> tenants) {
+    this.tenants = tenants;
+  }
+
+  /** Reads the accounts from the given file of the configuration directory. */
+  public static TenantRegistry load(Config config, String fileName) throws IOException {
+    File tenantsFile = new File(config.getPath(), fileName);
+    Map<BigInteger, Tenant> tenants = new LinkedHashMap<>();
+    try (BufferedReader reader =
+        Files.newBufferedReader(tenantsFile.toPath(), StandardCharsets.UTF_8)) {
+      String line;
+      int lineNumber = 0;
+      while ((line = reader.readLine()) != null) {
+        lineNumber++;
+        if (line.trim().isEmpty() || line.startsWith("#")) {
+          continue;
+        }
+        String[] columns = line.split("\t", -1);
+        if (columns.length != 2) {
+          throw new IOException(
+              String.format(
+                  "Line %d of %s must have 2 columns: account ID and credentials file",
+                  lineNumber, tenantsFile.getCanonicalPath()));
+        }
+        BigInteger accountId = new BigInteger(columns[0].trim());
+        File credentialsFile = new File(config.getPath(), columns[1].trim());
+        if (tenants.put(accountId, new Tenant(accountId, credentialsFile)) != null) {
+          throw new IOException(
+              String.format(
+                  "Account %s is listed twice in %s", accountId, tenantsFile.getCanonicalPath()));
+        }
+      }
+    }
+    return new TenantRegistry(tenants);
+  }
+
+  /** Returns all the accounts, in the order of the file. */
+  public List<Tenant> getTenants() {
+    return Collections.unmodifiableList(new ArrayList<>(tenants.values()));
+  }
+
+  /** Returns the account with the given ID, or null if it is not registered. */
+  public Tenant getTenant(BigInteger accountId) {
+    return tenants.get(accountId);
+  }
+
+  /**
+   * Returns a provider of the credentials of the account, to use in the settings of its clients.
+   * The credentials are loaded, and their first access token fetched, on the first call.
+   */
+  public CredentialsProvider getCredentialsProvider(Tenant tenant) throws IOException {
+    CredentialsProvider credentialsProvider = credentialsProviders.get(tenant.getAccountId());
+    if (credentialsProvider != null) {
+      return credentialsProvider;
+    }
+    GoogleCredentials credentials;
+    try (InputStream inputStream = new FileInputStream(tenant.getCredentialsFile())) {
+      credentials = GoogleCredentials.fromStream(inputStream);
+    }
+    // Service account credentials cannot fetch an access token without scopes.
+    if (credentials.createScopedRequired()) {
+      credentials = credentials.createScoped(Authenticator.SCOPES);
+    }
+    credentials.refreshIfExpired();
+    // Another thread may have loaded the same account meanwhile; only one of them is kept.
+    credentialsProviders.putIfAbsent(
+        tenant.getAccountId(), FixedCredentialsProvider.create(credentials));
+    return credentialsProviders.get(tenant.getAccountId());
+  }
+}
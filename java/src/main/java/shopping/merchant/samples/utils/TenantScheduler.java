@@ -0,0 +1,154 @@
+// Copyright 2026 Google LLC
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     https://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package shopping.merchant.samples.utils;
+
+import java.math.BigInteger;
+import java.util.ArrayDeque;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Runs the tasks of many accounts in parallel, sharing the worker threads fairly between them.
+ *
+ * <p>Each account has its own queue of tasks. Workers take the accounts in turn, one task at a
+ * time, so an account with thousands of tasks does not delay the accounts with a few. An account
+ * also never runs more than {@code maxPerTenant} tasks at the same time, which keeps its requests
+ * within its own quota.
+ */
+public class TenantScheduler implements AutoCloseable {
+
+  // The queued tasks of an account. Guarded by the scheduler.
+  private static final class TenantQueue {
+    private final BigInteger accountId;
+    private final ArrayDeque<Runnable> tasks = new ArrayDeque<>();
+    private int running;
+    private boolean ready;
+
+    private TenantQueue(BigInteger accountId) {
+      this.accountId = accountId;
+    }
+  }
+
+  private final int maxPerTenant;
+  private final Thread[] workers;
+  // Guarded by this.
+  private final Map<BigInteger, TenantQueue> queues = new HashMap<>();
+  // The accounts that can start a task now, in the order they get their turn. Guarded by this.
+  private final ArrayDeque<TenantQueue> ready = new ArrayDeque<>();
+  private boolean closed;
+
+  /**
+   * Creates a scheduler and starts its workers.
+   *
+   * @param workerCount the maximum number of tasks running at the same time.
+   * @param maxPerTenant the maximum number of tasks of one account running at the same time.
+   */
+  public TenantScheduler(int workerCount, int maxPerTenant) {
+    if (workerCount < 1 || maxPerTenant < 1) {
+      throw new IllegalArgumentException("workerCount and maxPerTenant must be at least 1");
+    }
+    this.maxPerTenant = maxPerTenant;
+    this.workers = new Thread[workerCount];
+    for (int i = 0; i < workerCount; i++) {
+      workers[i] = new Thread(this::work, "tenant-worker-" + i);
+      workers[i].start();
+    }
+  }
+
+  /** Queues a task of the account, and returns its result once it has run. */
+  public <T> CompletableFuture<T> submit(Tenant tenant, Callable<T> task) {
+    CompletableFuture<T> future = new CompletableFuture<>();
+    Runnable runnable =
+        () -> {
+          try {
+            future.complete(task.call());
+          } catch (Throwable e) {
+            future.completeExceptionally(e);
+          }
+        };
+    synchronized (this) {
+      if (closed) {
+        throw new IllegalStateException("The scheduler is closed");
+      }
+      TenantQueue queue = queues.computeIfAbsent(tenant.getAccountId(), TenantQueue::new);
+      queue.tasks.add(runnable);
+      markReady(queue);
+      notify();
+    }
+    return future;
+  }
+
+  /** Runs the queued tasks, then stops the workers. */
+  @Override
+  public void close() throws InterruptedException {
+    synchronized (this) {
+      closed = true;
+      notifyAll();
+    }
+    for (Thread worker : workers) {
+      worker.join();
+    }
+  }
+
+  private void work() {
+    while (true) {
+      TenantQueue queue;
+      Runnable task;
+      synchronized (this) {
+        while (ready.isEmpty()) {
+          // Tasks left in queues are started by the workers still running tasks of the account.
+          if (closed) {
+            return;
+          }
+          try {
+            wait();
+          } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return;
+          }
+        }
+        queue = ready.poll();
+        queue.ready = false;
+        task = queue.tasks.poll();
+        queue.running++;
+        // The account goes to the back of the line, so that every account gets its turn.
+        markReady(queue);
+      }
+      try {
+        task.run();
+      } finally {
+        synchronized (this) {
+          queue.running--;
+          markReady(queue);
+          if (queue.tasks.isEmpty() && queue.running == 0) {
+            queues.remove(queue.accountId);
+          }
+          if (!ready.isEmpty()) {
+            notify();
+          }
+        }
+      }
+    }
+  }
+
+  private void markReady(TenantQueue queue) {
+    if (!queue.ready && !queue.tasks.isEmpty() && queue.running < maxPerTenant) {
+      queue.ready = true;
+      ready.add(queue);
+    }
+  }
+}